@@ -0,0 +1,18 @@
+package at.bigb.planer.benchmark;
+
+/**
+ * Generator settings shared by the benchmarks
+ */
+final class BenchmarkSettings {
+
+    /**
+     * Time limit of one BACKTRACK_RANDOM group search. With the application's 200 ms the 1000-round
+     * combinations would take minutes per invocation; with a few milliseconds a search that does not finish
+     * falls back to the greedy selection, as it does in production.
+     */
+    static final long BACKTRACK_TIMEOUT_MILLIS = 2;
+
+    private BenchmarkSettings() {
+        // Prevent instantiation
+    }
+}
@@ -0,0 +1,54 @@
+package at.bigb.planer.benchmark;
+
+import at.bigb.planer.domain.Player;
+import at.bigb.planer.service.PairingAnalyzer;
+import at.bigb.planer.service.PairingGenerator;
+import at.bigb.planer.service.PlayerRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a single {@link PairingGenerator#selectGroup(int, int, PairingGenerator.GroupScorer)} call
+ * against a pairing history of {@code rounds} previously recorded groups.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class GroupSelectionBenchmark {
+
+    @Param({"50", "1000"})
+    int players;
+
+    @Param({"100", "1000"})
+    int rounds;
+
+    @Param({"4"})
+    int groupSize;
+
+    @Param({"GREEDY_SHUFFLE", "BACKTRACK_RANDOM"})
+    PairingGenerator.Strategy strategy;
+
+    private PairingGenerator generator;
+    private PairingAnalyzer analyzer;
+    private PairingGenerator.GroupScorer scorer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Player> roster = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) roster.add(new Player("id-" + i, "P" + i));
+        analyzer = new PairingAnalyzer(new PlayerRegistry(roster), groupSize);
+        generator = new PairingGenerator(strategy, 42L, 200, BenchmarkSettings.BACKTRACK_TIMEOUT_MILLIS);
+        scorer = PairingGenerator.GroupScorer.pairOverlap(analyzer);
+        for (int r = 0; r < rounds; r++) {
+            analyzer.recordPairing(generator.selectGroup(players, groupSize, scorer));
+        }
+    }
+
+    @Benchmark
+    public int[] selectGroup() {
+        return generator.selectGroup(players, groupSize, scorer);
+    }
+}
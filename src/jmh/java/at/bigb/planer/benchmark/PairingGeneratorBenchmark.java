@@ -0,0 +1,50 @@
+package at.bigb.planer.benchmark;
+
+import at.bigb.planer.service.PairingGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link PairingGenerator#generate(List, int)}: full rounds in which every player is paired.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class PairingGeneratorBenchmark {
+
+    @Param({"50", "1000"})
+    int players;
+
+    @Param({"100", "1000"})
+    int rounds;
+
+    @Param({"GREEDY_SHUFFLE", "BACKTRACK_RANDOM"})
+    PairingGenerator.Strategy strategy;
+
+    private List<String> names;
+    private Map<String, Integer> indexByName;
+    private PairingGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        names = new ArrayList<>(players);
+        indexByName = new HashMap<>();
+        for (int i = 0; i < players; i++) {
+            names.add("P" + i);
+            indexByName.put("P" + i, i);
+        }
+        generator = new PairingGenerator(strategy, 42L, 200, BenchmarkSettings.BACKTRACK_TIMEOUT_MILLIS);
+    }
+
+    @Benchmark
+    public List<List<PairingGenerator.Pair>> generate(ScheduleQualityCounters quality) {
+        List<List<PairingGenerator.Pair>> schedule = generator.generate(names, rounds);
+        quality.record(schedule, indexByName);
+        return schedule;
+    }
+}
@@ -0,0 +1,56 @@
+package at.bigb.planer.benchmark;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.ScheduleConfig;
+import at.bigb.planer.service.PairingGenerator;
+import at.bigb.planer.service.PlanRepository;
+import at.bigb.planer.service.ScheduleGenerationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput of {@link ScheduleGenerationService#generateSchedule(ScheduleConfig)}.
+ * The service keeps a single plan, so stored plans do not pile up in the heap between invocations.
+ * The default parameters are a short grid; wider grids are passed to the benchmark jar with {@code -p}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ScheduleGenerationBenchmark {
+
+    @Param({"50", "1000"})
+    int players;
+
+    @Param({"100", "1000"})
+    int rounds;
+
+    @Param({"4"})
+    int groupSize;
+
+    @Param({"GREEDY_SHUFFLE", "BACKTRACK_RANDOM", "ANNEALING", "CONSTRUCTIVE"})
+    PairingGenerator.Strategy strategy;
+
+    private ScheduleGenerationService service;
+    private ScheduleConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> names = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) names.add("Player " + i);
+        config = new ScheduleConfig(names, rounds, groupSize);
+        service = new ScheduleGenerationService(
+                new PairingGenerator(strategy, 42L, 200, BenchmarkSettings.BACKTRACK_TIMEOUT_MILLIS),
+                PairingGenerator.GroupScoring.PAIR_OVERLAP, null, new PlanRepository(1, Duration.ofMinutes(1)), null);
+    }
+
+    @Benchmark
+    public Plan generateSchedule(ScheduleQualityCounters quality) {
+        Plan plan = service.generateSchedule(config);
+        quality.record(plan);
+        return plan;
+    }
+}
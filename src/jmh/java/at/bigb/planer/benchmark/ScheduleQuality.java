@@ -0,0 +1,84 @@
+package at.bigb.planer.benchmark;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.Player;
+import at.bigb.planer.domain.Round;
+import at.bigb.planer.service.PairCooccurrence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quality of a generated schedule, reported next to the throughput numbers (see {@link ScheduleQualityCounters})
+ * so that a faster algorithm cannot silently trade away distribution quality.
+ * <ul>
+ *     <li>maxPairRepeats: highest number of times two players shared a group</li>
+ *     <li>pairSquareSum: sum of squared pair counts (lower = pairs spread more evenly)</li>
+ *     <li>appearanceSpread: most minus least scheduled player</li>
+ * </ul>
+ */
+final class ScheduleQuality {
+
+    private final int maxPairRepeats;
+    private final long pairSquareSum;
+    private final int appearanceSpread;
+
+    private ScheduleQuality(int maxPairRepeats, long pairSquareSum, int appearanceSpread) {
+        this.maxPairRepeats = maxPairRepeats;
+        this.pairSquareSum = pairSquareSum;
+        this.appearanceSpread = appearanceSpread;
+    }
+
+    static ScheduleQuality of(int playerCount, List<int[]> groups) {
+        PairCooccurrence matrix = new PairCooccurrence(playerCount);
+        int[] appearances = new int[playerCount];
+        for (int[] group : groups) {
+            matrix.recordGroup(group, group.length);
+            for (int player : group) appearances[player]++;
+        }
+        int maxPair = 0;
+        long squares = 0;
+        for (int b = 1; b < playerCount; b++) {
+            for (int a = 0; a < b; a++) {
+                int count = matrix.get(a, b);
+                maxPair = Math.max(maxPair, count);
+                squares += (long) count * count;
+            }
+        }
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int count : appearances) {
+            min = Math.min(min, count);
+            max = Math.max(max, count);
+        }
+        return new ScheduleQuality(maxPair, squares, playerCount == 0 ? 0 : max - min);
+    }
+
+    static ScheduleQuality of(Plan plan) {
+        Map<String, Integer> indexById = new HashMap<>();
+        for (Player player : plan.getPlayers()) indexById.put(player.getId(), indexById.size());
+        List<int[]> groups = new ArrayList<>(plan.getRounds().size());
+        for (Round round : plan.getRounds()) {
+            int[] group = new int[round.getSelectedPlayers().size()];
+            for (int i = 0; i < group.length; i++) {
+                group[i] = indexById.get(round.getSelectedPlayers().get(i).getId());
+            }
+            groups.add(group);
+        }
+        return of(indexById.size(), groups);
+    }
+
+    int getMaxPairRepeats() {
+        return maxPairRepeats;
+    }
+
+    long getPairSquareSum() {
+        return pairSquareSum;
+    }
+
+    int getAppearanceSpread() {
+        return appearanceSpread;
+    }
+}
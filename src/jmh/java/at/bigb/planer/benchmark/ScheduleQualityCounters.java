@@ -0,0 +1,85 @@
+package at.bigb.planer.benchmark;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.service.PairingGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports the {@link ScheduleQuality} of the last schedule of an iteration as JMH secondary results
+ * ({@code maxPairRepeats}, {@code pairSquareSum}, {@code appearanceSpread}), next to the throughput.
+ * A benchmark only hands over its result; the quality is computed when JMH reads the counters,
+ * outside of the measured code.
+ * <p>
+ * JMH sums EVENTS counters over the measurement iterations and threads, so every iteration reports its
+ * quality divided by their number: the secondary result is the mean quality, not a multiple of it.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class ScheduleQualityCounters {
+
+    private Plan lastPlan;
+    private List<List<PairingGenerator.Pair>> lastPairs;
+    private Map<String, Integer> indexByName;
+    private ScheduleQuality quality;
+    // measurement iterations times threads, the number of counter values JMH adds up
+    private int summedValues = 1;
+
+    @Setup(Level.Iteration)
+    public void reset(BenchmarkParams params) {
+        lastPlan = null;
+        lastPairs = null;
+        quality = null;
+        summedValues = Math.max(1, params.getMeasurement().getCount() * params.getThreads());
+    }
+
+    void record(Plan plan) {
+        lastPlan = plan;
+        quality = null;
+    }
+
+    void record(List<List<PairingGenerator.Pair>> schedule, Map<String, Integer> indexByName) {
+        lastPairs = schedule;
+        this.indexByName = indexByName;
+        quality = null;
+    }
+
+    public double maxPairRepeats() {
+        return (double) quality().getMaxPairRepeats() / summedValues;
+    }
+
+    public double pairSquareSum() {
+        return (double) quality().getPairSquareSum() / summedValues;
+    }
+
+    public double appearanceSpread() {
+        return (double) quality().getAppearanceSpread() / summedValues;
+    }
+
+    private ScheduleQuality quality() {
+        if (quality == null) {
+            if (lastPlan != null) {
+                quality = ScheduleQuality.of(lastPlan);
+            } else if (lastPairs != null) {
+                List<int[]> groups = new ArrayList<>();
+                for (List<PairingGenerator.Pair> round : lastPairs) {
+                    for (PairingGenerator.Pair pair : round) {
+                        groups.add(new int[]{indexByName.get(pair.a), indexByName.get(pair.b)});
+                    }
+                }
+                quality = ScheduleQuality.of(indexByName.size(), groups);
+            } else {
+                quality = ScheduleQuality.of(0, List.of());
+            }
+        }
+        return quality;
+    }
+}
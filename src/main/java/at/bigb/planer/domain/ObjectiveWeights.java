@@ -0,0 +1,22 @@
+package at.bigb.planer.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Weights of the cost terms a schedule is optimized for (0 switches a term off)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObjectiveWeights {
+    private int repeatedPartners = 1;
+    private int equalAppearances = 1;
+    private int appearanceSpacing;
+    private int avoidedPairs;
+    /** Pairs of player names that should not play together, penalized with the avoidedPairs weight */
+    private List<List<String>> pairsToAvoid;
+}
@@ -16,4 +16,10 @@ public class ScheduleConfig {
     private List<String> playerNames;
     private int numberOfRounds;
     private int playersPerRound;
+    /** Optional weights of the optimization objective, null for the default objective */
+    private ObjectiveWeights objective;
+
+    public ScheduleConfig(List<String> playerNames, int numberOfRounds, int playersPerRound) {
+        this(playerNames, numberOfRounds, playersPerRound, null);
+    }
 }
@@ -0,0 +1,18 @@
+package at.bigb.planer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the result of one item of a batch generation: either the plan or the error
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDto {
+    // position of the configuration in the request
+    private int index;
+    private PlanDto plan;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package at.bigb.planer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the hit/miss metrics of the schedule result cache
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+    private boolean enabled;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private int size;
+    private int maxEntries;
+}
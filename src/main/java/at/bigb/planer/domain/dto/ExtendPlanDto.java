@@ -0,0 +1,20 @@
+package at.bigb.planer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for continuing uploaded rounds with additional rounds
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtendPlanDto {
+    private List<RoundDto> rounds;
+    // players that may be scheduled in the additional rounds besides the players of the uploaded rounds
+    private List<String> playerNames;
+    private int additionalRounds;
+}
@@ -0,0 +1,25 @@
+package at.bigb.planer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Normalized form of {@link PlanDto}: the players are listed once, rounds refer to them by index
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexedPlanDto {
+
+    public static final String MEDIA_TYPE = "application/vnd.bigb.plan-indexed+json";
+
+    private String id;
+    private List<PlayerDto> players;
+    private List<IndexedRoundDto> rounds;
+    private int numberOfRounds;
+    private LocalDateTime createdAt;
+}
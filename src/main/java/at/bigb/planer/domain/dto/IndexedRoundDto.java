@@ -0,0 +1,19 @@
+package at.bigb.planer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Round of an {@link IndexedPlanDto}; the selected players are indices into the plan's players
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexedRoundDto {
+    private int roundNo;
+    private LocalDate roundDate;
+    private int[] playerIndices;
+}
@@ -0,0 +1,25 @@
+package at.bigb.planer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the weights of the schedule objective; omitted weights keep their defaults
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObjectiveWeightsDto {
+    /** Fewer repeated partners (default 1) */
+    private int repeatedPartners = 1;
+    /** Equal number of appearances (default 1) */
+    private int equalAppearances = 1;
+    /** No appearances in consecutive rounds (default 0) */
+    private int appearanceSpacing;
+    /** Keep the pairs of pairsToAvoid apart (default 0) */
+    private int avoidedPairs;
+    private List<List<String>> pairsToAvoid;
+}
@@ -0,0 +1,23 @@
+package at.bigb.planer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for repairing the rounds of a date range when players drop out or join
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepairPlanDto {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    // names of players that cannot play between fromDate and toDate
+    private List<String> unavailablePlayers;
+    // names of new players that can be scheduled between fromDate and toDate
+    private List<String> addedPlayers;
+}
@@ -16,4 +16,10 @@ public class ScheduleConfigDto {
     private List<String> playerNames;
     private int numberOfRounds;
     private int playersPerRound = 4;
+    /** Optional weights of the optimization objective, the default objective if omitted */
+    private ObjectiveWeightsDto objective;
+
+    public ScheduleConfigDto(List<String> playerNames, int numberOfRounds, int playersPerRound) {
+        this(playerNames, numberOfRounds, playersPerRound, null);
+    }
 }
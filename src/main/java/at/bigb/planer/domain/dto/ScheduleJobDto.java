@@ -0,0 +1,23 @@
+package at.bigb.planer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the status of a background schedule generation job
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleJobDto {
+    private String id;
+    private String status;
+    private double progress;
+    private Long bestScore;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
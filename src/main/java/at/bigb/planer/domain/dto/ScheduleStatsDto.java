@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * DTO for schedule statistics
  */
@@ -16,4 +18,14 @@ public class ScheduleStatsDto {
     private int maxFrequency;
     private int minFrequency;
     private double avgFrequency;
+    // fairness metrics
+    private int minAppearances;
+    private int maxAppearances;
+    private double appearanceStdDev;
+    /** Longest run of consecutive rounds a player sits out */
+    private int maxAppearanceGap;
+    /** Percentage of all player pairs that played together at least once */
+    private double pairCoverage;
+    /** Element c: number of player pairs that played together exactly c times */
+    private List<Integer> pairRepeatHistogram;
 }
@@ -0,0 +1,23 @@
+package at.bigb.planer.domain.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for a round of a streamed schedule, with the id the plan can be fetched by once the stream is complete
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class StreamedRoundDto extends RoundDto {
+    private String planId;
+
+    public StreamedRoundDto(String planId, int roundNo, LocalDate roundDate, List<PlayerDto> selectedPlayers) {
+        super(roundNo, roundDate, selectedPlayers);
+        this.planId = planId;
+    }
+}
@@ -0,0 +1,126 @@
+package at.bigb.planer.service;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of counts of a set of elements (groups, players, pairs): how many elements have a count of exactly c.
+ * Updated by the owner whenever the count of one element changes by one, so the number of counted elements,
+ * the sum and the min/max count are read in O(1). Elements with count 0 are not tracked.
+ */
+public class CountHistogram {
+
+    // histogram[c] = number of elements with count c (c >= 1)
+    private int[] histogram;
+    private int elements;
+    private long total;
+    private int min; // 0 while no element is counted
+    private int max;
+
+    public CountHistogram() {
+        this.histogram = new int[8];
+    }
+
+    private CountHistogram(CountHistogram source) {
+        this.histogram = source.histogram.clone();
+        this.elements = source.elements;
+        this.total = source.total;
+        this.min = source.min;
+        this.max = source.max;
+    }
+
+    /**
+     * An element went from count - 1 to count
+     */
+    public void increased(int count) {
+        if (count >= histogram.length) {
+            histogram = Arrays.copyOf(histogram, Math.max(count + 1, histogram.length * 2));
+        }
+        if (count > 1) {
+            histogram[count - 1]--;
+        } else {
+            elements++;
+        }
+        histogram[count]++;
+        total++;
+        if (count > max) max = count;
+        if (count == 1) {
+            min = 1;
+        } else if (count - 1 == min && histogram[min] == 0) {
+            min = count;
+        }
+    }
+
+    /**
+     * An element went from count + 1 to count (0 = no longer counted)
+     */
+    public void decreased(int count) {
+        histogram[count + 1]--;
+        if (count > 0) {
+            histogram[count]++;
+        } else {
+            elements--;
+        }
+        total--;
+        if (histogram[max] == 0) max = elements > 0 ? count : 0;
+        if (count > 0) {
+            min = Math.min(min, count);
+        } else if (elements == 0) {
+            min = 0;
+        } else if (histogram[min] == 0) {
+            // the last element of the lowest count is gone, the next count is found within the histogram
+            int next = min + 1;
+            while (histogram[next] == 0) next++;
+            min = next;
+        }
+    }
+
+    /**
+     * Number of elements with exactly the given count (count >= 1)
+     */
+    public int get(int count) {
+        return count > 0 && count < histogram.length ? histogram[count] : 0;
+    }
+
+    /**
+     * Number of elements with a count of at least 1
+     */
+    public int getElements() {
+        return elements;
+    }
+
+    /**
+     * Sum of the counts of all elements
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * The histogram from count 0 to the maximum count, with the given number of elements at count 0
+     */
+    public int[] toArray(int zeroCount) {
+        int[] result = Arrays.copyOf(histogram, max + 1);
+        result[0] = zeroCount;
+        return result;
+    }
+
+    public CountHistogram copy() {
+        return new CountHistogram(this);
+    }
+
+    public void clear() {
+        Arrays.fill(histogram, 0);
+        elements = 0;
+        total = 0;
+        min = 0;
+        max = 0;
+    }
+}
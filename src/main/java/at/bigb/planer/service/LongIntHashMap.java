@@ -0,0 +1,207 @@
+package at.bigb.planer.service;
+
+import java.util.Arrays;
+
+/**
+ * Minimal open-addressing hash map from primitive long keys to int values.
+ * Avoids boxing and per-entry objects for the hot pairing-frequency lookups.
+ */
+public class LongIntHashMap {
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    // key 0 is used as empty marker, so it is stored separately
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(4, (int) (expectedSize / LOAD_FACTOR) + 1));
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the value for the key or the given default if the key is absent
+     */
+    public int get(long key, int defaultValue) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == EMPTY) return hasZeroKey;
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Adds delta to the value of the key (absent keys start at 0) and returns the new value
+     */
+    public int addTo(long key, int delta) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue += delta;
+            return zeroValue;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        size++;
+        if (size > (mask + 1) * LOAD_FACTOR) {
+            rehash((mask + 1) << 1);
+        }
+        return delta;
+    }
+
+    /**
+     * Removes the key and returns its value, or the given default if the key is absent
+     */
+    public int remove(long key, int defaultValue) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) return defaultValue;
+            hasZeroKey = false;
+            size--;
+            int value = zeroValue;
+            zeroValue = 0;
+            return value;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int value = values[slot];
+                shiftKeys(slot);
+                size--;
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) consumer.accept(EMPTY, zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Returns an independent copy with the same entries, copying the tables without rehashing
+     */
+    public LongIntHashMap copy() {
+        LongIntHashMap copy = new LongIntHashMap(0);
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.size = size;
+        copy.mask = mask;
+        copy.hasZeroKey = hasZeroKey;
+        copy.zeroValue = zeroValue;
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, 0);
+        hasZeroKey = false;
+        zeroValue = 0;
+        size = 0;
+    }
+
+    // backward-shift deletion: moves later entries of the probe chain into the freed slot
+    private void shiftKeys(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            long current;
+            while (true) {
+                current = keys[pos];
+                if (current == EMPTY) {
+                    keys[last] = EMPTY;
+                    values[last] = 0;
+                    return;
+                }
+                int home = slot(current);
+                if (last <= pos ? (last >= home || home > pos) : (last >= home && home > pos)) break;
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = current;
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[newCapacity];
+        values = new int[newCapacity];
+        mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == EMPTY) continue;
+            int slot = slot(key);
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private int slot(long key) {
+        // murmur3 finalizer spreads the (often sparse) bitmask keys across the table
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        return Math.max(n, 4);
+    }
+}
@@ -0,0 +1,186 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Player;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs several independent, differently seeded schedule searches in parallel and keeps the schedule
+ * with the best {@link PairingAnalyzer#getRepeatScore() repeat score}, or the lowest cost of a custom
+ * {@link ScheduleObjective} if one is given.
+ * A start is only begun while the wall-clock budget lasts (the first start always runs), and no further
+ * starts are begun once a perfect schedule (score 0) has been found. Starts still running at the end of the
+ * budget are abandoned after their current round; the first start finishes, but ends its improvement phase
+ * at the end of the budget.
+ * <p>
+ * The worker pool belongs to the search; {@link #close()} shuts it down.
+ */
+@Slf4j
+public class MultiStartScheduleSearch implements AutoCloseable {
+
+    // thrown within a start that ran past the budget; the start is dropped
+    private static final class BudgetExceeded extends RuntimeException {
+        BudgetExceeded() {
+            super("Budget of the schedule search exceeded", null, false, false);
+        }
+    }
+
+    /**
+     * Best schedule found together with the analyzer holding its pairing history
+     */
+    public static class Result {
+        private final int[][] schedule;
+        private final PairingAnalyzer analyzer;
+        private final long score;
+        private final int startsCompleted;
+
+        Result(int[][] schedule, PairingAnalyzer analyzer, long score, int startsCompleted) {
+            this.schedule = schedule;
+            this.analyzer = analyzer;
+            this.score = score;
+            this.startsCompleted = startsCompleted;
+        }
+
+        public int[][] getSchedule() {
+            return schedule;
+        }
+
+        public PairingAnalyzer getAnalyzer() {
+            return analyzer;
+        }
+
+        public long getScore() {
+            return score;
+        }
+
+        public int getStartsCompleted() {
+            return startsCompleted;
+        }
+    }
+
+    private final PairingGenerator prototype;
+    private final int starts;
+    private final long budgetMillis;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param prototype    generator whose settings are used for every start (start i uses seed + i if it is seeded)
+     * @param starts       number of independent searches
+     * @param budgetMillis wall-clock budget after which no new start is begun and running starts are abandoned
+     * @param parallelism  number of worker threads, 0 for all available cores
+     */
+    public MultiStartScheduleSearch(PairingGenerator prototype, int starts, long budgetMillis, int parallelism) {
+        this.prototype = prototype;
+        this.starts = Math.max(1, starts);
+        this.budgetMillis = Math.max(1, budgetMillis);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public Result search(List<Player> players, int rounds, int k, PairingGenerator.GroupScoring scoring) {
+        return search(players, rounds, k, scoring, ScheduleProgressListener.NONE);
+    }
+
+    /**
+     * Runs the search, reporting completed starts as progress and every improvement of the best score.
+     * The listener is called before each start and gets heartbeats from within the starts as well, so that it can
+     * abort the search by throwing.
+     */
+    public Result search(List<Player> players, int rounds, int k, PairingGenerator.GroupScoring scoring,
+                         ScheduleProgressListener listener) {
+        return search(players, rounds, k, scoring, null, listener);
+    }
+
+    /**
+     * Runs the search with every start minimizing the given objective (null for the generator's own);
+     * the starts are then compared by the objective's cost
+     */
+    public Result search(List<Player> players, int rounds, int k, PairingGenerator.GroupScoring scoring,
+                         ScheduleObjective objective, ScheduleProgressListener listener) {
+        PairingGenerator generator = objective != null ? prototype.withObjective(objective) : prototype;
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        long baseSeed = prototype.getSeed() != null ? prototype.getSeed() : ThreadLocalRandom.current().nextLong();
+        AtomicBoolean perfectFound = new AtomicBoolean(false);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicLong bestScore = new AtomicLong(Long.MAX_VALUE);
+
+        List<ForkJoinTask<Result>> tasks = new ArrayList<>(starts);
+        for (int i = 0; i < starts; i++) {
+            final int start = i;
+            tasks.add(pool.submit(() -> {
+                if (start > 0 && (perfectFound.get() || System.nanoTime() > deadline)) {
+                    return null;
+                }
+                listener.progress(completed.get(), starts);
+                PairingAnalyzer analyzer = new PairingAnalyzer(new PlayerRegistry(players), k);
+                // the first start always completes, so that there is a result; every start passes the listener a
+                // heartbeat per round and during its improvement phase, so that the search can still be aborted
+                ScheduleProgressListener budget = new ScheduleProgressListener() {
+                    @Override
+                    public void progress(int done, int total) {
+                        listener.heartbeat();
+                        if (start > 0 && System.nanoTime() - deadline > 0) throw new BudgetExceeded();
+                    }
+
+                    @Override
+                    public void heartbeat() {
+                        listener.heartbeat();
+                    }
+                };
+                int[][] schedule;
+                try {
+                    schedule = generator.withSeed(baseSeed + start)
+                            .generateGroupSchedule(players.size(), rounds, k, analyzer, scoring, budget, deadline);
+                } catch (BudgetExceeded e) {
+                    return null;
+                }
+                long score = objective != null ? objective.cost(schedule, players.size(), analyzer) : analyzer.getRepeatScore();
+                listener.progress(completed.incrementAndGet(), starts);
+                if (bestScore.getAndAccumulate(score, Math::min) > score) listener.bestScore(score);
+                if (score == 0) perfectFound.set(true);
+                return new Result(schedule, analyzer, score, 0);
+            }));
+        }
+
+        Result best = null;
+        try {
+            for (ForkJoinTask<Result> task : tasks) {
+                Result result;
+                try {
+                    result = task.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Schedule search interrupted", e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+                    throw new IllegalStateException("Schedule search failed: " + e.getCause().getMessage(), e.getCause());
+                }
+                // ties keep the lower start index, so a seeded search picks deterministically among equal scores
+                if (result != null && (best == null || result.getScore() < best.getScore())) {
+                    best = result;
+                }
+            }
+        } finally {
+            // after a failure the starts not yet begun are dropped instead of occupying the pool
+            tasks.forEach(task -> task.cancel(true));
+        }
+        log.debug("Multi-start search finished {} of {} starts, best score {}", completed.get(), starts, best.getScore());
+        return new Result(best.getSchedule(), best.getAnalyzer(), best.getScore(), completed.get());
+    }
+
+    /**
+     * Shuts the worker pool down; running starts are interrupted and no further searches are accepted
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,194 @@
+package at.bigb.planer.service;
+
+import java.util.Arrays;
+
+/**
+ * Counts how often every two players have been in the same group.
+ * Stored as a flat triangular int array: the pair (i, j) with i &lt; j lives at j*(j-1)/2 + i,
+ * so adding player n only appends n cells and never moves existing counts.
+ */
+public class PairCooccurrence {
+
+    private int[] counts;
+    private int playerCount;
+    // running aggregates so that fairness scores can be read in O(1)
+    private long totalPairings;
+    private long sumOfSquares;
+    // number of pairs per count, for coverage and repeat statistics
+    private CountHistogram pairCounts;
+
+    public PairCooccurrence(int playerCount) {
+        this.playerCount = Math.max(0, playerCount);
+        this.counts = new int[cells(this.playerCount)];
+        this.pairCounts = new CountHistogram();
+    }
+
+    /**
+     * Grows the matrix so that it can hold the given number of players
+     */
+    public void ensureCapacity(int playerCount) {
+        if (playerCount <= this.playerCount) return;
+        int required = cells(playerCount);
+        if (required > counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(required, counts.length + (counts.length >> 1)));
+        }
+        this.playerCount = playerCount;
+    }
+
+    /**
+     * Returns how often players a and b have been grouped together (0 for unknown players)
+     */
+    public int get(int a, int b) {
+        if (a == b || a >= playerCount || b >= playerCount) return 0;
+        return counts[cell(a, b)];
+    }
+
+    /**
+     * Increments the count of every pair within the first {@code size} entries of the group
+     */
+    public void recordGroup(int[] group, int size) {
+        int max = 0;
+        for (int i = 0; i < size; i++) max = Math.max(max, group[i]);
+        ensureCapacity(max + 1);
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                add(group[i], group[j]);
+            }
+        }
+    }
+
+    /**
+     * Decrements the count of every pair within the first {@code size} entries of the group
+     */
+    public void removeGroup(int[] group, int size) {
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                decrement(group[i], group[j]);
+            }
+        }
+    }
+
+    /**
+     * Increments the count of the pair and returns the new count
+     */
+    public int increment(int a, int b) {
+        ensureCapacity(Math.max(a, b) + 1);
+        return add(a, b);
+    }
+
+    /**
+     * Decrements the count of the pair and returns the new count
+     */
+    public int decrement(int a, int b) {
+        int cell = cell(a, b);
+        int c = counts[cell];
+        if (c == 0) {
+            throw new IllegalStateException("Pair " + a + "-" + b + " has not been recorded");
+        }
+        counts[cell] = c - 1;
+        sumOfSquares -= 2L * c - 1; // c² - (c-1)²
+        totalPairings--;
+        pairCounts.decreased(c - 1);
+        return c - 1;
+    }
+
+    /**
+     * Returns an independent copy (e.g. for a search that must not modify the recorded history)
+     */
+    public PairCooccurrence copy() {
+        PairCooccurrence copy = new PairCooccurrence(0);
+        copy.counts = Arrays.copyOf(counts, cells(playerCount));
+        copy.playerCount = playerCount;
+        copy.totalPairings = totalPairings;
+        copy.sumOfSquares = sumOfSquares;
+        copy.pairCounts = pairCounts.copy();
+        return copy;
+    }
+
+    private int add(int a, int b) {
+        int c = counts[cell(a, b)]++;
+        sumOfSquares += 2L * c + 1; // (c+1)² - c²
+        totalPairings++;
+        pairCounts.increased(c + 1);
+        return c + 1;
+    }
+
+    /**
+     * Sums the pair counts within the first {@code size} entries of the group, O(size²) without allocation
+     */
+    public int groupOverlap(int[] group, int size) {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                sum += get(group[i], group[j]);
+            }
+        }
+        return sum;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Number of recorded pair incidences (each group of k adds k*(k-1)/2)
+     */
+    public long getTotalPairings() {
+        return totalPairings;
+    }
+
+    /**
+     * Sum of all squared pair counts; minimal when the recorded pairings are spread evenly over all pairs
+     */
+    public long getSumOfSquares() {
+        return sumOfSquares;
+    }
+
+    /**
+     * Share (0..1) of all player pairs that have been grouped together at least once
+     */
+    public double getCoverage() {
+        return getCoverage(playerCount);
+    }
+
+    /**
+     * Like {@link #getCoverage()} over at least the given number of players; players beyond the matrix have never
+     * been grouped with anybody
+     */
+    public double getCoverage(int playerCount) {
+        int pairs = cells(Math.max(playerCount, this.playerCount));
+        return pairs > 0 ? (double) pairCounts.getElements() / pairs : 0.0;
+    }
+
+    /**
+     * Number of pairs per count: element c is the number of pairs grouped together exactly c times
+     * (element 0 the pairs that never met)
+     */
+    public int[] getPairCountHistogram() {
+        return getPairCountHistogram(playerCount);
+    }
+
+    /**
+     * Like {@link #getPairCountHistogram()} over at least the given number of players
+     */
+    public int[] getPairCountHistogram(int playerCount) {
+        return pairCounts.toArray(cells(Math.max(playerCount, this.playerCount)) - pairCounts.getElements());
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        totalPairings = 0;
+        sumOfSquares = 0;
+        pairCounts.clear();
+    }
+
+    private static int cell(int a, int b) {
+        int lo = Math.min(a, b);
+        int hi = Math.max(a, b);
+        return hi * (hi - 1) / 2 + lo;
+    }
+
+    private static int cells(int playerCount) {
+        return playerCount * (playerCount - 1) / 2;
+    }
+}
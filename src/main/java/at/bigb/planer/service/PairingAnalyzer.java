@@ -5,90 +5,413 @@ import at.bigb.planer.domain.Player;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
- * Analyzes and tracks player pairings to monitor how often specific combinations appear
+ * Analyzes and tracks player pairings to monitor how often specific combinations appear.
+ * Players are mapped to dense indices by a {@link PlayerRegistry}; a group is stored as a
+ * bitmask over those indices (a primitive long key while all indices are below 64, a BitSet otherwise).
+ * Besides exact groups it keeps a {@link PairCooccurrence} matrix of how often every two players met.
+ * The group frequencies and the player appearances are summarized in {@link CountHistogram}s that are updated with
+ * every recorded pairing, so statistics are read in O(1) and frequency-ordered listings need no sort.
  */
 @Slf4j
 public class PairingAnalyzer {
 
-    private final Map<Set<String>, Integer> pairingFrequency;
+    private static final int DEFAULT_GROUP_SIZE = 4;
+
+    private final PlayerRegistry registry;
+    private final int groupSize;
+    // groups whose player indices are all < 64, keyed by bitmask
+    private final LongIntHashMap maskFrequency;
+    // groups containing at least one player index >= 64
+    private final Map<BitSet, Integer> wideFrequency;
+    // reused for lookups of wide groups so that getFrequency(int[], int) does not allocate
+    private final BitSet lookupKey;
+    private final PairCooccurrence cooccurrence;
+    // how often each player (by index) has been part of a recorded pairing
+    private int[] appearances;
+    private long appearanceSquares;
+    // number of players per appearance count
+    private final CountHistogram appearanceCounts;
+    // number of distinct groups per frequency
+    private final CountHistogram groupFrequencies;
 
     public PairingAnalyzer() {
-        this.pairingFrequency = new HashMap<>();
+        this(new PlayerRegistry(), DEFAULT_GROUP_SIZE);
+    }
+
+    public PairingAnalyzer(PlayerRegistry registry, int groupSize) {
+        this.registry = registry;
+        this.groupSize = groupSize;
+        this.maskFrequency = new LongIntHashMap();
+        this.wideFrequency = new HashMap<>();
+        this.lookupKey = new BitSet();
+        this.cooccurrence = new PairCooccurrence(registry.size());
+        this.appearances = new int[registry.size()];
+        this.appearanceCounts = new CountHistogram();
+        this.groupFrequencies = new CountHistogram();
+    }
+
+    private PairingAnalyzer(PairingAnalyzer source) {
+        this.registry = new PlayerRegistry(source.registry.getPlayers());
+        this.groupSize = source.groupSize;
+        this.maskFrequency = source.maskFrequency.copy();
+        this.wideFrequency = new HashMap<>();
+        source.wideFrequency.forEach((key, frequency) -> wideFrequency.put((BitSet) key.clone(), frequency));
+        this.lookupKey = new BitSet();
+        this.cooccurrence = source.cooccurrence.copy();
+        this.appearances = source.appearances.clone();
+        this.appearanceSquares = source.appearanceSquares;
+        this.appearanceCounts = source.appearanceCounts.copy();
+        this.groupFrequencies = source.groupFrequencies.copy();
+    }
+
+    /**
+     * Returns an independent copy of the recorded history (including the registry), so that a plan can be
+     * continued without touching the analyzer of the original plan. Copies the tables instead of replaying
+     * the rounds.
+     */
+    public PairingAnalyzer copy() {
+        return new PairingAnalyzer(this);
     }
 
     /**
-     * Records a 4-player combination
+     * Records a 4-player combination (or a combination of the configured group size)
      */
     public void recordPairing(List<Player> selectedPlayers) {
-        if (selectedPlayers.size() != 4) {
-            throw new IllegalArgumentException("Pairing must contain exactly 4 players");
+        if (selectedPlayers.size() != groupSize) {
+            throw new IllegalArgumentException("Pairing must contain exactly " + groupSize + " players");
         }
+        int[] indices = new int[selectedPlayers.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = registry.register(selectedPlayers.get(i));
+        }
+        recordPairing(indices);
+    }
 
-        Set<String> playerIds = selectedPlayers.stream()
-                .map(Player::getId)
-                .collect(Collectors.toSet());
+    /**
+     * Records a combination given by player indices of the registry
+     *
+     * @throws IllegalArgumentException if the combination has the wrong size or contains a player twice
+     */
+    public void recordPairing(int[] playerIndices) {
+        requireGroup(playerIndices);
+        int frequency;
+        if (fitsInMask(playerIndices, playerIndices.length)) {
+            frequency = maskFrequency.addTo(toMask(playerIndices, playerIndices.length), 1);
+        } else {
+            frequency = wideFrequency.merge(toBitSet(playerIndices, playerIndices.length, new BitSet()), 1, Integer::sum);
+        }
+        groupFrequencies.increased(frequency);
+        cooccurrence.recordGroup(playerIndices, playerIndices.length);
+        for (int index : playerIndices) {
+            if (index >= appearances.length) {
+                appearances = Arrays.copyOf(appearances, Math.max(index + 1, registry.size()));
+            }
+            int count = ++appearances[index];
+            appearanceSquares += 2L * count - 1;
+            appearanceCounts.increased(count);
+        }
+        log.debug("Recorded pairing: {}", Arrays.toString(playerIndices));
+    }
 
-        pairingFrequency.put(playerIds, pairingFrequency.getOrDefault(playerIds, 0) + 1);
-        log.debug("Recorded pairing: {}", playerIds);
+    /**
+     * Removes one occurrence of a combination given by player indices (e.g. when a round is replaced)
+     *
+     * @throws IllegalArgumentException if the combination has the wrong size, contains a player twice or has not
+     *                                  been recorded
+     */
+    public void removePairing(int[] playerIndices) {
+        requireGroup(playerIndices);
+        int remaining;
+        if (fitsInMask(playerIndices, playerIndices.length)) {
+            long mask = toMask(playerIndices, playerIndices.length);
+            remaining = maskFrequency.addTo(mask, -1);
+            if (remaining <= 0) maskFrequency.remove(mask, 0);
+        } else {
+            BitSet key = toBitSet(playerIndices, playerIndices.length, new BitSet());
+            remaining = wideFrequency.getOrDefault(key, 0) - 1;
+            if (remaining <= 0) wideFrequency.remove(key);
+            else wideFrequency.put(key, remaining);
+        }
+        if (remaining < 0) {
+            throw new IllegalArgumentException("Pairing " + Arrays.toString(playerIndices) + " has not been recorded");
+        }
+        groupFrequencies.decreased(remaining);
+        cooccurrence.removeGroup(playerIndices, playerIndices.length);
+        for (int index : playerIndices) {
+            int count = --appearances[index];
+            appearanceSquares -= 2L * count + 1;
+            appearanceCounts.decreased(count);
+        }
+        log.debug("Removed pairing: {}", Arrays.toString(playerIndices));
     }
 
     /**
      * Gets the frequency of a specific pairing
      */
     public int getFrequency(List<Player> players) {
-        Set<String> playerIds = players.stream()
-                .map(Player::getId)
-                .collect(Collectors.toSet());
-        return pairingFrequency.getOrDefault(playerIds, 0);
+        int[] indices = new int[players.size()];
+        for (int i = 0; i < indices.length; i++) {
+            int index = registry.indexOf(players.get(i).getId());
+            if (index < 0) {
+                return 0; // an unknown player cannot be part of a recorded pairing
+            }
+            indices[i] = index;
+        }
+        requireDistinct(indices, indices.length);
+        return getFrequency(indices, indices.length);
+    }
+
+    /**
+     * Gets the frequency of the pairing formed by the first {@code size} player indices, which must be distinct.
+     * Does not allocate or check, so it can be used inside search loops.
+     */
+    public int getFrequency(int[] playerIndices, int size) {
+        if (fitsInMask(playerIndices, size)) {
+            return maskFrequency.get(toMask(playerIndices, size), 0);
+        }
+        lookupKey.clear();
+        toBitSet(playerIndices, size, lookupKey);
+        return wideFrequency.getOrDefault(lookupKey, 0);
+    }
+
+    /**
+     * Gets the sum of how often every two players of the group have already played together
+     */
+    public int getPairOverlap(List<Player> players) {
+        int[] indices = new int[players.size()];
+        int size = 0;
+        for (Player player : players) {
+            int index = registry.indexOf(player.getId());
+            if (index >= 0) {
+                indices[size++] = index; // unknown players have not met anybody yet
+            }
+        }
+        requireDistinct(indices, size);
+        return cooccurrence.groupOverlap(indices, size);
+    }
+
+    /**
+     * Gets the pair overlap of the first {@code size} player indices, which must be distinct, in O(size²)
+     * without allocation
+     */
+    public int getPairOverlap(int[] playerIndices, int size) {
+        return cooccurrence.groupOverlap(playerIndices, size);
+    }
+
+    /**
+     * Gets how often the player with the given index has been part of a recorded pairing
+     */
+    public int getAppearances(int playerIndex) {
+        return playerIndex < appearances.length ? appearances[playerIndex] : 0;
+    }
+
+    /**
+     * Returns a copy of the appearance counts of all registered players, indexed like the registry
+     */
+    public int[] getAppearanceCounts() {
+        return Arrays.copyOf(appearances, Math.max(appearances.length, registry.size()));
+    }
+
+    /**
+     * Gets a fairness score of everything recorded so far, read in O(1) (lower is better, 0 is perfect).
+     * It is the distance of the squared pair counts and of the squared appearance counts from their
+     * minimum, i.e. from pairs and appearances being spread as evenly as the totals allow.
+     */
+    public long getRepeatScore() {
+        int players = Math.max(registry.size(), cooccurrence.getPlayerCount());
+        long pairExcess = cooccurrence.getSumOfSquares()
+                - minimalSumOfSquares(cooccurrence.getTotalPairings(), (long) players * (players - 1) / 2);
+        long appearanceExcess = appearanceSquares - minimalSumOfSquares(appearanceCounts.getTotal(), players);
+        return pairExcess + appearanceExcess;
+    }
+
+    /**
+     * Smallest possible sum of squares when distributing total over the given number of buckets
+     */
+    static long minimalSumOfSquares(long total, long buckets) {
+        if (buckets <= 0) return 0;
+        long q = total / buckets;
+        long r = total % buckets;
+        return (buckets - r) * q * q + r * (q + 1) * (q + 1);
     }
 
     /**
      * Gets all pairings sorted by frequency (ascending)
      */
     public List<Pairing> getAllPairingsSortedByFrequency() {
-        return pairingFrequency.entrySet().stream()
-                .map(entry -> {
-                    Pairing pairing = new Pairing(entry.getKey());
-                    pairing.setFrequency(entry.getValue());
-                    return pairing;
-                })
-                .sorted(Comparator.comparingInt(Pairing::getFrequency))
-                .collect(Collectors.toList());
+        return getPairingsByFrequency(false, 0, Integer.MAX_VALUE);
     }
 
     /**
-     * Gets statistics about pairings
+     * Gets a page of the pairings ordered by frequency, ascending or (mostFrequentFirst) descending; pairings of the
+     * same frequency keep a stable order. The frequencies covered by the page are looked up in the histogram and a
+     * single pass over the groups creates only the pairings of the page, so there is no sort of all pairings.
+     */
+    public List<Pairing> getPairingsByFrequency(boolean mostFrequentFirst, int offset, int limit) {
+        int unique = getUniquePairingCount();
+        if (offset < 0 || limit <= 0 || offset >= unique) {
+            return new ArrayList<>();
+        }
+        long end = Math.min(unique, (long) offset + limit);
+        // positions [takeFrom, takeTo) of every frequency bucket that belong to the page
+        int lo = groupFrequencies.getMin();
+        int hi = groupFrequencies.getMax();
+        int[] takeFrom = new int[hi - lo + 1];
+        int[] takeTo = new int[hi - lo + 1];
+        long before = 0;
+        for (int i = 0; i <= hi - lo && before < end; i++) {
+            int f = mostFrequentFirst ? hi - i : lo + i;
+            int bucket = groupFrequencies.get(f);
+            if (before + bucket > offset) {
+                takeFrom[f - lo] = (int) Math.max(0, offset - before);
+                takeTo[f - lo] = (int) Math.min(bucket, end - before);
+            }
+            before += bucket;
+        }
+
+        List<List<Pairing>> buckets = new ArrayList<>(hi - lo + 1);
+        for (int i = 0; i <= hi - lo; i++) buckets.add(new ArrayList<>(takeTo[i] - takeFrom[i]));
+        int[] seen = new int[hi - lo + 1];
+        maskFrequency.forEach((mask, frequency) -> {
+            int i = frequency - lo;
+            int position = seen[i]++;
+            if (position >= takeFrom[i] && position < takeTo[i]) {
+                buckets.get(i).add(toPairing(BitSet.valueOf(new long[]{mask}), frequency));
+            }
+        });
+        wideFrequency.forEach((key, frequency) -> {
+            int i = frequency - lo;
+            int position = seen[i]++;
+            if (position >= takeFrom[i] && position < takeTo[i]) {
+                buckets.get(i).add(toPairing(key, frequency));
+            }
+        });
+
+        List<Pairing> page = new ArrayList<>((int) (end - offset));
+        for (int i = 0; i <= hi - lo; i++) {
+            page.addAll(buckets.get(mostFrequentFirst ? hi - lo - i : i));
+        }
+        return page;
+    }
+
+    /**
+     * Number of distinct groups recorded so far
+     */
+    public int getUniquePairingCount() {
+        return maskFrequency.size() + wideFrequency.size();
+    }
+
+    /**
+     * Gets statistics about pairings, read from running aggregates in O(1)
      */
     public Map<String, Object> getStatistics() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalUniquePairings", pairingFrequency.size());
-        stats.put("totalPairingRecords", pairingFrequency.values().stream()
-                .mapToInt(Integer::intValue).sum());
+        int unique = getUniquePairingCount();
 
-        if (!pairingFrequency.isEmpty()) {
-            int maxFrequency = pairingFrequency.values().stream()
-                    .mapToInt(Integer::intValue).max().orElse(0);
-            int minFrequency = pairingFrequency.values().stream()
-                    .mapToInt(Integer::intValue).min().orElse(0);
-            double avgFrequency = pairingFrequency.values().stream()
-                    .mapToInt(Integer::intValue).average().orElse(0.0);
+        stats.put("totalUniquePairings", unique);
+        stats.put("totalPairingRecords", (int) groupFrequencies.getTotal());
 
-            stats.put("maxFrequency", maxFrequency);
-            stats.put("minFrequency", minFrequency);
-            stats.put("avgFrequency", avgFrequency);
+        if (unique > 0) {
+            stats.put("maxFrequency", groupFrequencies.getMax());
+            stats.put("minFrequency", groupFrequencies.getMin());
+            stats.put("avgFrequency", (double) groupFrequencies.getTotal() / unique);
         }
 
+        // fairness: how evenly appearances and pairs are spread over the players; all figures count the same
+        // players, also registered players without a group yet (e.g. added by a repair)
+        int players = Math.max(Math.max(registry.size(), appearances.length), cooccurrence.getPlayerCount());
+        if (players > 0) {
+            double mean = (double) appearanceCounts.getTotal() / players;
+            stats.put("minAppearances", appearanceCounts.getElements() < players ? 0 : appearanceCounts.getMin());
+            stats.put("maxAppearances", appearanceCounts.getMax());
+            stats.put("appearanceStdDev", Math.sqrt(Math.max(0.0, (double) appearanceSquares / players - mean * mean)));
+        }
+        stats.put("pairCoverage", cooccurrence.getCoverage(players) * 100.0);
+        List<Integer> pairRepeats = new ArrayList<>();
+        for (int pairs : cooccurrence.getPairCountHistogram(players)) pairRepeats.add(pairs);
+        stats.put("pairRepeatHistogram", pairRepeats);
+
         return stats;
     }
 
+    public PlayerRegistry getRegistry() {
+        return registry;
+    }
+
+    public PairCooccurrence getCooccurrence() {
+        return cooccurrence;
+    }
+
+    public int getGroupSize() {
+        return groupSize;
+    }
+
     /**
      * Resets all pairing statistics
      */
     public void reset() {
-        pairingFrequency.clear();
+        maskFrequency.clear();
+        wideFrequency.clear();
+        cooccurrence.clear();
+        Arrays.fill(appearances, 0);
+        appearanceSquares = 0;
+        appearanceCounts.clear();
+        groupFrequencies.clear();
         log.debug("Pairing analyzer reset");
     }
+
+    private Pairing toPairing(BitSet key, int frequency) {
+        Set<String> playerIds = new HashSet<>();
+        for (int i = key.nextSetBit(0); i >= 0; i = key.nextSetBit(i + 1)) {
+            playerIds.add(registry.get(i).getId());
+        }
+        Pairing pairing = new Pairing(playerIds);
+        pairing.setFrequency(frequency);
+        return pairing;
+    }
+
+    /**
+     * A group is a set of players: a bitmask key would silently merge a repeated index while the pair and
+     * appearance counts would count it twice, so repeated players are rejected instead
+     */
+    private void requireGroup(int[] playerIndices) {
+        if (playerIndices.length != groupSize) {
+            throw new IllegalArgumentException("Pairing must contain exactly " + groupSize + " players");
+        }
+        requireDistinct(playerIndices, playerIndices.length);
+    }
+
+    private static void requireDistinct(int[] playerIndices, int size) {
+        for (int i = 1; i < size; i++) {
+            for (int j = 0; j < i; j++) {
+                if (playerIndices[i] == playerIndices[j]) {
+                    throw new IllegalArgumentException("Pairing contains player " + playerIndices[i] + " twice");
+                }
+            }
+        }
+    }
+
+    private static boolean fitsInMask(int[] playerIndices, int size) {
+        for (int i = 0; i < size; i++) {
+            if (playerIndices[i] >= Long.SIZE) return false;
+        }
+        return true;
+    }
+
+    private static long toMask(int[] playerIndices, int size) {
+        long mask = 0L;
+        for (int i = 0; i < size; i++) {
+            mask |= 1L << playerIndices[i];
+        }
+        return mask;
+    }
+
+    private static BitSet toBitSet(int[] playerIndices, int size, BitSet target) {
+        for (int i = 0; i < size; i++) {
+            target.set(playerIndices[i]);
+        }
+        return target;
+    }
 }
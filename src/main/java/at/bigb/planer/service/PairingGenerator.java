@@ -3,15 +3,27 @@ package at.bigb.planer.service;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
- * Simple pairing generator with two strategies: GREEDY_SHUFFLE and BACKTRACK_RANDOM.
+ * Simple pairing generator with the strategies GREEDY_SHUFFLE and BACKTRACK_RANDOM, plus ANNEALING,
+ * which builds group schedules like GREEDY_SHUFFLE and then improves them with a {@link ScheduleAnnealer},
+ * and CONSTRUCTIVE, which emits a {@link ResolvableDesigns known design} when one exists for the
+ * player count and group size and otherwise behaves like GREEDY_SHUFFLE.
+ * Group schedules are appearance-balanced by default: a round only takes players from the least-played tier,
+ * so every player's number of appearances differs by at most one from everybody else's.
+ * The ANNEALING improvement minimizes a {@link ScheduleObjective}; a generator with a custom objective
+ * ({@link #withObjective}) runs that improvement after every strategy, so the objective always takes effect.
  * Designed to be drop‑in and used by services that need rounds of pairings.
  */
 public class PairingGenerator {
 
-    public enum Strategy { GREEDY_SHUFFLE, BACKTRACK_RANDOM }
+    public enum Strategy { GREEDY_SHUFFLE, BACKTRACK_RANDOM, ANNEALING, CONSTRUCTIVE }
+
+    /**
+     * How a candidate group is scored: EXACT_GROUP counts repeats of the identical group,
+     * PAIR_OVERLAP sums how often every two of its players already played together.
+     */
+    public enum GroupScoring { EXACT_GROUP, PAIR_OVERLAP }
 
     public static class Pair {
         public final String a;
@@ -29,184 +41,683 @@ public class PairingGenerator {
         @Override public String toString() { return a + "-" + b; }
     }
 
+    // deadline argument for an improvement phase limited by the annealing time only
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * Candidate evaluations (extension costs) after which a group search keeps its best group, even before the
+     * timeout. Without it a search that finds no perfect group would use its whole timeout in every round.
+     */
+    static final long GROUP_SEARCH_EXPANSIONS = 200_000;
+
+    /**
+     * Candidate evaluations after which a pair search keeps its best matching, for the same reason as
+     * {@link #GROUP_SEARCH_EXPANSIONS}: once every partner has been met, no matching reaches cost 0.
+     */
+    static final long PAIR_SEARCH_EXPANSIONS = 200_000;
+
     private final Strategy strategy;
+    private final Long seed;
+    // null when unseeded: the generator is shared between threads, so each call draws from its thread's random
     private final Random rnd;
     private final int greedyReshuffles;
     private final long backtrackTimeoutMillis;
+    private final long annealingTimeMillis;
+    private final boolean balanceAppearances;
+    private final ScheduleObjective objective;
 
     public PairingGenerator(Strategy strategy, Long seed, int greedyReshuffles, long backtrackTimeoutMillis) {
+        this(strategy, seed, greedyReshuffles, backtrackTimeoutMillis, 200);
+    }
+
+    public PairingGenerator(Strategy strategy, Long seed, int greedyReshuffles, long backtrackTimeoutMillis, long annealingTimeMillis) {
+        this(strategy, seed, greedyReshuffles, backtrackTimeoutMillis, annealingTimeMillis, true);
+    }
+
+    public PairingGenerator(Strategy strategy, Long seed, int greedyReshuffles, long backtrackTimeoutMillis, long annealingTimeMillis,
+                            boolean balanceAppearances) {
+        this(strategy, seed, greedyReshuffles, backtrackTimeoutMillis, annealingTimeMillis, balanceAppearances,
+                ScheduleObjective.DEFAULT);
+    }
+
+    private PairingGenerator(Strategy strategy, Long seed, int greedyReshuffles, long backtrackTimeoutMillis, long annealingTimeMillis,
+                             boolean balanceAppearances, ScheduleObjective objective) {
         this.strategy = strategy;
-        this.rnd = (seed == null) ? ThreadLocalRandom.current() : new Random(seed);
+        this.seed = seed;
+        this.rnd = (seed == null) ? null : new Random(seed);
         this.greedyReshuffles = Math.max(1, greedyReshuffles);
         this.backtrackTimeoutMillis = Math.max(1, backtrackTimeoutMillis);
+        this.annealingTimeMillis = Math.max(1, annealingTimeMillis);
+        this.balanceAppearances = balanceAppearances;
+        this.objective = objective;
+    }
+
+    /**
+     * Returns a generator with the same settings but its own random source seeded with the given seed
+     */
+    public PairingGenerator withSeed(long seed) {
+        return new PairingGenerator(strategy, seed, greedyReshuffles, backtrackTimeoutMillis, annealingTimeMillis,
+                balanceAppearances, objective);
+    }
+
+    /**
+     * Returns a generator with the same settings that minimizes the given objective; a seeded generator
+     * starts its own random source from the seed
+     */
+    public PairingGenerator withObjective(ScheduleObjective objective) {
+        return new PairingGenerator(strategy, seed, greedyReshuffles, backtrackTimeoutMillis, annealingTimeMillis,
+                balanceAppearances, objective);
+    }
+
+    public ScheduleObjective getObjective() {
+        return objective;
+    }
+
+    /**
+     * The configured seed, or null if the generator is not seeded
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public boolean isBalanceAppearances() {
+        return balanceAppearances;
+    }
+
+    /**
+     * True if group schedules depend on time budgets (the backtracking timeout or the annealing time): even a seeded
+     * generator may then return different schedules for the same input, depending on how far each search got
+     */
+    public boolean isTimeBounded() {
+        return strategy == Strategy.BACKTRACK_RANDOM || improves();
+    }
+
+    // an objective without weighted terms rates every schedule alike, so it is not worth improving
+    private boolean improves() {
+        return !objective.isEmpty() && (strategy == Strategy.ANNEALING || !objective.equals(ScheduleObjective.DEFAULT));
     }
 
     public List<List<Pair>> generate(List<String> players, int rounds) {
         if (players == null) throw new IllegalArgumentException("players null");
         if (players.size() % 2 != 0) throw new IllegalArgumentException("Anzahl Spieler muss gerade sein (oder handle bye)");
-        Map<Pair, Integer> history = new HashMap<>();
+        if (strategy == Strategy.CONSTRUCTIVE && !players.isEmpty()) {
+            return generateRoundRobin(players, rounds);
+        }
+        int n = players.size();
+        PairCooccurrence history = new PairCooccurrence(n);
+        PairSearch search = strategy == Strategy.BACKTRACK_RANDOM ? new PairSearch(n) : null;
         List<List<Pair>> schedule = new ArrayList<>();
         for (int r = 0; r < rounds; r++) {
-            List<Pair> round;
-            if (strategy == Strategy.GREEDY_SHUFFLE) {
-                round = generateRoundGreedyShuffle(players, history);
-            } else {
-                round = generateRoundBacktrack(players, history, backtrackTimeoutMillis);
-                if (round == null) { // fallback auf greedy
-                    round = generateRoundGreedyShuffle(players, history);
-                }
+            // a round is a perfect matching: player round[2i] plays player round[2i+1]
+            int[] round = null;
+            if (search != null) {
+                round = search.bestMatching(history, System.nanoTime() + backtrackTimeoutMillis * 1_000_000L);
+            }
+            if (round == null) { // fallback auf greedy
+                round = generateRoundGreedyShuffle(n, history);
+            }
+            List<Pair> pairs = new ArrayList<>(n / 2);
+            for (int i = 0; i < n; i += 2) {
+                history.increment(round[i], round[i + 1]);
+                pairs.add(new Pair(players.get(round[i]), players.get(round[i + 1])));
+            }
+            schedule.add(pairs);
+        }
+        return schedule;
+    }
+
+    /**
+     * Circle-method rounds: every pair meets once per n-1 rounds; each further pass relabels the players
+     */
+    private List<List<Pair>> generateRoundRobin(List<String> players, int rounds) {
+        int[][][] days = ResolvableDesigns.roundRobin(players.size());
+        int[] labels = identity(players.size());
+        List<List<Pair>> schedule = new ArrayList<>(rounds);
+        for (int r = 0; r < rounds; r++) {
+            if (r % days.length == 0) partialShuffle(labels, labels.length);
+            int[][] day = days[r % days.length];
+            List<Pair> round = new ArrayList<>(day.length);
+            for (int[] pair : day) {
+                round.add(new Pair(players.get(labels[pair[0]]), players.get(labels[pair[1]])));
             }
-            for (Pair p : round) history.merge(p, 1, Integer::sum);
             schedule.add(round);
         }
         return schedule;
     }
 
-    private List<Pair> generateRoundGreedyShuffle(List<String> players, Map<Pair, Integer> history) {
-        List<Pair> best = null;
+    private int[] generateRoundGreedyShuffle(int n, PairCooccurrence history) {
+        int[] working = identity(n);
+        int[] best = new int[n];
         int bestRepeats = Integer.MAX_VALUE;
-        List<String> working = new ArrayList<>(players);
         for (int attempt = 0; attempt < greedyReshuffles; attempt++) {
-            Collections.shuffle(working, rnd);
-            List<Pair> pairs = new ArrayList<>();
-            for (int i = 0; i < working.size(); i += 2) {
-                pairs.add(new Pair(working.get(i), working.get(i + 1)));
-            }
-            int repeats = countRepeats(pairs, history);
+            partialShuffle(working, n);
+            int repeats = 0;
+            for (int i = 0; i < n; i += 2) repeats += history.get(working[i], working[i + 1]);
             if (repeats < bestRepeats) {
                 bestRepeats = repeats;
-                best = new ArrayList<>(pairs);
+                System.arraycopy(working, 0, best, 0, n);
                 if (bestRepeats == 0) break;
             }
         }
-        if (best == null) {
-            List<Pair> pairs = new ArrayList<>();
-            List<String> copy = new ArrayList<>(players);
-            Collections.shuffle(copy, rnd);
-            for (int i = 0; i < copy.size(); i += 2) pairs.add(new Pair(copy.get(i), copy.get(i+1)));
-            best = pairs;
-        }
         return best;
     }
 
-    private int countRepeats(List<Pair> pairs, Map<Pair, Integer> history) {
-        int c = 0;
-        for (Pair p : pairs) c += history.getOrDefault(p, 0);
-        return c;
-    }
+    /**
+     * Branch-and-bound over perfect matchings of player indices, minimizing the summed pair history.
+     * All working arrays are allocated once per schedule: a used flag per player and, per depth, a
+     * candidate array whose entries pack (history count, position) into a long so that one primitive
+     * sort orders the candidates by count while ties keep the shuffled order.
+     * A partial matching is pruned when its cost plus half the cheapest history count of every unmatched
+     * player reaches the best matching; the search stops at that bound, at the deadline or, once a
+     * matching is complete, after {@link #PAIR_SEARCH_EXPANSIONS} candidate evaluations.
+     */
+    private class PairSearch {
+        private final int n;
+        private final int[] order;
+        private final boolean[] used;
+        private final int[] current;
+        private final int[] best;
+        private final long[][] candidates;
+        private final int[] cheapest;
+        private PairCooccurrence history;
+        private long deadline;
+        private int bestCost;
+        private long nodes;
+        private long expansions;
+        private boolean timedOut;
 
-    private List<Pair> generateRoundBacktrack(List<String> players, Map<Pair, Integer> history, long timeoutMillis) {
-        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
-        List<String> pool = new ArrayList<>(players);
-        Collections.shuffle(pool, rnd);
-        List<Pair> result = new ArrayList<>();
-        boolean found = backtrackRecursive(pool, result, history, deadline);
-        return found ? result : null;
-    }
-
-    private boolean backtrackRecursive(List<String> pool, List<Pair> current, Map<Pair, Integer> history, long deadline) {
-        if (System.nanoTime() > deadline) return false;
-        if (current.size() * 2 == pool.size()) return true;
-        // find first unused index
-        int first = -1;
-        Set<String> used = current.stream().flatMap(p -> Arrays.stream(new String[]{p.a, p.b})).collect(Collectors.toSet());
-        for (int i = 0; i < pool.size(); i++) {
-            if (!used.contains(pool.get(i))) { first = i; break; }
-        }
-        if (first == -1) return true;
-        String a = pool.get(first);
-        List<Integer> candidates = new ArrayList<>();
-        for (int j = first + 1; j < pool.size(); j++) {
-            if (!used.contains(pool.get(j))) candidates.add(j);
-        }
-        candidates.sort(Comparator.comparingInt(j -> history.getOrDefault(new Pair(a, pool.get(j)), 0)));
-        Collections.shuffle(candidates, rnd);
-        for (int j : candidates) {
-            Pair p = new Pair(a, pool.get(j));
-            current.add(p);
-            if (backtrackRecursive(pool, current, history, deadline)) return true;
-            current.remove(current.size() - 1);
-            if (System.nanoTime() > deadline) return false;
-        }
-        return false;
+        PairSearch(int n) {
+            this.n = n;
+            this.order = identity(n);
+            this.used = new boolean[n];
+            this.current = new int[n];
+            this.best = new int[n];
+            this.candidates = new long[n / 2][n];
+            this.cheapest = new int[n];
+        }
+
+        /**
+         * Returns the cheapest matching found before the deadline (null if not even one was completed)
+         */
+        int[] bestMatching(PairCooccurrence history, long deadline) {
+            this.history = history;
+            this.deadline = deadline;
+            this.bestCost = Integer.MAX_VALUE;
+            this.expansions = 0;
+            this.timedOut = false;
+            partialShuffle(order, n);
+            Arrays.fill(used, false);
+            // each pair of a matching costs at least half the cheapest count of either player, summed twice
+            long remaining = 0;
+            for (int a = 0; a < n; a++) {
+                int min = Integer.MAX_VALUE;
+                for (int b = 0; b < n && min > 0; b++) {
+                    if (b != a) min = Math.min(min, history.get(a, b));
+                }
+                cheapest[a] = min;
+                remaining += min;
+            }
+            search(0, 0, 0, remaining);
+            return bestCost == Integer.MAX_VALUE ? null : best.clone();
+        }
+
+        /**
+         * @param remaining sum of {@link #cheapest} over the unmatched players, so 2*cost + remaining bounds
+         *                  twice the cost of every completion
+         */
+        private void search(int depth, int firstFree, int cost, long remaining) {
+            if ((++nodes & 255) == 0 && System.nanoTime() > deadline) timedOut = true;
+            if (bestCost != Integer.MAX_VALUE && expansions > PAIR_SEARCH_EXPANSIONS) timedOut = true;
+            if (timedOut || 2L * cost + remaining >= 2L * bestCost) return;
+            if (depth * 2 == n) {
+                bestCost = cost;
+                System.arraycopy(current, 0, best, 0, n);
+                return;
+            }
+            while (used[order[firstFree]]) firstFree++;
+            int a = order[firstFree];
+            long[] cand = candidates[depth];
+            int count = 0;
+            for (int pos = firstFree + 1; pos < n; pos++) {
+                int b = order[pos];
+                if (!used[b]) cand[count++] = (long) history.get(a, b) << 32 | pos;
+            }
+            expansions += count;
+            Arrays.sort(cand, 0, count);
+            used[a] = true;
+            current[depth * 2] = a;
+            for (int c = 0; c < count && !timedOut; c++) {
+                int b = order[(int) cand[c]];
+                int pairCost = (int) (cand[c] >>> 32);
+                if (cost + pairCost >= bestCost) break; // candidates are sorted by cost
+                long rest = remaining - cheapest[a] - cheapest[b];
+                if (2L * (cost + pairCost) + rest >= 2L * bestCost) continue; // bound depends on b's cheapest count
+                used[b] = true;
+                current[depth * 2 + 1] = b;
+                search(depth + 1, firstFree + 1, cost + pairCost, rest);
+                used[b] = false;
+            }
+            used[a] = false;
+        }
     }
 
     // --- New: support selecting a group of k players (e.g., 4-player combination) ---
+
+    /**
+     * Scores a candidate group given as player indices (lower is better).
+     * Only the first {@code size} entries of {@code group} belong to the candidate.
+     */
+    @FunctionalInterface
+    public interface GroupScorer {
+        int score(int[] group, int size);
+
+        /**
+         * Lower bound on the cost that adding {@code group[size-1]} to the first size-1 entries adds to any
+         * completed group. Summed along a partial group it must never exceed the final score; the backtracking
+         * search prunes partial groups with it. The default 0 allows no pruning, so such a search only ends at a
+         * perfect group, its expansion budget or its timeout.
+         */
+        default int extensionCost(int[] group, int size) {
+            return 0;
+        }
+
+        /**
+         * Scorer for the given scoring on top of the history
+         */
+        static GroupScorer of(GroupScoring scoring, PairingAnalyzer history) {
+            return scoring == GroupScoring.PAIR_OVERLAP ? pairOverlap(history) : exactGroup(history);
+        }
+
+        /**
+         * Exact-group scorer: a partial group has no lower bound above 0, the player completing a group of the
+         * history's group size adds the group's frequency, so at least the last place is pruned and ordered
+         */
+        static GroupScorer exactGroup(PairingAnalyzer history) {
+            return new GroupScorer() {
+                @Override
+                public int score(int[] group, int size) {
+                    return history.getFrequency(group, size);
+                }
+
+                @Override
+                public int extensionCost(int[] group, int size) {
+                    return size == history.getGroupSize() ? history.getFrequency(group, size) : 0;
+                }
+            };
+        }
+
+        /**
+         * Pair-overlap scorer whose extension cost is exact: the new player's counts with the players already in
+         */
+        static GroupScorer pairOverlap(PairingAnalyzer history) {
+            return new GroupScorer() {
+                @Override
+                public int score(int[] group, int size) {
+                    return history.getPairOverlap(group, size);
+                }
+
+                @Override
+                public int extensionCost(int[] group, int size) {
+                    PairCooccurrence pairs = history.getCooccurrence();
+                    int added = group[size - 1];
+                    int cost = 0;
+                    for (int i = 0; i < size - 1; i++) cost += pairs.get(added, group[i]);
+                    return cost;
+                }
+            };
+        }
+    }
+
     /**
      * Selects a group of size k from the available players according to configured strategy.
      * The freqLookup maps a candidate set of player names to the historical frequency (lower is better).
      */
     public List<String> selectGroup(List<String> players, int k, Function<Set<String>, Integer> freqLookup) {
         if (players == null) throw new IllegalArgumentException("players null");
-        if (k <= 0 || k > players.size()) throw new IllegalArgumentException("invalid group size");
-        if (strategy == Strategy.GREEDY_SHUFFLE) {
-            return selectGroupGreedyShuffle(players, k, freqLookup);
+        int[] group = selectGroup(players.size(), k, (candidate, size) -> {
+            Set<String> key = new HashSet<>();
+            for (int i = 0; i < size; i++) key.add(players.get(candidate[i]));
+            return freqLookup.apply(key);
+        });
+        List<String> result = new ArrayList<>(k);
+        for (int index : group) result.add(players.get(index));
+        return result;
+    }
+
+    /**
+     * Selects a group of size k from the players 0..playerCount-1 according to configured strategy.
+     * Works on player indices only, so scoring a candidate costs whatever the scorer costs (O(k) / O(k²)).
+     */
+    public int[] selectGroup(int playerCount, int k, GroupScorer scorer) {
+        if (k <= 0 || k > playerCount) throw new IllegalArgumentException("invalid group size");
+        if (strategy != Strategy.BACKTRACK_RANDOM) {
+            // ANNEALING and CONSTRUCTIVE work on whole schedules, a single group is selected greedily
+            return selectGroupGreedyShuffle(playerCount, k, scorer);
         } else {
-            List<String> result = selectGroupBacktrack(players, k, freqLookup, backtrackTimeoutMillis);
-            if (result == null) return selectGroupGreedyShuffle(players, k, freqLookup);
+            int[] result = selectGroupBacktrack(playerCount, k, scorer, backtrackTimeoutMillis);
+            if (result == null) return selectGroupGreedyShuffle(playerCount, k, scorer);
             return result;
         }
     }
 
-    private List<String> selectGroupGreedyShuffle(List<String> players, int k, Function<Set<String>, Integer> freqLookup) {
-        List<String> best = null;
+    /**
+     * Builds a full schedule of {@code rounds} groups of size k, one group per round.
+     * Every group is recorded into {@code history} before the next one is selected, so the history
+     * (which may already contain earlier rounds) steers the following selections.
+     * Each returned group is sorted by player index.
+     */
+    public int[][] generateGroupSchedule(int playerCount, int rounds, int k, PairingAnalyzer history, GroupScoring scoring) {
+        return generateGroupSchedule(playerCount, rounds, k, history, scoring, ScheduleProgressListener.NONE);
+    }
+
+    /**
+     * Like {@link #generateGroupSchedule(int, int, int, PairingAnalyzer, GroupScoring)} for rounds that continue a
+     * schedule whose last round is given (null if there is none): the history holds the earlier rounds' pairs, the
+     * last round tells objective terms such as {@link ScheduleObjective#appearanceSpacing()} who has just played
+     */
+    public int[][] generateGroupSchedule(int playerCount, int rounds, int k, PairingAnalyzer history, GroupScoring scoring,
+                                         int[] previousRound) {
+        return generateGroupSchedule(playerCount, rounds, k, history, scoring, previousRound,
+                ScheduleProgressListener.NONE, NO_DEADLINE);
+    }
+
+    /**
+     * Selects a group of size k from the given player indices only (e.g. the players available for a round).
+     * The scorer sees player indices; the returned group contains player indices as well.
+     */
+    public int[] selectGroup(int[] candidates, int k, GroupScorer scorer) {
+        int[] positions = selectGroup(candidates.length, k, candidateScorer(candidates, k, scorer));
+        return toPlayers(candidates, positions);
+    }
+
+    /**
+     * Selects a group of size k from the given player indices only, preferring the players who played least
+     * like {@link #generateGroupSchedule} does. {@code playCounts} is indexed by player index.
+     */
+    public int[] selectBalancedGroup(int[] candidates, int[] playCounts, int k, GroupScorer scorer) {
+        int[] counts = new int[candidates.length];
+        for (int i = 0; i < candidates.length; i++) counts[i] = playCounts[candidates[i]];
+        int[] positions = selectBalancedGroup(counts, k, candidateScorer(candidates, k, scorer));
+        return toPlayers(candidates, positions);
+    }
+
+    // a scorer over positions in the candidates array that scores the players at those positions
+    private static GroupScorer candidateScorer(int[] candidates, int k, GroupScorer scorer) {
+        int[] mapped = new int[k];
+        return new GroupScorer() {
+            @Override
+            public int score(int[] group, int size) {
+                for (int i = 0; i < size; i++) mapped[i] = candidates[group[i]];
+                return scorer.score(mapped, size);
+            }
+
+            @Override
+            public int extensionCost(int[] group, int size) {
+                for (int i = 0; i < size; i++) mapped[i] = candidates[group[i]];
+                return scorer.extensionCost(mapped, size);
+            }
+        };
+    }
+
+    private static int[] toPlayers(int[] candidates, int[] positions) {
+        int[] group = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) group[i] = candidates[positions[i]];
+        return group;
+    }
+
+    /**
+     * Like {@link #generateGroupSchedule(int, int, int, PairingAnalyzer, GroupScoring)}, reporting every
+     * round as soon as it is final (for ANNEALING only after the improvement phase) and the progress per round;
+     * the improvement phase sends heartbeats and the best score so far
+     */
+    public int[][] generateGroupSchedule(int playerCount, int rounds, int k, PairingAnalyzer history, GroupScoring scoring,
+                                         ScheduleProgressListener listener) {
+        return generateGroupSchedule(playerCount, rounds, k, history, scoring, listener, NO_DEADLINE);
+    }
+
+    /**
+     * Like {@link #generateGroupSchedule(int, int, int, PairingAnalyzer, GroupScoring, ScheduleProgressListener)},
+     * ending the improvement phase at the given {@link System#nanoTime()} deadline at the latest
+     */
+    public int[][] generateGroupSchedule(int playerCount, int rounds, int k, PairingAnalyzer history, GroupScoring scoring,
+                                         ScheduleProgressListener listener, long deadlineNanos) {
+        return generateGroupSchedule(playerCount, rounds, k, history, scoring, null, listener, deadlineNanos);
+    }
+
+    private int[][] generateGroupSchedule(int playerCount, int rounds, int k, PairingAnalyzer history, GroupScoring scoring,
+                                          int[] previousRound, ScheduleProgressListener listener, long deadlineNanos) {
+        // rounds are only reported once final, i.e. after the improvement if there is one
+        boolean improve = improves();
+        if (strategy == Strategy.CONSTRUCTIVE && history.getCooccurrence().getTotalPairings() == 0) {
+            int[][][] days = ResolvableDesigns.find(playerCount, k);
+            if (days != null) {
+                int[][] schedule = emitDesign(days, playerCount, rounds, history, listener, !improve);
+                return finish(schedule, previousRound, playerCount, history, listener, improve, deadlineNanos);
+            }
+        }
+        GroupScorer scorer = GroupScorer.of(scoring, history);
+        // play counts per player, continuing the appearances already in the history
+        int[] playCounts = null;
+        if (balanceAppearances) {
+            playCounts = new int[playerCount];
+            for (int i = 0; i < playerCount; i++) playCounts[i] = history.getAppearances(i);
+        }
+        int[][] schedule = new int[rounds][];
+        for (int r = 0; r < rounds; r++) {
+            int[] group = playCounts != null ? selectBalancedGroup(playCounts, k, scorer) : selectGroup(playerCount, k, scorer);
+            Arrays.sort(group);
+            if (playCounts != null) {
+                for (int index : group) playCounts[index]++;
+            }
+            history.recordPairing(group);
+            schedule[r] = group;
+            if (!improve) listener.roundGenerated(r, group);
+            listener.progress(r + 1, rounds);
+        }
+        return finish(schedule, previousRound, playerCount, history, listener, improve, deadlineNanos);
+    }
+
+    private int[][] finish(int[][] schedule, int[] previousRound, int playerCount, PairingAnalyzer history,
+                           ScheduleProgressListener listener, boolean improve, long deadlineNanos) {
+        int rounds = schedule.length;
+        if (improve) {
+            long deadline = System.nanoTime() + annealingTimeMillis * 1_000_000L;
+            if (deadlineNanos != NO_DEADLINE && deadlineNanos - deadline < 0) deadline = deadlineNanos;
+            int[][] improved = new ScheduleAnnealer(random(), objective)
+                    .improve(schedule, previousRound, playerCount, history, deadline, listener);
+            // bring the history in line with the rounds that changed
+            for (int r = 0; r < rounds; r++) {
+                if (!Arrays.equals(schedule[r], improved[r])) {
+                    history.removePairing(schedule[r]);
+                    history.recordPairing(improved[r]);
+                }
+            }
+            schedule = improved;
+            for (int r = 0; r < rounds; r++) listener.roundGenerated(r, schedule[r]);
+        }
+        listener.bestScore(history.getRepeatScore());
+        return schedule;
+    }
+
+    /**
+     * Selects a group of size k that takes the least-played players: everybody below the k-th smallest play count
+     * is in the group, the remaining places are chosen by the scorer among the players with exactly that count
+     */
+    int[] selectBalancedGroup(int[] playCounts, int k, GroupScorer scorer) {
+        if (k <= 0 || k > playCounts.length) throw new IllegalArgumentException("invalid group size");
+        int[] sorted = playCounts.clone();
+        Arrays.sort(sorted);
+        int threshold = sorted[k - 1];
+        int[] group = new int[k];
+        int fixed = 0;
+        int[] tier = new int[playCounts.length];
+        int tierSize = 0;
+        for (int i = 0; i < playCounts.length; i++) {
+            if (playCounts[i] < threshold) group[fixed++] = i;
+            else if (playCounts[i] == threshold) tier[tierSize++] = i;
+        }
+        int open = k - fixed;
+        if (tierSize == open) {
+            System.arraycopy(tier, 0, group, fixed, open);
+            return group;
+        }
+        // choose the open places within the tier; the scorer sees the fixed players plus the chosen ones
+        int[] candidates = Arrays.copyOf(tier, tierSize);
+        int fixedCount = fixed;
+        int[] positions = selectGroup(tierSize, open, new GroupScorer() {
+            @Override
+            public int score(int[] chosen, int size) {
+                for (int i = 0; i < size; i++) group[fixedCount + i] = candidates[chosen[i]];
+                return scorer.score(group, fixedCount + size);
+            }
+
+            @Override
+            public int extensionCost(int[] chosen, int size) {
+                for (int i = 0; i < size; i++) group[fixedCount + i] = candidates[chosen[i]];
+                return scorer.extensionCost(group, fixedCount + size);
+            }
+        });
+        for (int i = 0; i < open; i++) group[fixed + i] = candidates[positions[i]];
+        return group;
+    }
+
+    /**
+     * Emits the groups of a design day by day; every pass over the design uses a fresh random relabeling,
+     * so identical groups do not repeat while the pair counts stay perfectly even
+     */
+    private int[][] emitDesign(int[][][] days, int playerCount, int rounds, PairingAnalyzer history,
+                               ScheduleProgressListener listener, boolean reportRounds) {
+        List<int[]> groups = new ArrayList<>();
+        for (int[][] day : days) groups.addAll(Arrays.asList(day));
+        int[] labels = identity(playerCount);
+        int[][] schedule = new int[rounds][];
+        for (int r = 0; r < rounds; r++) {
+            if (r % groups.size() == 0) partialShuffle(labels, labels.length);
+            int[] designGroup = groups.get(r % groups.size());
+            int[] group = new int[designGroup.length];
+            for (int i = 0; i < group.length; i++) group[i] = labels[designGroup[i]];
+            Arrays.sort(group);
+            history.recordPairing(group);
+            schedule[r] = group;
+            if (reportRounds) listener.roundGenerated(r, group);
+            listener.progress(r + 1, rounds);
+        }
+        return schedule;
+    }
+
+    private int[] selectGroupGreedyShuffle(int playerCount, int k, GroupScorer scorer) {
+        int[] working = identity(playerCount);
+        int[] best = new int[k];
         int bestRepeats = Integer.MAX_VALUE;
-        List<String> working = new ArrayList<>(players);
         for (int attempt = 0; attempt < greedyReshuffles; attempt++) {
-            Collections.shuffle(working, rnd);
-            List<String> candidate = working.subList(0, k);
-            Set<String> key = new HashSet<>(candidate);
-            int repeats = freqLookup.apply(key);
+            // only the first k positions are used, so a partial Fisher-Yates shuffle is sufficient
+            partialShuffle(working, k);
+            int repeats = scorer.score(working, k);
             if (repeats < bestRepeats) {
                 bestRepeats = repeats;
-                best = new ArrayList<>(candidate);
+                System.arraycopy(working, 0, best, 0, k);
                 if (bestRepeats == 0) break;
             }
         }
-        if (best == null) {
-            List<String> copy = new ArrayList<>(players);
-            Collections.shuffle(copy, rnd);
-            best = new ArrayList<>(copy.subList(0, k));
-        }
         return best;
     }
 
-    private List<String> selectGroupBacktrack(List<String> players, int k, Function<Set<String>, Integer> freqLookup, long timeoutMillis) {
+    private int[] selectGroupBacktrack(int playerCount, int k, GroupScorer scorer, long timeoutMillis) {
         long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
-        List<Integer> indices = new ArrayList<>();
-        for (int i = 0; i < players.size(); i++) indices.add(i);
-        Collections.shuffle(indices, rnd);
-        List<Integer> current = new ArrayList<>();
-        boolean found = backtrackGroup(indices, k, 0, current, players, freqLookup, deadline);
-        if (!found) return null;
-        return current.stream().map(players::get).collect(Collectors.toList());
-    }
-
-    @SuppressWarnings({"unused", "RedundantSuppression"})
-    private boolean backtrackGroup(List<Integer> indices, int k, int startPos, List<Integer> current, List<String> players, Function<Set<String>, Integer> freqLookup, long deadline) {
-        if (System.nanoTime() > deadline) return false;
-        if (current.size() == k) return true;
-        for (int i = startPos; i < indices.size(); i++) {
-            current.add(indices.get(i));
-            // optional: early pruning by estimating frequency
-            Set<String> key = current.stream().map(players::get).collect(Collectors.toSet());
-            int freq = 0;
-            try {
-                freq = freqLookup.apply(key);
-            } catch (Exception ignored) {
-                // If the lookup fails for any reason, treat as unknown (freq=0)
-            }
-            // modest pruning: if frequency is extremely high we can skip this branch early
-            // (keeps behavior conservative; threshold chosen high so only very frequent combos are pruned)
-            if (freq > 1000) { // practically never, but avoids unused variable warning and allows future tuning
-                current.remove(current.size() - 1);
-                continue;
-            }
-            if (backtrackGroup(indices, k, i + 1, current, players, freqLookup, deadline)) return true;
-            current.remove(current.size() - 1);
-            if (System.nanoTime() > deadline) return false;
-        }
-        return false;
+        int[] indices = identity(playerCount);
+        partialShuffle(indices, playerCount);
+        return new GroupSearch(indices, k, scorer, deadline).run();
+    }
+
+    /**
+     * Branch-and-bound over the k-subsets of the shuffled indices. Candidates of a depth are tried in order of
+     * their extension cost, so the first complete group is a greedy incumbent; afterwards every partial group
+     * whose accumulated extension cost already reaches the incumbent's score is pruned. Stops at score 0, at the
+     * deadline or, once a group is complete, after {@link #GROUP_SEARCH_EXPANSIONS} candidate evaluations, and
+     * returns the best group found (null if none was completed in time).
+     */
+    private static final class GroupSearch {
+        private final int[] indices;
+        private final int k;
+        private final GroupScorer scorer;
+        private final long deadline;
+        private final int[] current;
+        private final int[] best;
+        private final long[][] candidates;
+        private int bestScore = Integer.MAX_VALUE;
+        private long nodes;
+        private long expansions;
+        private boolean timedOut;
+
+        GroupSearch(int[] indices, int k, GroupScorer scorer, long deadline) {
+            this.indices = indices;
+            this.k = k;
+            this.scorer = scorer;
+            this.deadline = deadline;
+            this.current = new int[k];
+            this.best = new int[k];
+            this.candidates = new long[k][indices.length];
+        }
+
+        int[] run() {
+            search(0, 0, 0);
+            return bestScore == Integer.MAX_VALUE ? null : best;
+        }
+
+        private void search(int size, int startPos, int bound) {
+            if ((++nodes & 255) == 0 && System.nanoTime() > deadline) timedOut = true;
+            if (bestScore != Integer.MAX_VALUE && expansions > GROUP_SEARCH_EXPANSIONS) timedOut = true;
+            if (timedOut) return;
+            if (size == k) {
+                int score = scorer.score(current, k);
+                if (score < bestScore) {
+                    bestScore = score;
+                    System.arraycopy(current, 0, best, 0, k);
+                }
+                return;
+            }
+            // leave room for the remaining k - size - 1 players after the chosen position
+            int lastPos = indices.length - (k - size);
+            long[] cand = candidates[size];
+            int count = 0;
+            for (int pos = startPos; pos <= lastPos; pos++) {
+                current[size] = indices[pos];
+                cand[count++] = (long) scorer.extensionCost(current, size + 1) << 32 | pos;
+            }
+            expansions += count;
+            Arrays.sort(cand, 0, count);
+            for (int c = 0; c < count && bestScore > 0 && !timedOut; c++) {
+                int extended = bound + (int) (cand[c] >>> 32);
+                if (extended >= bestScore) break; // candidates are sorted by extension cost
+                int pos = (int) cand[c];
+                current[size] = indices[pos];
+                search(size + 1, pos + 1, extended);
+            }
+        }
+    }
+
+    private void partialShuffle(int[] values, int count) {
+        Random random = random();
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(values.length - i);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    private Random random() {
+        return rnd != null ? rnd : ThreadLocalRandom.current();
+    }
+
+    private static int[] identity(int size) {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) values[i] = i;
+        return values;
     }
 
     // convenience factory
@@ -0,0 +1,248 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.Player;
+import at.bigb.planer.domain.Round;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a plan (media type {@value #MEDIA_TYPE}) for export and import; the plan store keeps
+ * plans as objects, this is only their transfer format.
+ * Every player (id and name) is written once in a dictionary; a round is its number, its date as difference to the
+ * previous round's date and the dictionary indices of its players. All numbers are varints, so a round of four
+ * players usually takes 8 bytes instead of several hundred bytes of JSON.
+ * <pre>
+ * 'B' 'P' version
+ * id createdAt numberOfRounds
+ * playerCount (id name)*
+ * roundCount (roundNo dateDelta groupSize index*)*
+ * </pre>
+ * Strings are a varint byte length followed by UTF-8; a missing string or date is encoded as 0, any other value
+ * shifted by one. Reading rejects data with more than {@value #MAX_PLAYERS} players, {@value #MAX_ROUNDS} rounds or
+ * strings longer than {@value #MAX_STRING_BYTES} bytes before allocating anything for them, as an imported plan's
+ * pairing history grows with the square of its players.
+ */
+public final class PlanBinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/x-bigb-plan";
+
+    private static final int MAGIC_0 = 'B';
+    private static final int MAGIC_1 = 'P';
+    private static final int VERSION = 1;
+    public static final int MAX_PLAYERS = 4096;
+    public static final int MAX_ROUNDS = 100_000;
+    public static final int MAX_STRING_BYTES = 1024;
+    // initial capacity limit for counts read from untrusted input
+    private static final int MAX_PRESIZE = 1024;
+
+    private PlanBinaryCodec() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Writes the plan to the stream; the stream is flushed but not closed
+     */
+    public static void write(Plan plan, OutputStream stream) throws IOException {
+        BufferedOutputStream out = new BufferedOutputStream(stream);
+        out.write(MAGIC_0);
+        out.write(MAGIC_1);
+        out.write(VERSION);
+        writeString(out, plan.getId());
+        LocalDateTime createdAt = plan.getCreatedAt();
+        if (createdAt == null) {
+            writeVarint(out, 0);
+        } else {
+            writeVarint(out, zigZag(createdAt.toLocalDate().toEpochDay()) + 1);
+            writeVarint(out, createdAt.toLocalTime().toNanoOfDay());
+        }
+        writeVarint(out, plan.getNumberOfRounds());
+
+        // dictionary: the plan's players plus any player that only appears in a round
+        List<Player> dictionary = new ArrayList<>(plan.getPlayers() != null ? plan.getPlayers() : List.of());
+        Map<String, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < dictionary.size(); i++) indexById.putIfAbsent(dictionary.get(i).getId(), i);
+        List<Round> rounds = plan.getRounds() != null ? plan.getRounds() : List.of();
+        for (Round round : rounds) {
+            for (Player player : round.getSelectedPlayers()) {
+                if (indexById.putIfAbsent(player.getId(), dictionary.size()) == null) dictionary.add(player);
+            }
+        }
+        writeVarint(out, dictionary.size());
+        for (Player player : dictionary) {
+            writeString(out, player.getId());
+            writeString(out, player.getName());
+        }
+
+        writeVarint(out, rounds.size());
+        long previousDay = 0;
+        for (Round round : rounds) {
+            writeVarint(out, round.getRoundNo());
+            if (round.getRoundDate() == null) {
+                writeVarint(out, 0);
+            } else {
+                long day = round.getRoundDate().toEpochDay();
+                writeVarint(out, zigZag(day - previousDay) + 1);
+                previousDay = day;
+            }
+            List<Player> selected = round.getSelectedPlayers();
+            writeVarint(out, selected.size());
+            for (Player player : selected) {
+                writeVarint(out, indexById.get(player.getId()));
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a plan written by {@link #write(Plan, OutputStream)}; rounds share the Player objects of the dictionary
+     *
+     * @throws IOException if the data is not a plan of a supported version, is truncated or holds invalid values
+     */
+    public static Plan read(InputStream stream) throws IOException {
+        InputStream in = new BufferedInputStream(stream);
+        if (readByte(in) != MAGIC_0 || readByte(in) != MAGIC_1) {
+            throw new IOException("Not a binary plan");
+        }
+        int version = readByte(in);
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary plan version " + version);
+        }
+        Plan plan = new Plan();
+        plan.setId(readString(in));
+        long createdDay = readVarint(in);
+        if (createdDay != 0) {
+            plan.setCreatedAt(LocalDateTime.of(toDate(unZigZag(createdDay - 1)), toTime(readVarint(in))));
+        }
+        plan.setNumberOfRounds(readCount(in));
+
+        int playerCount = readCount(in, MAX_PLAYERS, "players");
+        List<Player> players = new ArrayList<>(Math.min(playerCount, MAX_PRESIZE));
+        for (int i = 0; i < playerCount; i++) {
+            players.add(new Player(readString(in), readString(in)));
+        }
+        plan.setPlayers(players);
+
+        int roundCount = readCount(in, MAX_ROUNDS, "rounds");
+        List<Round> rounds = new ArrayList<>(Math.min(roundCount, MAX_PRESIZE));
+        long previousDay = 0;
+        for (int r = 0; r < roundCount; r++) {
+            Round round = new Round();
+            round.setRoundNo(readCount(in));
+            long dateDelta = readVarint(in);
+            if (dateDelta != 0) {
+                previousDay += unZigZag(dateDelta - 1);
+                round.setRoundDate(toDate(previousDay));
+            }
+            int groupSize = readCount(in, playerCount, "players in round " + round.getRoundNo());
+            List<Player> selected = new ArrayList<>(Math.min(groupSize, MAX_PRESIZE));
+            for (int i = 0; i < groupSize; i++) {
+                int index = readCount(in);
+                if (index >= playerCount) {
+                    throw new IOException("Player index " + index + " of round " + round.getRoundNo() + " is out of range");
+                }
+                selected.add(players.get(index));
+            }
+            round.setSelectedPlayers(selected);
+            rounds.add(round);
+        }
+        plan.setRounds(rounds);
+        return plan;
+    }
+
+    private static LocalDate toDate(long epochDay) throws IOException {
+        try {
+            return LocalDate.ofEpochDay(epochDay);
+        } catch (DateTimeException e) {
+            throw new IOException("Date out of range in binary plan", e);
+        }
+    }
+
+    private static LocalTime toTime(long nanoOfDay) throws IOException {
+        try {
+            return LocalTime.ofNanoOfDay(nanoOfDay);
+        } catch (DateTimeException e) {
+            throw new IOException("Time out of range in binary plan", e);
+        }
+    }
+
+    private static void writeString(OutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        int length = readCount(in);
+        if (length == 0) return null;
+        if (length - 1 > MAX_STRING_BYTES) {
+            throw new IOException("String of " + (length - 1) + " bytes in binary plan, at most " + MAX_STRING_BYTES);
+        }
+        byte[] bytes = in.readNBytes(length - 1);
+        if (bytes.length != length - 1) throw new EOFException("Truncated binary plan");
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // unsigned LEB128: 7 bits per byte, high bit set on all but the last byte
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(in);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in binary plan");
+    }
+
+    private static int readCount(InputStream in) throws IOException {
+        long value = readVarint(in);
+        if (value > Integer.MAX_VALUE) throw new IOException("Count " + value + " out of range in binary plan");
+        return (int) value;
+    }
+
+    private static int readCount(InputStream in, int max, String what) throws IOException {
+        int count = readCount(in);
+        if (count > max) throw new IOException("Too many " + what + " in binary plan: " + count + ", at most " + max);
+        return count;
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) throw new EOFException("Truncated binary plan");
+        return b;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,131 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Pairing;
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.Player;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything that belongs to one generated plan: the plan, its players (index i is player index i of the
+ * groups), the groups as player indices, the analyzer holding the plan's pairing history and the objective the
+ * plan was generated with.
+ * Created once per generation and never modified afterwards, so it can be read by any number of
+ * requests in parallel; code that wants to continue a plan must work on a copy of the analyzer.
+ */
+public final class PlanContext {
+
+    private final Plan plan;
+    private final List<Player> players;
+    private final int[][] schedule;
+    private final PairingAnalyzer analyzer;
+    private final ScheduleObjective objective; // null for the generator's default
+    private final int maxAppearanceGap;
+
+    PlanContext(Plan plan, List<Player> players, int[][] schedule, PairingAnalyzer analyzer) {
+        this(plan, players, schedule, analyzer, null);
+    }
+
+    PlanContext(Plan plan, List<Player> players, int[][] schedule, PairingAnalyzer analyzer, ScheduleObjective objective) {
+        this.plan = plan;
+        this.players = Collections.unmodifiableList(players);
+        this.schedule = schedule;
+        this.analyzer = analyzer;
+        this.objective = objective;
+        this.maxAppearanceGap = computeMaxAppearanceGap(players.size(), schedule);
+    }
+
+    public String getPlanId() {
+        return plan.getId();
+    }
+
+    public Plan getPlan() {
+        return plan;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /**
+     * The groups of all rounds as sorted player indices; must not be modified
+     */
+    public int[][] getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * The pairing history of this plan; must not be modified
+     */
+    public PairingAnalyzer getAnalyzer() {
+        return analyzer;
+    }
+
+    /**
+     * The objective requested for this plan (its terms refer to the plan's player indices),
+     * null if the plan was generated with the default one
+     */
+    public ScheduleObjective getObjective() {
+        return objective;
+    }
+
+    /**
+     * The analyzer's statistics plus the plan's longest sit-out ({@code maxAppearanceGap})
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = analyzer.getStatistics();
+        stats.put("maxAppearanceGap", maxAppearanceGap);
+        return stats;
+    }
+
+    /**
+     * Longest run of consecutive rounds any player sits out, counting the rounds before the first and after the
+     * last appearance; computed once, as the plan never changes
+     */
+    public int getMaxAppearanceGap() {
+        return maxAppearanceGap;
+    }
+
+    public List<Pairing> getPairingsSortedByFrequency() {
+        return analyzer.getAllPairingsSortedByFrequency();
+    }
+
+    /**
+     * A page of the pairings ordered by frequency, see {@link PairingAnalyzer#getPairingsByFrequency}
+     */
+    public List<Pairing> getPairingsByFrequency(boolean mostFrequentFirst, int offset, int limit) {
+        return analyzer.getPairingsByFrequency(mostFrequentFirst, offset, limit);
+    }
+
+    /**
+     * How often each player (by name, in player order) is scheduled, read from the analyzer in O(n)
+     */
+    public Map<String, Integer> getPlayerUsage() {
+        Map<String, Integer> usage = new LinkedHashMap<>();
+        for (int i = 0; i < players.size(); i++) {
+            usage.put(players.get(i).getName(), analyzer.getAppearances(i));
+        }
+        return usage;
+    }
+
+    private static int computeMaxAppearanceGap(int playerCount, int[][] schedule) {
+        int[] lastRound = new int[playerCount];
+        Arrays.fill(lastRound, -1);
+        int maxGap = 0;
+        for (int round = 0; round < schedule.length; round++) {
+            for (int index : schedule[round]) {
+                if (index >= playerCount) continue;
+                maxGap = Math.max(maxGap, round - lastRound[index] - 1);
+                lastRound[index] = round;
+            }
+        }
+        for (int last : lastRound) {
+            maxGap = Math.max(maxGap, schedule.length - last - 1);
+        }
+        return maxGap;
+    }
+}
@@ -0,0 +1,75 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.Player;
+import at.bigb.planer.domain.Round;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a plan as XLS-compatible CSV (RoundNo,Date,Player1..PlayerK) directly to a stream.
+ * Rounds are encoded one after the other into a fixed-size buffer, so the memory used does not depend on the plan size.
+ */
+public final class PlanCsvExporter {
+
+    private PlanCsvExporter() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Writes the plan to the stream; the stream is flushed but not closed
+     */
+    public static void write(Plan plan, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        write(plan, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes the plan to the writer; the header has one player column per player of the largest round
+     */
+    public static void write(Plan plan, Writer writer) throws IOException {
+        int playerColumns = 0;
+        for (Round round : plan.getRounds()) {
+            playerColumns = Math.max(playerColumns, round.getSelectedPlayers().size());
+        }
+        writer.write("RoundNo,Date");
+        for (int i = 1; i <= playerColumns; i++) {
+            writer.write(",Player");
+            writer.write(Integer.toString(i));
+        }
+        for (Round round : plan.getRounds()) {
+            writer.write('\n');
+            writer.write(Integer.toString(round.getRoundNo()));
+            writer.write(',');
+            if (round.getRoundDate() != null) {
+                writer.write(round.getRoundDate().toString());
+            }
+            for (Player player : round.getSelectedPlayers()) {
+                writer.write(',');
+                writeEscaped(player.getName(), writer);
+            }
+        }
+    }
+
+    // quotes values containing a separator, line break or quote, doubling the quotes
+    private static void writeEscaped(String value, Writer writer) throws IOException {
+        if (value == null) return;
+        if (value.indexOf(',') < 0 && value.indexOf('\n') < 0 && value.indexOf('"') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') writer.write('"');
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
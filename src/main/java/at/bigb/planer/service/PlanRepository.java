@@ -0,0 +1,94 @@
+package at.bigb.planer.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory store of generated plans, keyed by plan id.
+ * Holds at most {@code maxPlans} plans (the least recently used one is evicted first) and drops
+ * plans older than the time-to-live. All operations hold the lock only for a map operation, the
+ * stored contexts themselves are immutable and are read without locking.
+ * Plans are kept as their contexts (objects, including the pairing history), not in the binary transfer format of
+ * {@link PlanBinaryCodec}, so that reading a plan costs nothing.
+ */
+public class PlanRepository {
+
+    private static final class StoredPlan {
+        private final PlanContext context;
+        private final Instant storedAt;
+
+        StoredPlan(PlanContext context, Instant storedAt) {
+            this.context = context;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final int maxPlans;
+    private final Duration ttl;
+    private final Clock clock;
+    private final LinkedHashMap<String, StoredPlan> entries;
+
+    public PlanRepository(int maxPlans, Duration ttl) {
+        this(maxPlans, ttl, Clock.systemUTC());
+    }
+
+    public PlanRepository(int maxPlans, Duration ttl, Clock clock) {
+        this.maxPlans = Math.max(1, maxPlans);
+        this.ttl = ttl;
+        this.clock = clock;
+        // access order: get() moves an entry to the end, so the eldest entry is the least recently used
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredPlan> eldest) {
+                return size() > PlanRepository.this.maxPlans;
+            }
+        };
+    }
+
+    public void save(PlanContext context) {
+        Instant now = clock.instant();
+        synchronized (entries) {
+            evictExpired(now);
+            entries.put(context.getPlanId(), new StoredPlan(context, now));
+        }
+    }
+
+    /**
+     * Returns the plan with the given id, or null if it is unknown, expired or was evicted
+     */
+    public PlanContext find(String planId) {
+        if (planId == null) return null;
+        Instant now = clock.instant();
+        synchronized (entries) {
+            StoredPlan entry = entries.get(planId);
+            if (entry == null) return null;
+            if (isExpired(entry, now)) {
+                entries.remove(planId);
+                return null;
+            }
+            return entry.context;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            evictExpired(clock.instant());
+            return entries.size();
+        }
+    }
+
+    private void evictExpired(Instant now) {
+        Iterator<StoredPlan> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (isExpired(it.next(), now)) it.remove();
+        }
+    }
+
+    private boolean isExpired(StoredPlan entry, Instant now) {
+        return !entry.storedAt.plus(ttl).isAfter(now);
+    }
+}
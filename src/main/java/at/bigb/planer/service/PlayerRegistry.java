@@ -0,0 +1,63 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns every player a dense index (0..n-1) so that groups and pairs can be stored
+ * in primitive structures (bitmasks, flat arrays) instead of sets of UUID strings.
+ */
+public class PlayerRegistry {
+
+    private final Map<String, Integer> indexById;
+    private final List<Player> players;
+
+    public PlayerRegistry() {
+        this.indexById = new HashMap<>();
+        this.players = new ArrayList<>();
+    }
+
+    public PlayerRegistry(List<Player> players) {
+        this();
+        players.forEach(this::register);
+    }
+
+    /**
+     * Registers a player (if not yet known) and returns its index
+     */
+    public int register(Player player) {
+        Integer existing = indexById.get(player.getId());
+        if (existing != null) {
+            return existing;
+        }
+        int index = players.size();
+        indexById.put(player.getId(), index);
+        players.add(player);
+        return index;
+    }
+
+    /**
+     * Returns the index of the player with the given id or -1 if the player is unknown
+     */
+    public int indexOf(String playerId) {
+        Integer index = indexById.get(playerId);
+        return index == null ? -1 : index;
+    }
+
+    public Player get(int index) {
+        return players.get(index);
+    }
+
+    public List<Player> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    public int size() {
+        return players.size();
+    }
+}
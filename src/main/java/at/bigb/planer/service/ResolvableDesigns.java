@@ -0,0 +1,168 @@
+package at.bigb.planer.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Known resolvable designs: every player is in exactly one group per day and every two players
+ * meet exactly once over all days. Built directly in O(days·n), no search involved.
+ * <ul>
+ *     <li>k = 2: circle method (round-robin), n-1 days for even n, n days with one player sitting out for odd n</li>
+ *     <li>n = q², k = q for a prime power q: affine plane AG(2, q) with q+1 days (e.g. 9/3, 16/4, 25/5, 49/7, 64/8, 81/9)</li>
+ * </ul>
+ */
+public class ResolvableDesigns {
+
+    private ResolvableDesigns() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Returns the days of a design for n players in groups of k, or null if no construction is known
+     */
+    public static int[][][] find(int n, int k) {
+        if (k == 2 && n >= 2) return roundRobin(n);
+        if (k >= 2 && n == k * k && isPrimePower(k)) return affinePlane(k);
+        return null;
+    }
+
+    /**
+     * Circle method: player n-1 (or a dummy for odd n) stays fixed, the others rotate by one per day
+     */
+    public static int[][][] roundRobin(int n) {
+        int m = n % 2 == 0 ? n : n + 1; // m-1 is the dummy for odd n, its partner sits out
+        int[][][] days = new int[m - 1][][];
+        for (int d = 0; d < m - 1; d++) {
+            List<int[]> pairs = new ArrayList<>(m / 2);
+            addPair(pairs, m - 1, d, n);
+            for (int i = 1; i < m / 2; i++) {
+                addPair(pairs, (d + i) % (m - 1), (d - i + m - 1) % (m - 1), n);
+            }
+            days[d] = pairs.toArray(new int[0][]);
+        }
+        return days;
+    }
+
+    private static void addPair(List<int[]> pairs, int a, int b, int n) {
+        if (a < n && b < n) pairs.add(new int[]{Math.min(a, b), Math.max(a, b)});
+    }
+
+    /**
+     * Affine plane AG(2, q): point (x, y) is player x*q + y, day m &lt; q holds the lines y = m·x + b,
+     * day q the lines x = c
+     */
+    static int[][][] affinePlane(int q) {
+        GaloisField field = new GaloisField(q);
+        int[][][] days = new int[q + 1][q][q];
+        for (int m = 0; m < q; m++) {
+            for (int b = 0; b < q; b++) {
+                for (int x = 0; x < q; x++) {
+                    days[m][b][x] = x * q + field.add(field.mul(m, x), b);
+                }
+            }
+        }
+        for (int c = 0; c < q; c++) {
+            for (int y = 0; y < q; y++) {
+                days[q][c][y] = c * q + y;
+            }
+        }
+        return days;
+    }
+
+    static boolean isPrimePower(int q) {
+        if (q < 2) return false;
+        int p = smallestPrimeFactor(q);
+        while (q % p == 0) q /= p;
+        return q == 1;
+    }
+
+    private static int smallestPrimeFactor(int q) {
+        for (int p = 2; p * p <= q; p++) {
+            if (q % p == 0) return p;
+        }
+        return q;
+    }
+
+    /**
+     * GF(p^e) with elements 0..q-1 as base-p digit vectors of polynomials, reduced by a primitive polynomial
+     */
+    static final class GaloisField {
+        private final int q;
+        private final int p;
+        private final int[][] add;
+        private final int[][] mul;
+
+        GaloisField(int q) {
+            this.q = q;
+            this.p = smallestPrimeFactor(q);
+            this.add = new int[q][q];
+            this.mul = new int[q][q];
+            int[] power = primitivePowers();
+            int[] log = new int[q];
+            for (int i = 0; i < q - 1; i++) log[power[i]] = i;
+            for (int a = 0; a < q; a++) {
+                for (int b = 0; b < q; b++) {
+                    add[a][b] = digitwise(a, b);
+                    mul[a][b] = (a == 0 || b == 0) ? 0 : power[(log[a] + log[b]) % (q - 1)];
+                }
+            }
+        }
+
+        int add(int a, int b) {
+            return add[a][b];
+        }
+
+        int mul(int a, int b) {
+            return mul[a][b];
+        }
+
+        private int digitwise(int a, int b) {
+            int result = 0;
+            for (int place = 1; place < q; place *= p) {
+                result += ((a / place % p + b / place % p) % p) * place;
+            }
+            return result;
+        }
+
+        /**
+         * Finds a modulus for which x generates all q-1 nonzero elements and returns x^0..x^(q-2)
+         */
+        private int[] primitivePowers() {
+            if (p == q) {
+                for (int g = 1; g < q; g++) {
+                    int[] powers = powers(g, (a, b) -> a * b % q);
+                    if (powers != null) return powers;
+                }
+            }
+            // monic polynomials x^e - r(x): multiplying by x shifts the digits and substitutes x^e by r(x)
+            for (int r = 1; r < q; r++) {
+                final int reduction = r;
+                int[] powers = powers(p, (a, x) -> timesX(a, reduction));
+                if (powers != null) return powers;
+            }
+            throw new IllegalStateException("No primitive polynomial for GF(" + q + ")");
+        }
+
+        private int timesX(int a, int reduction) {
+            int top = a / (q / p); // coefficient of x^(e-1)
+            int shifted = (a % (q / p)) * p;
+            int result = shifted;
+            for (int i = 0; i < top; i++) result = digitwise(result, reduction);
+            return result;
+        }
+
+        private int[] powers(int generator, IntBinaryOperator times) {
+            int[] powers = new int[q - 1];
+            boolean[] seen = new boolean[q];
+            int value = 1;
+            for (int i = 0; i < q - 1; i++) {
+                if (value == 0 || seen[value]) return null;
+                seen[value] = true;
+                powers[i] = value;
+                value = times.applyAsInt(value, generator);
+            }
+            return value == 1 ? powers : null;
+        }
+    }
+}
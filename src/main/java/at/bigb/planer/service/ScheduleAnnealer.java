@@ -0,0 +1,243 @@
+package at.bigb.planer.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Improves a constructed schedule by simulated annealing.
+ * <p>
+ * Energy (lower is better): the cost of a {@link ScheduleObjective}, by default the sum of squared pair counts
+ * plus (k-1) times the sum of squared appearance counts, i.e. repeated partners and unequal playing time.
+ * <p>
+ * Moves: replace a player of a round by a benched player, or swap two players between two rounds.
+ * Both are slot replacements whose energy delta the objective's terms compute incrementally,
+ * so a move costs O(terms * k) and the schedule is never rescored as a whole. The best schedule is not copied
+ * either: the replacements since the best one are logged and undone at the end.
+ */
+@Slf4j
+public class ScheduleAnnealer {
+
+    private static final double END_TEMPERATURE = 0.05;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    // at most one best-score report per interval, each rescores the history
+    private static final long REPORT_INTERVAL_NANOS = 250_000_000L;
+
+    private final Random rnd;
+    private final ScheduleObjective objective;
+
+    public ScheduleAnnealer(Random rnd) {
+        this(rnd, ScheduleObjective.DEFAULT);
+    }
+
+    public ScheduleAnnealer(Random rnd, ScheduleObjective objective) {
+        this.rnd = rnd;
+        this.objective = objective;
+    }
+
+    /**
+     * Returns an improved copy of the schedule. The history must already contain the given rounds
+     * (plus any earlier rounds, which are kept fixed); it is not modified.
+     *
+     * @param schedule      the rounds to optimize, each a group of player indices
+     * @param playerCount   number of players that may be scheduled (indices 0..playerCount-1)
+     * @param history       pairing history including the given rounds
+     * @param deadlineNanos System.nanoTime() value at which the search stops
+     */
+    public int[][] improve(int[][] schedule, int playerCount, PairingAnalyzer history, long deadlineNanos) {
+        return improve(schedule, playerCount, history, deadlineNanos, ScheduleProgressListener.NONE);
+    }
+
+    /**
+     * Like {@link #improve(int[][], int, PairingAnalyzer, long)}, sending the listener a heartbeat every
+     * {@value #TIME_CHECK_INTERVAL} moves (it may abort the search by throwing) and the repeat score of a new best
+     * schedule at most every 250 ms, the last one before returning
+     */
+    public int[][] improve(int[][] schedule, int playerCount, PairingAnalyzer history, long deadlineNanos,
+                           ScheduleProgressListener listener) {
+        return improve(schedule, null, playerCount, history, deadlineNanos, listener);
+    }
+
+    /**
+     * Like {@link #improve(int[][], int, PairingAnalyzer, long, ScheduleProgressListener)} for rounds that continue
+     * a schedule after the given fixed round (null if they start the schedule)
+     */
+    public int[][] improve(int[][] schedule, int[] previousRound, int playerCount, PairingAnalyzer history,
+                           long deadlineNanos, ScheduleProgressListener listener) {
+        int[][] groups = copy(schedule);
+        if (schedule.length == 0) return groups;
+        int k = schedule[0].length;
+        boolean canBench = playerCount > k;
+        boolean canSwap = schedule.length > 1 && canBench;
+        if (!canBench || k < 2) return groups; // every round contains everybody, nothing to improve
+
+        ScheduleObjective.Search search = objective.start(groups, previousRound, playerCount, history);
+        // the replacements since the best schedule, undone at the end instead of copying every new best
+        UndoLog undo = new UndoLog(schedule.length * k);
+        int[][] best = null; // only set while the undo log is too long to be kept
+
+        double startTemperature = Math.max(1.0, 2.0 * (k - 1));
+        long start = System.nanoTime();
+        long budget = Math.max(1, deadlineNanos - start);
+        double temperature = startTemperature;
+        long energy = 0; // relative to the start, only deltas matter
+        long bestEnergy = 0;
+        long iterations = 0;
+        long accepted = 0;
+        boolean reportBest = listener != ScheduleProgressListener.NONE;
+        boolean reportPending = false; // a new best that has not been reported yet
+        long lastReport = start - REPORT_INTERVAL_NANOS;
+        long lastReportCheck = -TIME_CHECK_INTERVAL;
+
+        while (true) {
+            if (iterations % TIME_CHECK_INTERVAL == 0) {
+                listener.heartbeat();
+                long now = System.nanoTime();
+                if (now >= deadlineNanos) break;
+                double progress = (double) (now - start) / budget;
+                temperature = startTemperature * Math.pow(END_TEMPERATURE / startTemperature, progress);
+            }
+            iterations++;
+
+            long delta;
+            int r1 = rnd.nextInt(groups.length);
+            int slot1 = rnd.nextInt(k);
+            int a = groups[r1][slot1];
+            if (canSwap && rnd.nextBoolean()) {
+                // swap a (round r1) with b (round r2); both must be absent from the other round
+                int r2 = rnd.nextInt(groups.length - 1);
+                if (r2 >= r1) r2++;
+                int slot2 = rnd.nextInt(k);
+                int b = groups[r2][slot2];
+                if (a == b || contains(groups[r2], a) || contains(groups[r1], b)) continue;
+                // the second replacement is evaluated on the schedule after the first one
+                delta = search.delta(r1, slot1, b);
+                search.apply(r1, slot1, b);
+                delta += search.delta(r2, slot2, a);
+                if (accept(delta, temperature)) {
+                    search.apply(r2, slot2, a);
+                    energy += delta;
+                    accepted++;
+                    if (best == null) {
+                        undo.add(r1, slot1, a);
+                        undo.add(r2, slot2, b);
+                    }
+                } else {
+                    search.apply(r1, slot1, a);
+                    continue;
+                }
+            } else {
+                int b = rnd.nextInt(playerCount);
+                if (contains(groups[r1], b)) continue;
+                delta = search.delta(r1, slot1, b);
+                if (accept(delta, temperature)) {
+                    search.apply(r1, slot1, b);
+                    energy += delta;
+                    accepted++;
+                    if (best == null) undo.add(r1, slot1, a);
+                } else {
+                    continue;
+                }
+            }
+            if (energy < bestEnergy) {
+                // the current schedule is the best one: nothing to undo, O(1)
+                bestEnergy = energy;
+                undo.clear();
+                best = null;
+                reportPending = reportBest;
+                // looking at the clock only once per check interval, as early on nearly every move is a new best
+                if (reportBest && iterations - lastReportCheck >= TIME_CHECK_INTERVAL) {
+                    lastReportCheck = iterations;
+                    long now = System.nanoTime();
+                    if (now - lastReport >= REPORT_INTERVAL_NANOS) {
+                        lastReport = now;
+                        reportPending = false;
+                        listener.bestScore(repeatScore(schedule, groups, history));
+                    }
+                }
+            } else if (best == null && undo.isFull()) {
+                // a long walk without improvement: keep the best schedule as a copy instead of an ever longer log,
+                // at most once per schedule-sized number of moves
+                best = copy(groups);
+                undo.undo(best);
+            }
+        }
+        if (best == null) {
+            undo.undo(groups);
+            best = groups;
+        }
+        if (reportPending) listener.bestScore(repeatScore(schedule, best, history));
+        log.debug("Annealing: {} iterations, {} accepted, energy improved by {}", iterations, accepted, -bestEnergy);
+        for (int[] group : best) Arrays.sort(group);
+        return best;
+    }
+
+    // repeat score of the history with the given rounds in place of the original ones
+    private static long repeatScore(int[][] original, int[][] groups, PairingAnalyzer history) {
+        PairingAnalyzer rescored = history.copy();
+        for (int r = 0; r < groups.length; r++) {
+            if (!Arrays.equals(original[r], groups[r])) {
+                rescored.removePairing(original[r]);
+                rescored.recordPairing(groups[r]);
+            }
+        }
+        return rescored.getRepeatScore();
+    }
+
+    private boolean accept(long delta, double temperature) {
+        return delta <= 0 || rnd.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    private static boolean contains(int[] group, int player) {
+        for (int member : group) {
+            if (member == player) return true;
+        }
+        return false;
+    }
+
+    private static int[][] copy(int[][] schedule) {
+        int[][] copy = new int[schedule.length][];
+        for (int i = 0; i < schedule.length; i++) copy[i] = schedule[i].clone();
+        return copy;
+    }
+
+    /**
+     * The slot replacements applied since the best schedule, as (round, slot, previous player).
+     * Holds at most as many entries as the schedule has slots, so restoring the best schedule from it is never
+     * more expensive than a copy of the schedule.
+     */
+    private static final class UndoLog {
+        private final int[] rounds;
+        private final int[] slots;
+        private final int[] players;
+        private int size;
+
+        UndoLog(int capacity) {
+            // a swap adds two entries at once
+            this.rounds = new int[capacity + 1];
+            this.slots = new int[capacity + 1];
+            this.players = new int[capacity + 1];
+        }
+
+        void add(int round, int slot, int previous) {
+            rounds[size] = round;
+            slots[size] = slot;
+            players[size] = previous;
+            size++;
+        }
+
+        boolean isFull() {
+            return size >= rounds.length - 1;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        // reverts the logged replacements on the given copy of the schedule, newest first
+        void undo(int[][] groups) {
+            for (int i = size - 1; i >= 0; i--) groups[rounds[i]][slots[i]] = players[i];
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.ScheduleConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the schedules of a batch of independent configurations in parallel on a bounded worker pool.
+ * Every item completes on its own, so a failing configuration does not affect the other items.
+ * Items waiting for a worker are held in a bounded queue shared by all batches; a batch that does not fit
+ * is rejected as a whole. The worker pool belongs to the service; {@link #close()} shuts it down.
+ */
+@Slf4j
+public class ScheduleBatchService implements AutoCloseable {
+
+    private final ScheduleGenerationService scheduleService;
+    private final ExecutorService executor;
+    private final int maxItems;
+
+    /**
+     * Creates a batch service on top of the given generation service (generated plans end up in its plan store)
+     */
+    public ScheduleBatchService(ScheduleGenerationService scheduleService) {
+        this(scheduleService, ConfigProvider.getConfig());
+    }
+
+    private ScheduleBatchService(ScheduleGenerationService scheduleService, Config config) {
+        this(scheduleService,
+                config.getOptionalValue("planer.batch.parallelism", Integer.class).orElse(0),
+                config.getOptionalValue("planer.batch.maxItems", Integer.class).orElse(100),
+                config.getOptionalValue("planer.batch.queuedBatches", Integer.class).orElse(4));
+    }
+
+    /**
+     * @param parallelism   number of schedules generated concurrently, 0 = all available cores
+     * @param maxItems      largest accepted batch
+     * @param queuedBatches number of full batches that may wait for a worker before batches are rejected
+     */
+    public ScheduleBatchService(ScheduleGenerationService scheduleService, int parallelism, int maxItems, int queuedBatches) {
+        this.scheduleService = scheduleService;
+        this.maxItems = maxItems;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNo = new AtomicInteger();
+        int queueCapacity = Math.max(1, maxItems) * Math.max(1, queuedBatches);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "schedule-batch-" + threadNo.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues all configurations and returns one future per configuration, in input order.
+     * A future completes exceptionally (e.g. with an IllegalArgumentException for an invalid configuration)
+     * without affecting the others.
+     *
+     * @throws IllegalArgumentException   if the batch is empty or larger than the configured maximum
+     * @throws RejectedExecutionException if the queue has no room for the batch; none of its items is generated
+     */
+    public List<CompletableFuture<Plan>> submit(List<ScheduleConfig> configs) {
+        if (configs == null || configs.isEmpty()) {
+            throw new IllegalArgumentException("Batch cannot be empty");
+        }
+        if (configs.size() > maxItems) {
+            throw new IllegalArgumentException("Batch contains " + configs.size() + " items, at most " + maxItems + " are allowed");
+        }
+        log.info("Generating batch of {} schedules", configs.size());
+        List<CompletableFuture<Plan>> results = new ArrayList<>(configs.size());
+        try {
+            for (ScheduleConfig config : configs) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    scheduleService.validateConfig(config); // before generating, so that missing names are reported as invalid
+                    return scheduleService.generateStoredSchedule(config); // items do not replace the last plan
+                }, executor));
+            }
+        } catch (RejectedExecutionException e) {
+            // cancelled items are skipped when a worker takes them from the queue
+            results.forEach(result -> result.cancel(false));
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Shuts the worker pool down; running items are interrupted, queued items never start and no further
+     * batches are accepted
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -1,39 +1,117 @@
 package at.bigb.planer.service;
 
+import at.bigb.planer.domain.ObjectiveWeights;
 import at.bigb.planer.domain.Plan;
 import at.bigb.planer.domain.Player;
 import at.bigb.planer.domain.Round;
 import at.bigb.planer.domain.ScheduleConfig;
 import at.bigb.planer.domain.dto.PairingDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
 import lombok.extern.slf4j.Slf4j;
 
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.eclipse.microprofile.config.Config;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 /**
  * Main service for generating optimized schedules with minimal player combination repetition.
  * Uses a greedy algorithm to ensure balanced distribution of player pairings across rounds.
+ * Every generation works on its own {@link PlanContext}, so concurrent requests do not share any
+ * mutable state; generated plans are kept in a bounded {@link PlanRepository} and can be addressed by plan id.
  */
+@ApplicationScoped
 @Slf4j
 public class ScheduleGenerationService {
 
-    private final PairingAnalyzer analyzer;
-    private final PairingGenerator pairingGenerator;
-    private List<Player> lastGeneratedPlayers = new ArrayList<>();
-    private Plan lastGeneratedPlan; // last generated plan
+    // set by the constructors or, for the container's instance, by init(); the container's client proxy stays empty
+    private PairingGenerator pairingGenerator;
+    private PairingGenerator.GroupScoring groupScoring;
+    private MultiStartScheduleSearch multiStartSearch; // null when only a single search is run
+    private PlanRepository planRepository;
+    private ScheduleResultCache resultCache; // null unless the generator is seeded, not time-bounded and caching is enabled; unused with a multi-start search
+    private volatile PlanContext lastPlanContext; // last generated plan
 
+    /**
+     * Constructor for the container, the configuration is read in {@link #init()}
+     */
     public ScheduleGenerationService() {
-        this.analyzer = new PairingAnalyzer();
-        // Read pairing generator configuration from application.properties (MicroProfile Config)
-        Config config = ConfigProvider.getConfig();
+    }
+
+    /**
+     * Creates a service configured like the application (e.g. for tests that run without the container)
+     */
+    public ScheduleGenerationService(Config config) {
+        configure(config);
+    }
+
+    /**
+     * Creates a service with an explicitly configured generator (e.g. for tests and benchmarks)
+     */
+    public ScheduleGenerationService(PairingGenerator pairingGenerator, PairingGenerator.GroupScoring groupScoring) {
+        this(pairingGenerator, groupScoring, null);
+    }
+
+    /**
+     * Creates a service that runs the given multi-start search (may be null for a single search per schedule)
+     */
+    public ScheduleGenerationService(PairingGenerator pairingGenerator, PairingGenerator.GroupScoring groupScoring,
+                                     MultiStartScheduleSearch multiStartSearch) {
+        this(pairingGenerator, groupScoring, multiStartSearch, new PlanRepository(100, Duration.ofHours(1)));
+    }
+
+    /**
+     * Creates a service that keeps its generated plans in the given repository
+     */
+    public ScheduleGenerationService(PairingGenerator pairingGenerator, PairingGenerator.GroupScoring groupScoring,
+                                     MultiStartScheduleSearch multiStartSearch, PlanRepository planRepository) {
+        this(pairingGenerator, groupScoring, multiStartSearch, planRepository, null);
+    }
+
+    /**
+     * Creates a service that answers identical requests from the given result cache (may be null for no caching).
+     * The cache should only be used with a seeded generator, otherwise every request is meant to get a fresh plan.
+     */
+    public ScheduleGenerationService(PairingGenerator pairingGenerator, PairingGenerator.GroupScoring groupScoring,
+                                     MultiStartScheduleSearch multiStartSearch, PlanRepository planRepository,
+                                     ScheduleResultCache resultCache) {
+        this.planRepository = planRepository;
+        this.resultCache = resultCache;
+        this.pairingGenerator = pairingGenerator;
+        this.groupScoring = groupScoring;
+        this.multiStartSearch = multiStartSearch;
+    }
+
+    /**
+     * Reads the pairing generator configuration from application.properties (MicroProfile Config) once the
+     * container has created the bean; the client proxy never gets here, so it builds no repository or pool
+     */
+    @PostConstruct
+    void init() {
+        configure(ConfigProvider.getConfig());
+    }
+
+    private void configure(Config config) {
+        this.pairingGenerator = createPairingGenerator(config);
+        this.groupScoring = readGroupScoring(config);
+        this.multiStartSearch = createMultiStartSearch(pairingGenerator, config);
+        this.planRepository = createPlanRepository(config);
+        this.resultCache = createResultCache(pairingGenerator, config);
+    }
+
+    private static PairingGenerator createPairingGenerator(Config config) {
         String strategyStr = config.getOptionalValue("planer.pairing.strategy", String.class).orElse("GREEDY_SHUFFLE");
         String seedStr = config.getOptionalValue("planer.pairing.seed", String.class).orElse("");
         int greedyReshuffles = config.getOptionalValue("planer.pairing.greedyReshuffles", Integer.class).orElse(200);
         long backtrackTimeout = config.getOptionalValue("planer.pairing.backtrackTimeoutMillis", Long.class).orElse(200L);
+        long annealingTime = config.getOptionalValue("planer.pairing.annealingTimeMillis", Long.class).orElse(200L);
+        boolean balanceAppearances = config.getOptionalValue("planer.pairing.balanceAppearances", Boolean.class).orElse(true);
         PairingGenerator.Strategy strategy = PairingGenerator.Strategy.GREEDY_SHUFFLE;
         try {
             strategy = PairingGenerator.Strategy.valueOf(strategyStr);
@@ -44,7 +122,55 @@ public class ScheduleGenerationService {
         if (!seedStr.isBlank()) {
             try { seed = Long.parseLong(seedStr); } catch (Exception ignored) { /* keep seed null */ }
         }
-        this.pairingGenerator = new PairingGenerator(strategy, seed, greedyReshuffles, backtrackTimeout);
+        return new PairingGenerator(strategy, seed, greedyReshuffles, backtrackTimeout, annealingTime, balanceAppearances);
+    }
+
+    private static MultiStartScheduleSearch createMultiStartSearch(PairingGenerator pairingGenerator, Config config) {
+        int starts = config.getOptionalValue("planer.pairing.multiStart.starts", Integer.class).orElse(1);
+        if (starts <= 1) {
+            return null;
+        }
+        long budgetMillis = config.getOptionalValue("planer.pairing.multiStart.budgetMillis", Long.class).orElse(500L);
+        int parallelism = config.getOptionalValue("planer.pairing.multiStart.parallelism", Integer.class).orElse(0);
+        return new MultiStartScheduleSearch(pairingGenerator, starts, budgetMillis, parallelism);
+    }
+
+    private static PlanRepository createPlanRepository(Config config) {
+        int maxPlans = config.getOptionalValue("planer.store.maxPlans", Integer.class).orElse(100);
+        long ttlMinutes = config.getOptionalValue("planer.store.ttlMinutes", Long.class).orElse(60L);
+        return new PlanRepository(maxPlans, Duration.ofMinutes(ttlMinutes));
+    }
+
+    private static ScheduleResultCache createResultCache(PairingGenerator pairingGenerator, Config config) {
+        int maxEntries = config.getOptionalValue("planer.cache.maxEntries", Integer.class).orElse(64);
+        if (pairingGenerator.getSeed() == null || maxEntries <= 0) {
+            return null; // without a seed every generation is different, nothing to memoize
+        }
+        if (pairingGenerator.isTimeBounded()) {
+            return null; // the result depends on how far the search got within its time budget
+        }
+        if (config.getOptionalValue("planer.pairing.multiStart.starts", Integer.class).orElse(1) > 1) {
+            return null; // the multi-start result depends on how many starts finish within the budget
+        }
+        return new ScheduleResultCache(maxEntries);
+    }
+
+    private static PairingGenerator.GroupScoring readGroupScoring(Config config) {
+        String scoringStr = config.getOptionalValue("planer.pairing.scoring", String.class).orElse("PAIR_OVERLAP");
+        try {
+            return PairingGenerator.GroupScoring.valueOf(scoringStr);
+        } catch (Exception e) {
+            log.warn("Invalid planer.pairing.scoring='{}'. Falling back to PAIR_OVERLAP", scoringStr);
+            return PairingGenerator.GroupScoring.PAIR_OVERLAP;
+        }
+    }
+
+    /**
+     * Stops the worker pool of the multi-start search when the application shuts down
+     */
+    @PreDestroy
+    void shutdown() {
+        if (multiStartSearch != null) multiStartSearch.close();
     }
 
     /**
@@ -54,79 +180,433 @@ public class ScheduleGenerationService {
      * @return Generated Plan with optimized rounds
      */
     public Plan generateSchedule(ScheduleConfig config) {
+        return generateSchedule(config, ScheduleProgressListener.NONE);
+    }
+
+    /**
+     * Generates a schedule like {@link #generateSchedule(ScheduleConfig)} and reports its progress
+     */
+    public Plan generateSchedule(ScheduleConfig config, ScheduleProgressListener listener) {
+        return generateSchedule(config, listener, null);
+    }
+
+    /**
+     * Generates a schedule and hands every round to the consumer as soon as it is final, in round order, together
+     * with the id the plan is stored under once the last round is generated.
+     * With a single greedy or constructive search this happens while the following rounds are still generated;
+     * ANNEALING and the multi-start search only know the final rounds at the end.
+     */
+    public Plan streamSchedule(ScheduleConfig config, BiConsumer<String, Round> roundConsumer) {
+        return generateSchedule(config, ScheduleProgressListener.NONE, roundConsumer);
+    }
+
+    /**
+     * Generates a schedule like {@link #generateSchedule(ScheduleConfig)} that is only addressable by its plan id:
+     * the last generated plan stays the one of the last single request (e.g. for the items of a batch)
+     */
+    public Plan generateStoredSchedule(ScheduleConfig config) {
+        return generateSchedule(config, ScheduleProgressListener.NONE, null, false);
+    }
+
+    private Plan generateSchedule(ScheduleConfig config, ScheduleProgressListener progressListener,
+                                  BiConsumer<String, Round> roundConsumer) {
+        return generateSchedule(config, progressListener, roundConsumer, true);
+    }
+
+    private Plan generateSchedule(ScheduleConfig config, ScheduleProgressListener progressListener,
+                                  BiConsumer<String, Round> roundConsumer, boolean lastPlan) {
+        PlanContext context;
+        // a multi-start search keeps the best start found within a time budget, so its result is not reproducible
+        boolean cached = resultCache != null && multiStartSearch == null && roundConsumer == null;
+        if (cached) {
+            validateConfig(config);
+            cached = !isTimeBounded(config);
+        }
+        if (cached) {
+            String key = ScheduleResultCache.key(config, pairingGenerator.getStrategy(), pairingGenerator.getSeed(), groupScoring);
+            boolean[] generated = new boolean[1];
+            context = resultCache.get(key, () -> {
+                generated[0] = true;
+                return generatePlanContext(config, progressListener, null);
+            });
+            if (!generated[0]) {
+                // the cache only provides the groups: every request gets its own plan, id and round dates
+                context = copyPlanContext(context);
+                // a cached plan is complete: report it like the end of a generation
+                int rounds = context.getSchedule().length;
+                progressListener.progress(rounds, rounds);
+                progressListener.bestScore(context.getAnalyzer().getRepeatScore());
+            }
+        } else {
+            context = generatePlanContext(config, progressListener, roundConsumer);
+        }
+        if (lastPlan) {
+            store(context);
+        } else {
+            planRepository.save(context);
+        }
+        return context.getPlan();
+    }
+
+    /**
+     * True if the request's objective makes the search time-bounded (it is improved by annealing), so that the
+     * result is not reproducible and must not be cached; expects a validated configuration
+     */
+    private boolean isTimeBounded(ScheduleConfig config) {
+        ScheduleObjective objective = createObjective(config.getObjective(), createPlayers(config.getPlayerNames()));
+        return (objective != null ? pairingGenerator.withObjective(objective) : pairingGenerator).isTimeBounded();
+    }
+
+    private PlanContext generatePlanContext(ScheduleConfig config, ScheduleProgressListener progressListener,
+                                            BiConsumer<String, Round> roundConsumer) {
         log.info("Generating schedule with {} players and {} rounds",
                 config.getPlayerNames().size(), config.getNumberOfRounds());
 
         // Validate input
         validateConfig(config);
 
-        // Reset analyzer for new schedule
-        analyzer.reset();
-
         // Create players with IDs
         List<Player> players = createPlayers(config.getPlayerNames());
-        lastGeneratedPlayers = players;
 
-        // Create plan
+        // Create plan; player indices of the generated groups follow the order of the players list
         Plan plan = Plan.create(players, config.getNumberOfRounds());
-        List<Round> rounds = generateRounds(players, config.getNumberOfRounds(), config.getPlayersPerRound());
+        LocalDate baseDate = LocalDate.now();
+        ScheduleProgressListener listener = roundConsumer == null ? progressListener
+                : new ScheduleProgressListener() {
+                    @Override
+                    public void roundGenerated(int roundIndex, int[] group) {
+                        progressListener.roundGenerated(roundIndex, group);
+                        roundConsumer.accept(plan.getId(), createRound(players, baseDate, roundIndex + 1, group));
+                    }
+
+                    @Override
+                    public void progress(int done, int total) {
+                        progressListener.progress(done, total);
+                    }
+
+                    @Override
+                    public void bestScore(long score) {
+                        progressListener.bestScore(score);
+                    }
+
+                    @Override
+                    public void heartbeat() {
+                        progressListener.heartbeat();
+                    }
+                };
+        ScheduleObjective objective = createObjective(config.getObjective(), players);
+        int[][] schedule;
+        PairingAnalyzer planAnalyzer;
+        if (multiStartSearch != null) {
+            MultiStartScheduleSearch.Result result = multiStartSearch.search(
+                    players, config.getNumberOfRounds(), config.getPlayersPerRound(), groupScoring, objective, listener);
+            planAnalyzer = result.getAnalyzer();
+            schedule = result.getSchedule();
+            log.info("Multi-start search kept the best of {} schedules (score {})",
+                    result.getStartsCompleted(), result.getScore());
+            // the rounds are only final once the best start is known
+            for (int r = 0; r < schedule.length; r++) listener.roundGenerated(r, schedule[r]);
+        } else {
+            // a seeded generator gets its own random source per request, so concurrent requests stay reproducible
+            PairingGenerator generator = pairingGenerator.getSeed() != null
+                    ? pairingGenerator.withSeed(pairingGenerator.getSeed())
+                    : pairingGenerator;
+            if (objective != null) generator = generator.withObjective(objective);
+            planAnalyzer = new PairingAnalyzer(new PlayerRegistry(players), config.getPlayersPerRound());
+            schedule = generator.generateGroupSchedule(players.size(), config.getNumberOfRounds(),
+                    config.getPlayersPerRound(), planAnalyzer, groupScoring, listener);
+        }
+        List<Round> rounds = generateRounds(players, schedule, baseDate);
         plan.setRounds(rounds);
-        lastGeneratedPlan = plan; // save plan
 
         log.info("Schedule generation completed: {} rounds with {} players each",
                 rounds.size(), config.getPlayersPerRound());
 
+        return new PlanContext(plan, players, schedule, planAnalyzer, objective);
+    }
+
+    /**
+     * Continues a plan with additional rounds and stores the result as a new plan; the given plan is not modified.
+     * The pairing history starts as a copy of the plan's analyzer instead of being rebuilt from the rounds, so the
+     * cost depends on the new rounds only, and the existing rounds are taken over unchanged.
+     * The additional rounds minimize the objective the plan was generated with and are generated by a single
+     * search, also when a multi-start search is configured.
+     */
+    public Plan extendPlan(PlanContext base, int additionalRounds) {
+        if (additionalRounds <= 0) {
+            throw new IllegalArgumentException("Number of additional rounds must be greater than 0");
+        }
+        List<Player> players = base.getPlayers();
+        PairingAnalyzer analyzer = base.getAnalyzer().copy();
+        int existing = base.getSchedule().length;
+        List<Round> existingRounds = base.getPlan().getRounds();
+        LocalDate lastDate = existing > 0 ? existingRounds.get(existing - 1).getRoundDate() : null;
+        // weekly rounds continue one week after the last existing round
+        LocalDate baseDate = (lastDate != null ? lastDate.plusDays(7) : LocalDate.now()).minusDays(7L * existing);
+        log.info("Extending plan {} ({} rounds) by {} rounds", base.getPlanId(), existing, additionalRounds);
+
+        PairingGenerator generator = pairingGenerator.getSeed() != null
+                ? pairingGenerator.withSeed(pairingGenerator.getSeed())
+                : pairingGenerator;
+        if (base.getObjective() != null) generator = generator.withObjective(base.getObjective());
+        int[] lastRound = existing > 0 ? base.getSchedule()[existing - 1] : null;
+        int[][] added = generator.generateGroupSchedule(players.size(), additionalRounds, analyzer.getGroupSize(),
+                analyzer, groupScoring, lastRound);
+
+        int[][] schedule = Arrays.copyOf(base.getSchedule(), existing + additionalRounds);
+        System.arraycopy(added, 0, schedule, existing, additionalRounds);
+        List<Round> rounds = new ArrayList<>(existingRounds);
+        for (int r = 0; r < additionalRounds; r++) {
+            rounds.add(createRound(players, baseDate, existing + r + 1, added[r]));
+        }
+        Plan plan = Plan.create(players, schedule.length);
+        plan.setRounds(rounds);
+        store(new PlanContext(plan, players, schedule, analyzer, base.getObjective()));
         return plan;
     }
 
     /**
-     * Generates all rounds for the schedule
+     * Repairs a plan when players drop out or join for a period: only the rounds dated between fromDate and toDate
+     * (inclusive) are selected again, from the players available then, against the pairing history of all other
+     * rounds. The search cost depends on the number of affected rounds, not on the length of the plan.
+     * Added players are balanced as if they had played as often as the least-played player of the plan.
+     * The result is stored as a new plan; the given plan is not modified.
      */
-    private List<Round> generateRounds(List<Player> players, int numberOfRounds, int playersPerRound) {
-        List<Round> rounds = new ArrayList<>();
-        LocalDate baseDate = LocalDate.now();
+    public Plan repairPlan(PlanContext base, LocalDate fromDate, LocalDate toDate,
+                           List<String> unavailablePlayerNames, List<String> addedPlayerNames) {
+        if (fromDate == null || toDate == null || toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("A date range with fromDate <= toDate is required");
+        }
+        List<Round> existingRounds = base.getPlan().getRounds();
+        List<Integer> affected = new ArrayList<>();
+        for (int r = 0; r < existingRounds.size(); r++) {
+            LocalDate date = existingRounds.get(r).getRoundDate();
+            if (date != null && !date.isBefore(fromDate) && !date.isAfter(toDate)) affected.add(r);
+        }
+        if (affected.isEmpty()) {
+            throw new IllegalArgumentException("No rounds between " + fromDate + " and " + toDate);
+        }
 
-        // Prepare a frequency lookup for existing pairings recorded by analyzer
-        // The analyzer expects List<Player>, but our pairingGenerator works with Set<String> of names
-        for (int i = 1; i <= numberOfRounds; i++) {
-            Round round = new Round();
-            round.setRoundNo(i);
-            round.setRoundDate(baseDate.plusDays((long) (i - 1) * 7)); // weekly schedule
-
-            // Select players for this round using PairingGenerator (group of size playersPerRound)
-            List<String> availableNames = players.stream().map(Player::getName).collect(Collectors.toList());
-            List<String> selectedNames = pairingGenerator.selectGroup(availableNames, playersPerRound, (set) -> {
-                // convert Set<String> to List<Player> for analyzer frequency lookup
-                List<Player> plist = players.stream()
-                        .filter(p -> set.contains(p.getName()))
-                        .collect(Collectors.toList());
-                return analyzer.getFrequency(plist);
-            });
+        PairingAnalyzer analyzer = base.getAnalyzer().copy();
+        List<Player> players = new ArrayList<>(base.getPlayers());
+        Map<String, Integer> indexByName = new HashMap<>();
+        for (int i = 0; i < players.size(); i++) indexByName.put(players.get(i).getName(), i);
+        if (addedPlayerNames != null) {
+            for (String name : addedPlayerNames) {
+                if (indexByName.containsKey(name)) {
+                    throw new IllegalArgumentException("Player " + name + " is already part of the plan");
+                }
+                Player player = new Player(UUID.randomUUID().toString(), name);
+                indexByName.put(name, analyzer.getRegistry().register(player));
+                players.add(player);
+            }
+        }
+        boolean[] unavailable = new boolean[players.size()];
+        if (unavailablePlayerNames != null) {
+            for (String name : unavailablePlayerNames) {
+                Integer index = indexByName.get(name);
+                if (index == null) {
+                    throw new IllegalArgumentException("Unknown player " + name);
+                }
+                unavailable[index] = true;
+            }
+        }
+        int[] candidates = new int[players.size()];
+        int available = 0;
+        for (int i = 0; i < players.size(); i++) {
+            if (!unavailable[i]) candidates[available++] = i;
+        }
+        int groupSize = analyzer.getGroupSize();
+        if (available < groupSize) {
+            throw new IllegalArgumentException("Only " + available + " players available, " + groupSize + " are required");
+        }
+        candidates = Arrays.copyOf(candidates, available);
+        log.info("Repairing rounds {} to {} of plan {}", affected.get(0) + 1, affected.get(affected.size() - 1) + 1,
+                base.getPlanId());
 
-            // Map selected names back to Player objects preserving original Player instances
-            List<Player> selectedPlayers = players.stream()
-                    .filter(p -> selectedNames.contains(p.getName()))
-                    .collect(Collectors.toList());
+        // the history of the untouched rounds
+        int[][] schedule = base.getSchedule().clone();
+        for (int r : affected) analyzer.removePairing(schedule[r]);
 
-            round.setSelectedPlayers(selectedPlayers);
+        PairingGenerator generator = pairingGenerator.getSeed() != null
+                ? pairingGenerator.withSeed(pairingGenerator.getSeed())
+                : pairingGenerator;
+        PairingGenerator.GroupScorer scorer = PairingGenerator.GroupScorer.of(groupScoring, analyzer);
+        // appearances of the untouched rounds, so the repaired rounds even out the whole plan
+        int[] playCounts = analyzer.getAppearanceCounts();
+        // added players count as the least-played player of the plan, otherwise they would fill every repaired round
+        int basePlayers = base.getPlayers().size();
+        if (players.size() > basePlayers) {
+            int minCount = basePlayers == 0 ? 0 : Arrays.stream(playCounts, 0, basePlayers).min().getAsInt();
+            Arrays.fill(playCounts, basePlayers, players.size(), minCount);
+        }
+        List<Round> rounds = new ArrayList<>(existingRounds);
+        for (int r : affected) {
+            int[] group = generator.isBalanceAppearances()
+                    ? generator.selectBalancedGroup(candidates, playCounts, groupSize, scorer)
+                    : generator.selectGroup(candidates, groupSize, scorer);
+            Arrays.sort(group);
+            for (int index : group) playCounts[index]++;
+            analyzer.recordPairing(group);
+            schedule[r] = group;
+            Round round = existingRounds.get(r);
+            rounds.set(r, new Round(round.getRoundNo(), round.getRoundDate(), selectPlayers(players, group)));
+        }
+        Plan plan = Plan.create(players, schedule.length);
+        plan.setRounds(rounds);
+        // the objective's terms keep their player indices, added players are appended
+        store(new PlanContext(plan, players, schedule, analyzer, base.getObjective()));
+        return plan;
+    }
 
-            // record pairing into analyzer
-            if (selectedPlayers.size() == 4) {
-                analyzer.recordPairing(selectedPlayers);
-            } else {
-                log.debug("Skipping analyzer.recordPairing because selectedPlayers.size() != 4: {}", selectedPlayers.size());
+    /**
+     * Continues uploaded rounds (e.g. of a plan that is no longer stored) like {@link #extendPlan(PlanContext, int)}.
+     * Players are identified by their id; the additional player names may add players that have not played yet.
+     */
+    public Plan extendRounds(List<Round> rounds, List<String> additionalPlayerNames, int additionalRounds) {
+        List<Player> additionalPlayers = new ArrayList<>();
+        if (additionalPlayerNames != null && rounds != null) {
+            Set<String> knownNames = rounds.stream()
+                    .filter(round -> round.getSelectedPlayers() != null)
+                    .flatMap(round -> round.getSelectedPlayers().stream())
+                    .filter(Objects::nonNull)
+                    .map(Player::getName)
+                    .collect(Collectors.toSet());
+            additionalPlayerNames.stream()
+                    .filter(name -> !knownNames.contains(name))
+                    .distinct()
+                    .forEach(name -> additionalPlayers.add(new Player(UUID.randomUUID().toString(), name)));
+        }
+        return extendPlan(createPlanContext(rounds, additionalPlayers), additionalRounds);
+    }
+
+    /**
+     * Stores a plan created elsewhere (e.g. decoded from its binary form) under its own id, so that it can be
+     * read, extended and repaired like a generated plan
+     */
+    public PlanContext importPlan(Plan plan) {
+        PlanContext context = createPlanContext(plan.getRounds(), plan.getPlayers());
+        Plan imported = context.getPlan();
+        if (plan.getId() != null && !plan.getId().isBlank()) {
+            imported.setId(plan.getId());
+        }
+        if (plan.getCreatedAt() != null) {
+            imported.setCreatedAt(plan.getCreatedAt());
+        }
+        store(context);
+        log.info("Imported plan {} with {} rounds", imported.getId(), imported.getRounds().size());
+        return context;
+    }
+
+    /**
+     * Builds the context of existing rounds; the pairing history is recorded once in O(rounds · k²).
+     * Players are identified by id; additional players (if not part of a round) are added after the players of the rounds.
+     */
+    PlanContext createPlanContext(List<Round> rounds, List<Player> additionalPlayers) {
+        if (rounds == null || rounds.isEmpty()) {
+            throw new IllegalArgumentException("Rounds cannot be empty");
+        }
+        int groupSize = rounds.get(0).getSelectedPlayers() != null ? rounds.get(0).getSelectedPlayers().size() : 0;
+        PlayerRegistry registry = new PlayerRegistry();
+        for (Round round : rounds) {
+            if (round.getSelectedPlayers() == null || round.getSelectedPlayers().size() != groupSize) {
+                throw new IllegalArgumentException("All rounds must have the same number of players");
+            }
+            for (Player player : round.getSelectedPlayers()) {
+                if (player == null || player.getId() == null || player.getId().isBlank()) {
+                    throw new IllegalArgumentException("Every player of a round needs an id");
+                }
+                registry.register(player);
             }
+        }
+        if (additionalPlayers != null) {
+            for (Player player : additionalPlayers) {
+                if (player == null || player.getId() == null || player.getId().isBlank()) {
+                    throw new IllegalArgumentException("Every player needs an id");
+                }
+                registry.register(player);
+            }
+        }
+        if (registry.size() < 4) {
+            throw new IllegalArgumentException("At least 4 players are required");
+        }
+
+        List<Player> players = new ArrayList<>(registry.getPlayers());
+        PairingAnalyzer analyzer = new PairingAnalyzer(registry, groupSize);
+        int[][] schedule = new int[rounds.size()][];
+        for (int r = 0; r < schedule.length; r++) {
+            List<Player> selected = rounds.get(r).getSelectedPlayers();
+            int[] group = new int[groupSize];
+            for (int i = 0; i < groupSize; i++) {
+                group[i] = registry.indexOf(selected.get(i).getId());
+            }
+            Arrays.sort(group);
+            for (int i = 1; i < groupSize; i++) {
+                if (group[i] == group[i - 1]) {
+                    throw new IllegalArgumentException("Round " + rounds.get(r).getRoundNo() + " contains a player twice");
+                }
+            }
+            analyzer.recordPairing(group);
+            schedule[r] = group;
+        }
+        Plan plan = Plan.create(players, rounds.size());
+        plan.setRounds(new ArrayList<>(rounds));
+        return new PlanContext(plan, players, schedule, analyzer);
+    }
+
+    private void store(PlanContext context) {
+        planRepository.save(context);
+        lastPlanContext = context;
+    }
 
+    /**
+     * A new plan with the groups, players and history of the given one, dated from today; the history and the
+     * groups are shared, as neither is modified once the context is created
+     */
+    private PlanContext copyPlanContext(PlanContext context) {
+        List<Player> players = context.getPlayers();
+        int[][] schedule = context.getSchedule();
+        Plan plan = Plan.create(players, schedule.length);
+        plan.setRounds(generateRounds(players, schedule, LocalDate.now()));
+        return new PlanContext(plan, players, schedule, context.getAnalyzer(), context.getObjective());
+    }
+
+    /**
+     * Maps the generated groups (player indices) to rounds; mapping a group back costs O(k)
+     */
+    private List<Round> generateRounds(List<Player> players, int[][] schedule, LocalDate baseDate) {
+        List<Round> rounds = new ArrayList<>(schedule.length);
+
+        for (int i = 1; i <= schedule.length; i++) {
+            Round round = createRound(players, baseDate, i, schedule[i - 1]);
             rounds.add(round);
 
-            log.debug("Generated round {}: {}", i, selectedPlayers.stream()
-                    .map(Player::getName)
-                    .collect(Collectors.joining(", ")));
+            if (log.isDebugEnabled()) {
+                log.debug("Generated round {}: {}", i, round.getSelectedPlayers().stream()
+                        .map(Player::getName)
+                        .collect(Collectors.joining(", ")));
+            }
         }
 
         return rounds;
     }
 
+    private static Round createRound(List<Player> players, LocalDate baseDate, int roundNo, int[] group) {
+        Round round = new Round();
+        round.setRoundNo(roundNo);
+        round.setRoundDate(baseDate.plusDays((long) (roundNo - 1) * 7)); // weekly schedule
+        round.setSelectedPlayers(selectPlayers(players, group));
+        return round;
+    }
+
+    private static List<Player> selectPlayers(List<Player> players, int[] group) {
+        List<Player> selectedPlayers = new ArrayList<>(group.length);
+        for (int index : group) {
+            selectedPlayers.add(players.get(index));
+        }
+        return selectedPlayers;
+    }
+
     /**
      * Creates Player objects from names with generated IDs
      */
@@ -139,7 +619,7 @@ public class ScheduleGenerationService {
     /**
      * Validates the configuration before schedule generation
      */
-    private void validateConfig(ScheduleConfig config) {
+    public void validateConfig(ScheduleConfig config) {
         if (config.getPlayerNames() == null || config.getPlayerNames().isEmpty()) {
             throw new IllegalArgumentException("Player names list cannot be empty");
         }
@@ -157,47 +637,142 @@ public class ScheduleGenerationService {
         if (uniqueNames != config.getPlayerNames().size()) {
             throw new IllegalArgumentException("Duplicate player names are not allowed");
         }
+
+        ObjectiveWeights weights = config.getObjective();
+        if (weights != null) {
+            if (weights.getRepeatedPartners() < 0 || weights.getEqualAppearances() < 0
+                    || weights.getAppearanceSpacing() < 0 || weights.getAvoidedPairs() < 0) {
+                throw new IllegalArgumentException("Objective weights must not be negative");
+            }
+            if (weights.getPairsToAvoid() != null) {
+                for (List<String> pair : weights.getPairsToAvoid()) {
+                    if (pair == null || pair.size() != 2 || !config.getPlayerNames().containsAll(pair)) {
+                        throw new IllegalArgumentException("Pairs to avoid must be two names of the player list: " + pair);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the objective of the requested weights (null for none or for weights equal to the generator's default
+     * objective); the pairs to avoid are resolved to player indices
+     */
+    static ScheduleObjective createObjective(ObjectiveWeights weights, List<Player> players) {
+        if (weights == null) return null;
+        Map<String, Integer> indexByName = new HashMap<>();
+        for (int i = 0; i < players.size(); i++) indexByName.put(players.get(i).getName(), i);
+        List<List<String>> names = weights.getPairsToAvoid() != null ? weights.getPairsToAvoid() : List.of();
+        int[][] pairs = new int[names.size()][];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new int[]{indexByName.get(names.get(i).get(0)), indexByName.get(names.get(i).get(1))};
+        }
+        ScheduleObjective objective = ScheduleObjective.builder()
+                .add(ScheduleObjective.partnerRepeats(), weights.getRepeatedPartners())
+                .add(ScheduleObjective.appearanceBalance(), weights.getEqualAppearances())
+                .add(ScheduleObjective.appearanceSpacing(), weights.getAppearanceSpacing())
+                .add(ScheduleObjective.avoidedPairs(pairs), hasDistinctPair(pairs) ? weights.getAvoidedPairs() : 0)
+                .build();
+        return objective.equals(ScheduleObjective.DEFAULT) ? null : objective;
+    }
+
+    private static boolean hasDistinctPair(int[][] pairs) {
+        for (int[] pair : pairs) {
+            if (pair[0] != pair[1]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the result cache, or null if identical requests are not cached
+     */
+    public ScheduleResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Returns the context of a stored plan, or null if the plan id is unknown (or was evicted)
+     */
+    public PlanContext getPlanContext(String planId) {
+        return planRepository.find(planId);
+    }
+
+    /**
+     * Returns the context of the last generated plan (may be null if none generated yet)
+     */
+    public PlanContext getLastPlanContext() {
+        return lastPlanContext;
     }
 
     /**
-     * Gets current pairing statistics
+     * Gets pairing statistics of the last generated plan
      */
     public Map<String, Object> getPairingStatistics() {
-        return analyzer.getStatistics();
+        return getPairingStatistics(lastPlanContext);
+    }
+
+    /**
+     * Gets pairing statistics of the given plan (empty statistics for null)
+     */
+    public Map<String, Object> getPairingStatistics(PlanContext context) {
+        return context != null ? context.getStatistics() : new PairingAnalyzer().getStatistics();
     }
 
     /**
-     * Gets all pairings sorted by frequency
+     * Gets all pairings of the last generated plan sorted by frequency
      */
     public List<PairingDto> getAllPairingsSorted() {
-        return analyzer.getAllPairingsSortedByFrequency().stream()
-                .map(pairing -> ScheduleMapper.mapPairingToDto(pairing, lastGeneratedPlayers))
-                .collect(Collectors.toList());
+        return getAllPairingsSorted(lastPlanContext);
     }
 
     /**
-     * Returns a statistic of how often each player appears in the current plan
+     * Gets all pairings of the given plan sorted by frequency (empty for null)
      */
-    public Map<String, Integer> getPlayerUsageStatistics() {
-        if (lastGeneratedPlan == null || lastGeneratedPlan.getRounds() == null) {
-            return Collections.emptyMap();
+    public List<PairingDto> getAllPairingsSorted(PlanContext context) {
+        return getPairings(context, false, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets a page of the pairings of the given plan ordered by frequency (empty for null); only the pairings of
+     * the page are created and mapped
+     *
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    public List<PairingDto> getPairings(PlanContext context, boolean mostFrequentFirst, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
         }
-        Map<String, Integer> usage = new HashMap<>();
-        for (Player p : lastGeneratedPlan.getPlayers()) {
-            usage.put(p.getName(), 0);
+        if (context == null) {
+            return Collections.emptyList();
         }
-        for (Round r : lastGeneratedPlan.getRounds()) {
-            for (Player p : r.getSelectedPlayers()) {
-                usage.put(p.getName(), usage.getOrDefault(p.getName(), 0) + 1);
-            }
+        Map<String, Player> playersById = new HashMap<>();
+        for (Player player : context.getPlayers()) {
+            playersById.put(player.getId(), player);
         }
-        return usage;
+        return context.getPairingsByFrequency(mostFrequentFirst, offset, limit).stream()
+                .map(pairing -> ScheduleMapper.mapPairingToDto(pairing, playersById))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns a statistic of how often each player appears in the last generated plan
+     */
+    public Map<String, Integer> getPlayerUsageStatistics() {
+        return getPlayerUsageStatistics(lastPlanContext);
+    }
+
+    /**
+     * Returns a statistic of how often each player appears in the given plan (empty for null)
+     */
+    public Map<String, Integer> getPlayerUsageStatistics(PlanContext context) {
+        return context != null ? context.getPlayerUsage() : Collections.emptyMap();
     }
 
     /**
      * Returns the last generated Plan (may be null if none generated yet)
      */
     public Plan getLastGeneratedPlan() {
-        return lastGeneratedPlan;
+        PlanContext context = lastPlanContext;
+        return context != null ? context.getPlan() : null;
     }
 }
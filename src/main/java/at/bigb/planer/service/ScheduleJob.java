@@ -0,0 +1,173 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.ScheduleConfig;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A schedule generation running in the background. The job is its own progress listener, so the
+ * generation updates progress and best score directly and is aborted at the next callback (a round,
+ * a progress report or a heartbeat of the improvement phase) once a cancel was requested.
+ * <p>
+ * Status changes are compare-and-set, so a cancel racing with the worker cannot be overwritten:
+ * only a queued job starts, and a finished job (including a cancelled one) keeps its status.
+ */
+public class ScheduleJob implements ScheduleProgressListener {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id;
+    private final ScheduleConfig config;
+    private final LocalDateTime createdAt;
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+    private volatile double progress;
+    private volatile Long bestScore;
+    private volatile Plan result;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+    private volatile boolean cancelRequested;
+    private volatile Future<?> future;
+
+    ScheduleJob(ScheduleConfig config) {
+        this.id = UUID.randomUUID().toString();
+        this.config = config;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @Override
+    public void roundGenerated(int roundIndex, int[] group) {
+        checkCancelled();
+    }
+
+    @Override
+    public void progress(int done, int total) {
+        checkCancelled();
+        if (total > 0) progress = Math.min(1.0, (double) done / total);
+    }
+
+    @Override
+    public synchronized void bestScore(long score) {
+        if (bestScore == null || score < bestScore) bestScore = score;
+    }
+
+    @Override
+    public void heartbeat() {
+        checkCancelled();
+    }
+
+    private void checkCancelled() {
+        if (cancelRequested) throw new CancellationException("Job " + id + " was cancelled");
+    }
+
+    /**
+     * QUEUED -> RUNNING; false if the job was cancelled before it started
+     */
+    boolean started() {
+        return status.compareAndSet(Status.QUEUED, Status.RUNNING);
+    }
+
+    /**
+     * RUNNING -> COMPLETED; false (and the plan is dropped) if the job was cancelled meanwhile
+     */
+    boolean completed(Plan plan) {
+        result = plan;
+        if (!finish(Status.RUNNING, Status.COMPLETED)) {
+            result = null;
+            return false;
+        }
+        progress = 1.0;
+        return true;
+    }
+
+    void failed(String message) {
+        error = message;
+        if (!finish(Status.RUNNING, Status.FAILED)) error = null;
+    }
+
+    /**
+     * QUEUED or RUNNING -> CANCELLED; false if the job had already finished
+     */
+    boolean cancelled() {
+        return finish(Status.QUEUED, Status.CANCELLED) || finish(Status.RUNNING, Status.CANCELLED);
+    }
+
+    private boolean finish(Status expected, Status finalStatus) {
+        if (!status.compareAndSet(expected, finalStatus)) return false;
+        finishedAt = LocalDateTime.now();
+        return true;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    Future<?> getFuture() {
+        return future;
+    }
+
+    public boolean isFinished() {
+        Status current = status.get();
+        return current == Status.COMPLETED || current == Status.FAILED || current == Status.CANCELLED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ScheduleConfig getConfig() {
+        return config;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    /**
+     * Fraction of the work done, between 0 and 1
+     */
+    public double getProgress() {
+        return progress;
+    }
+
+    /**
+     * Repeat score of the best schedule found so far, null before the first schedule is complete
+     */
+    public Long getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * The generated plan, null unless the job completed
+     */
+    public Plan getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * When the job finished; may still be null for a moment after the status changed
+     */
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,148 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.ScheduleConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs schedule generations as background jobs on a bounded worker pool.
+ * Submissions beyond the queue capacity are rejected instead of piling up; finished jobs are
+ * kept for a retention period so that their status and result can still be fetched.
+ * <p>
+ * The worker pool belongs to the service; {@link #close()} shuts it down.
+ */
+@Slf4j
+public class ScheduleJobService implements AutoCloseable {
+
+    private final ScheduleGenerationService scheduleService;
+    private final ThreadPoolExecutor executor;
+    private final long retentionMinutes;
+    private final Map<String, ScheduleJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a service generating through the given (shared) generation service, configured from application.properties
+     */
+    public ScheduleJobService(ScheduleGenerationService scheduleService) {
+        this(scheduleService, ConfigProvider.getConfig());
+    }
+
+    private ScheduleJobService(ScheduleGenerationService scheduleService, Config config) {
+        this(scheduleService,
+                config.getOptionalValue("planer.jobs.workers", Integer.class).orElse(2),
+                config.getOptionalValue("planer.jobs.queueCapacity", Integer.class).orElse(16),
+                config.getOptionalValue("planer.jobs.retentionMinutes", Long.class).orElse(60L));
+    }
+
+    /**
+     * @param workers          number of jobs generated concurrently
+     * @param queueCapacity    number of jobs that may wait for a worker before submissions are rejected
+     * @param retentionMinutes how long finished jobs stay available
+     */
+    public ScheduleJobService(ScheduleGenerationService scheduleService, int workers, int queueCapacity, long retentionMinutes) {
+        this.scheduleService = scheduleService;
+        this.retentionMinutes = retentionMinutes;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(Math.max(1, workers), Math.max(1, workers), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "schedule-job-" + threadNo.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Validates the configuration and queues a job for it
+     *
+     * @throws IllegalArgumentException   if the configuration is invalid
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public ScheduleJob submit(ScheduleConfig config) {
+        scheduleService.validateConfig(config);
+        evictExpiredJobs();
+        ScheduleJob job = new ScheduleJob(config);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        log.info("Queued schedule job {} ({} players, {} rounds)", job.getId(),
+                config.getPlayerNames().size(), config.getNumberOfRounds());
+        return job;
+    }
+
+    /**
+     * Returns the job with the given id, or null if it is unknown or expired
+     */
+    public ScheduleJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Cancels the job: a queued job is removed from the queue, a running one stops at its next progress report
+     * or heartbeat.
+     * Returns null if the job is unknown.
+     */
+    public ScheduleJob cancel(String id) {
+        ScheduleJob job = jobs.get(id);
+        if (job == null || job.isFinished()) return job;
+        job.requestCancel();
+        Future<?> future = job.getFuture();
+        if (future != null && job.getStatus() == ScheduleJob.Status.QUEUED && future.cancel(false)) {
+            executor.remove((Runnable) future); // frees the queue slot right away
+            job.cancelled();
+        }
+        return job;
+    }
+
+    private void run(ScheduleJob job) {
+        if (job.isCancelRequested() || !job.started()) {
+            job.cancelled();
+            return;
+        }
+        try {
+            Plan plan = scheduleService.generateSchedule(job.getConfig(), job);
+            // a cancel after the last progress report must not be turned into a completion
+            if (job.isCancelRequested() || !job.completed(plan)) {
+                job.cancelled();
+                log.info("Schedule job {} cancelled", job.getId());
+                return;
+            }
+            log.info("Schedule job {} completed", job.getId());
+        } catch (CancellationException e) {
+            job.cancelled();
+            log.info("Schedule job {} cancelled", job.getId());
+        } catch (Exception e) {
+            job.failed(e.getMessage());
+            log.error("Schedule job {} failed", job.getId(), e);
+        }
+    }
+
+    /**
+     * Shuts the worker pool down; running jobs are interrupted and no further jobs are accepted
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime expiry = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt() != null && job.getFinishedAt().isBefore(expiry));
+    }
+}
@@ -1,5 +1,6 @@
 package at.bigb.planer.service;
 
+import at.bigb.planer.domain.ObjectiveWeights;
 import at.bigb.planer.domain.Plan;
 import at.bigb.planer.domain.Pairing;
 import at.bigb.planer.domain.Player;
@@ -7,6 +8,8 @@ import at.bigb.planer.domain.Round;
 import at.bigb.planer.domain.ScheduleConfig;
 import at.bigb.planer.domain.dto.*;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -36,6 +39,42 @@ public class ScheduleMapper {
     }
 
 
+    /**
+     * Maps the plan to its normalized form; every player is mapped once, a round only to an int array
+     */
+    public static IndexedPlanDto mapPlanToIndexedDto(Plan plan) {
+        List<PlayerDto> players = new ArrayList<>(plan.getPlayers().size());
+        Map<String, Integer> indexById = new HashMap<>();
+        for (Player player : plan.getPlayers()) {
+            indexById.putIfAbsent(player.getId(), players.size());
+            players.add(mapPlayerToDto(player));
+        }
+        List<IndexedRoundDto> rounds = new ArrayList<>(plan.getRounds().size());
+        for (Round round : plan.getRounds()) {
+            rounds.add(mapRoundToIndexedDto(round, indexById));
+        }
+        return new IndexedPlanDto(plan.getId(), players, rounds, plan.getNumberOfRounds(), plan.getCreatedAt());
+    }
+
+    /**
+     * Maps a round to the indices of its players, in the order of the round
+     *
+     * @param indexById index of every player of the plan by player id
+     */
+    public static IndexedRoundDto mapRoundToIndexedDto(Round round, Map<String, Integer> indexById) {
+        List<Player> selected = round.getSelectedPlayers();
+        int[] indices = new int[selected.size()];
+        for (int i = 0; i < indices.length; i++) {
+            Integer index = indexById.get(selected.get(i).getId());
+            if (index == null) {
+                throw new IllegalArgumentException("Player " + selected.get(i).getId() + " of round "
+                        + round.getRoundNo() + " is not part of the plan");
+            }
+            indices[i] = index;
+        }
+        return new IndexedRoundDto(round.getRoundNo(), round.getRoundDate(), indices);
+    }
+
     public static PlayerDto mapPlayerToDto(Player player) {
         return new PlayerDto(player.getId(), player.getName());
     }
@@ -54,11 +93,19 @@ public class ScheduleMapper {
         );
     }
 
+    /**
+     * Maps a round of a streamed schedule together with the id of its plan
+     */
+    public static StreamedRoundDto mapStreamedRoundToDto(String planId, Round round) {
+        RoundDto dto = mapRoundToDto(round);
+        return new StreamedRoundDto(planId, dto.getRoundNo(), dto.getRoundDate(), dto.getSelectedPlayers());
+    }
+
     public static Round mapDtoToRound(RoundDto dto) {
         return new Round(
                 dto.getRoundNo(),
                 dto.getRoundDate(),
-                dto.getSelectedPlayers().stream()
+                dto.getSelectedPlayers() == null ? null : dto.getSelectedPlayers().stream()
                         .map(ScheduleMapper::mapDtoToPlayer)
                         .collect(Collectors.toList())
         );
@@ -68,28 +115,73 @@ public class ScheduleMapper {
         return new ScheduleConfig(
                 dto.getPlayerNames(),
                 dto.getNumberOfRounds(),
-                dto.getPlayersPerRound()
+                dto.getPlayersPerRound(),
+                mapDtoToObjectiveWeights(dto.getObjective())
         );
     }
 
+    public static ObjectiveWeights mapDtoToObjectiveWeights(ObjectiveWeightsDto dto) {
+        if (dto == null) return null;
+        return new ObjectiveWeights(
+                dto.getRepeatedPartners(),
+                dto.getEqualAppearances(),
+                dto.getAppearanceSpacing(),
+                dto.getAvoidedPairs(),
+                dto.getPairsToAvoid()
+        );
+    }
+
+    @SuppressWarnings("unchecked")
     public static ScheduleStatsDto mapStatsToDto(Map<String, Object> stats) {
         return new ScheduleStatsDto(
                 (Integer) stats.get("totalUniquePairings"),
                 (Integer) stats.get("totalPairingRecords"),
                 (Integer) stats.getOrDefault("maxFrequency", 0),
                 (Integer) stats.getOrDefault("minFrequency", 0),
-                ((Number) stats.getOrDefault("avgFrequency", 0.0)).doubleValue()
+                ((Number) stats.getOrDefault("avgFrequency", 0.0)).doubleValue(),
+                (Integer) stats.getOrDefault("minAppearances", 0),
+                (Integer) stats.getOrDefault("maxAppearances", 0),
+                ((Number) stats.getOrDefault("appearanceStdDev", 0.0)).doubleValue(),
+                (Integer) stats.getOrDefault("maxAppearanceGap", 0),
+                ((Number) stats.getOrDefault("pairCoverage", 0.0)).doubleValue(),
+                (List<Integer>) stats.getOrDefault("pairRepeatHistogram", List.of())
         );
     }
 
-    public static PairingDto mapPairingToDto(Pairing pairing, List<Player> allPlayers) {
-        List<String> playerNames = pairing.getPlayerIds().stream()
-            .map(id -> allPlayers.stream()
-                .filter(p -> p.getId().equals(id))
-                .map(Player::getName)
-                .findFirst().orElse(id)) // If name not found, show ID
-            .toList();
+    /**
+     * Maps a pairing, resolving the player ids through a map of the plan's players by id
+     */
+    public static PairingDto mapPairingToDto(Pairing pairing, Map<String, Player> playersById) {
+        List<String> playerNames = new ArrayList<>(pairing.getPlayerIds().size());
+        for (String id : pairing.getPlayerIds()) {
+            Player player = playersById.get(id);
+            playerNames.add(player != null ? player.getName() : id); // If name not found, show ID
+        }
         return new PairingDto(playerNames, pairing.getFrequency());
     }
 
+    public static ScheduleJobDto mapJobToDto(ScheduleJob job) {
+        return new ScheduleJobDto(
+                job.getId(),
+                job.getStatus().name(),
+                job.getProgress(),
+                job.getBestScore(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getFinishedAt()
+        );
+    }
+
+    /**
+     * Maps the cache metrics; a null cache (caching disabled) is reported as disabled
+     */
+    public static CacheStatsDto mapCacheStatsToDto(ScheduleResultCache cache) {
+        if (cache == null) {
+            return new CacheStatsDto(false, 0, 0, 0.0, 0, 0);
+        }
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        double hitRate = hits + misses > 0 ? (double) hits / (hits + misses) : 0.0;
+        return new CacheStatsDto(true, hits, misses, hitRate, cache.size(), cache.getMaxEntries());
+    }
 }
@@ -0,0 +1,427 @@
+package at.bigb.planer.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+
+/**
+ * What a schedule search minimizes: a weighted sum of cost terms.
+ * <p>
+ * A {@link Term} describes one criterion (repeated partners, unequal appearances, ...). For every search it creates
+ * a {@link TermState} over primitive arrays that answers how a move changes its cost without changing anything
+ * ({@link TermState#delta}) and updates itself when the move is made ({@link TermState#apply}). A move puts one player
+ * into one slot of one round; larger moves (e.g. swapping players between rounds) are sequences of such replacements.
+ * Searches therefore never rescore a whole schedule.
+ * <p>
+ * The objective itself is immutable and can be shared by concurrent searches; {@link #start} creates the state of
+ * one search. Objectives are equal if they have equal terms with equal weights; the built-in terms are equal by
+ * their name and parameters, other terms by identity.
+ */
+public final class ScheduleObjective {
+
+    /**
+     * A cost criterion; creates the incremental state for one search
+     */
+    @FunctionalInterface
+    public interface Term {
+        /**
+         * @param rounds      the rounds being optimized (player indices), read but not modified by the term
+         * @param playerCount number of players that may be scheduled
+         * @param history     pairing history including the given rounds
+         */
+        TermState start(int[][] rounds, int playerCount, PairingAnalyzer history);
+
+        /**
+         * Like {@link #start(int[][], int, PairingAnalyzer)} for rounds that continue a schedule: the history
+         * counts pairs and appearances but not their order, so terms that depend on the order of the rounds are
+         * also given the fixed round played right before {@code rounds[0]}
+         *
+         * @param previousRound the last round before the given rounds, or null if they start the schedule
+         */
+        default TermState start(int[][] rounds, int[] previousRound, int playerCount, PairingAnalyzer history) {
+            return start(rounds, playerCount, history);
+        }
+    }
+
+    /**
+     * Incremental state of a term during one search
+     */
+    public interface TermState {
+        /**
+         * Current cost of the term
+         */
+        long cost();
+
+        /**
+         * Cost change of putting player {@code in} into {@code rounds[round][slot]}; {@code in} is not part of that round
+         */
+        long delta(int[][] rounds, int round, int slot, int in);
+
+        /**
+         * Updates the state for that replacement; called before the rounds are changed
+         */
+        void apply(int[][] rounds, int round, int slot, int in);
+    }
+
+    /**
+     * Fewer repeated partners and equal appearances, weighted like the original annealing energy
+     */
+    public static final ScheduleObjective DEFAULT = builder()
+            .add(partnerRepeats(), 1)
+            .add(appearanceBalance(), 1)
+            .build();
+
+    private final Term[] terms;
+    private final long[] weights;
+
+    private ScheduleObjective(List<Term> terms, List<Long> weights) {
+        this.terms = terms.toArray(new Term[0]);
+        this.weights = new long[weights.size()];
+        for (int i = 0; i < this.weights.length; i++) this.weights[i] = weights.get(i);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * True if no term has a weight: every schedule costs 0, so there is nothing to search for
+     */
+    public boolean isEmpty() {
+        return terms.length == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ScheduleObjective other)) return false;
+        return Arrays.equals(terms, other.terms) && Arrays.equals(weights, other.weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(terms) + Arrays.hashCode(weights);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("ScheduleObjective[");
+        for (int i = 0; i < terms.length; i++) {
+            if (i > 0) text.append(", ");
+            text.append(weights[i]).append('*').append(terms[i]);
+        }
+        return text.append(']').toString();
+    }
+
+    /**
+     * Creates the state of one search over the given rounds
+     */
+    public Search start(int[][] rounds, int playerCount, PairingAnalyzer history) {
+        return start(rounds, null, playerCount, history);
+    }
+
+    /**
+     * Creates the state of one search over rounds that follow the given fixed round (null if they start the schedule)
+     */
+    public Search start(int[][] rounds, int[] previousRound, int playerCount, PairingAnalyzer history) {
+        TermState[] states = new TermState[terms.length];
+        for (int i = 0; i < terms.length; i++) states[i] = terms[i].start(rounds, previousRound, playerCount, history);
+        return new Search(rounds, states, weights);
+    }
+
+    /**
+     * Total cost of a schedule whose rounds are contained in the history
+     */
+    public long cost(int[][] rounds, int playerCount, PairingAnalyzer history) {
+        return start(rounds, playerCount, history).cost();
+    }
+
+    /**
+     * The weighted terms bound to the rounds of one search; not thread-safe
+     */
+    public static final class Search {
+        private final int[][] rounds;
+        private final TermState[] states;
+        private final long[] weights;
+
+        private Search(int[][] rounds, TermState[] states, long[] weights) {
+            this.rounds = rounds;
+            this.states = states;
+            this.weights = weights;
+        }
+
+        public long cost() {
+            long cost = 0;
+            for (int i = 0; i < states.length; i++) cost += weights[i] * states[i].cost();
+            return cost;
+        }
+
+        /**
+         * Weighted cost change of putting player {@code in} into the slot of the round, O(terms * k)
+         */
+        public long delta(int round, int slot, int in) {
+            long delta = 0;
+            for (int i = 0; i < states.length; i++) delta += weights[i] * states[i].delta(rounds, round, slot, in);
+            return delta;
+        }
+
+        /**
+         * Puts player {@code in} into the slot of the round, updating every term
+         */
+        public void apply(int round, int slot, int in) {
+            for (TermState state : states) state.apply(rounds, round, slot, in);
+            rounds[round][slot] = in;
+        }
+    }
+
+    public static final class Builder {
+        private final List<Term> terms = new ArrayList<>();
+        private final List<Long> weights = new ArrayList<>();
+
+        /**
+         * Adds a term; terms with weight 0 are left out
+         *
+         * @throws IllegalArgumentException for a negative weight
+         */
+        public Builder add(Term term, long weight) {
+            if (weight < 0) throw new IllegalArgumentException("Objective weights must not be negative");
+            if (weight > 0) {
+                terms.add(term);
+                weights.add(weight);
+            }
+            return this;
+        }
+
+        public ScheduleObjective build() {
+            return new ScheduleObjective(terms, weights);
+        }
+    }
+
+    // --- built-in terms ---
+
+    /**
+     * A built-in term with a name that identifies it, including its parameters
+     */
+    private static final class NamedTerm implements Term {
+        private final String name;
+        private final Term term;
+
+        NamedTerm(String name, Term term) {
+            this.name = name;
+            this.term = term;
+        }
+
+        @Override
+        public TermState start(int[][] rounds, int playerCount, PairingAnalyzer history) {
+            return term.start(rounds, playerCount, history);
+        }
+
+        @Override
+        public TermState start(int[][] rounds, int[] previousRound, int playerCount, PairingAnalyzer history) {
+            return term.start(rounds, previousRound, playerCount, history);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof NamedTerm other && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Sum of the squared pair counts: lowest when partners are spread evenly, so repeated partners are avoided
+     */
+    public static Term partnerRepeats() {
+        return new NamedTerm("partnerRepeats", (rounds, playerCount, history) -> {
+            PairCooccurrence pairs = history.getCooccurrence().copy();
+            pairs.ensureCapacity(playerCount);
+            return new TermState() {
+                @Override
+                public long cost() {
+                    return pairs.getSumOfSquares();
+                }
+
+                @Override
+                public long delta(int[][] rounds, int round, int slot, int in) {
+                    int[] group = rounds[round];
+                    int out = group[slot];
+                    long delta = 0;
+                    for (int i = 0; i < group.length; i++) {
+                        if (i == slot) continue;
+                        delta -= 2L * pairs.get(out, group[i]) - 1; // c² - (c-1)²
+                        delta += 2L * pairs.get(in, group[i]) + 1;  // (c+1)² - c²
+                    }
+                    return delta;
+                }
+
+                @Override
+                public void apply(int[][] rounds, int round, int slot, int in) {
+                    int[] group = rounds[round];
+                    int out = group[slot];
+                    for (int i = 0; i < group.length; i++) {
+                        if (i == slot) continue;
+                        pairs.decrement(out, group[i]);
+                        pairs.increment(in, group[i]);
+                    }
+                }
+            };
+        });
+    }
+
+    /**
+     * (k-1) times the sum of the squared appearance counts: lowest when everybody plays equally often.
+     * The factor lets one extra appearance cost about as much as the k-1 partnerships it adds.
+     */
+    public static Term appearanceBalance() {
+        return new NamedTerm("appearanceBalance", (rounds, playerCount, history) -> {
+            int[] counts = history.getAppearanceCounts();
+            int[] appearances = new int[Math.max(counts.length, playerCount)];
+            System.arraycopy(counts, 0, appearances, 0, counts.length);
+            int factor = rounds.length > 0 ? Math.max(1, rounds[0].length - 1) : 1;
+            return new TermState() {
+                @Override
+                public long cost() {
+                    long squares = 0;
+                    for (int count : appearances) squares += (long) count * count;
+                    return factor * squares;
+                }
+
+                @Override
+                public long delta(int[][] rounds, int round, int slot, int in) {
+                    int out = rounds[round][slot];
+                    return factor * ((2L * appearances[in] + 1) - (2L * appearances[out] - 1));
+                }
+
+                @Override
+                public void apply(int[][] rounds, int round, int slot, int in) {
+                    appearances[rounds[round][slot]]--;
+                    appearances[in]++;
+                }
+            };
+        });
+    }
+
+    /**
+     * Number of times a player plays two consecutive rounds: spaces out every player's appearances.
+     * Rounds that continue a schedule also count players who played the round before them.
+     */
+    public static Term appearanceSpacing() {
+        return new NamedTerm("appearanceSpacing", new Term() {
+            @Override
+            public TermState start(int[][] rounds, int playerCount, PairingAnalyzer history) {
+                return start(rounds, null, playerCount, history);
+            }
+
+            @Override
+            public TermState start(int[][] rounds, int[] previousRound, int playerCount, PairingAnalyzer history) {
+                int[] previous = previousRound != null ? previousRound : new int[0];
+                return new TermState() {
+                    @Override
+                    public long cost() {
+                        long cost = 0;
+                        for (int r = 0; r < rounds.length; r++) {
+                            int[] before = r > 0 ? rounds[r - 1] : previous;
+                            for (int player : rounds[r]) {
+                                if (contains(before, player)) cost++;
+                            }
+                        }
+                        return cost;
+                    }
+
+                    @Override
+                    public long delta(int[][] rounds, int round, int slot, int in) {
+                        int out = rounds[round][slot];
+                        return neighbours(rounds, previous, round, in) - neighbours(rounds, previous, round, out);
+                    }
+
+                    @Override
+                    public void apply(int[][] rounds, int round, int slot, int in) {
+                        // stateless, the cost is read from the rounds
+                    }
+                };
+            }
+        });
+    }
+
+    /**
+     * How often the given pairs of player indices play together; e.g. players who should not share a group.
+     * The pairs are kept in a hash set, so the term costs memory in the number of pairs, not of players.
+     */
+    public static Term avoidedPairs(int[][] pairs) {
+        // normalized (lo, hi) keys, sorted and without duplicates: the name identifies the term's value
+        TreeSet<Long> keys = new TreeSet<>();
+        for (int[] pair : pairs) {
+            if (pair[0] != pair[1]) keys.add(pairKey(pair[0], pair[1]));
+        }
+        StringJoiner name = new StringJoiner(",", "avoidedPairs[", "]");
+        for (long key : keys) name.add((key >>> 32) + "-" + (int) key);
+        return new NamedTerm(name.toString(), (rounds, playerCount, history) -> {
+            LongIntHashMap avoided = new LongIntHashMap(keys.size());
+            PairCooccurrence counts = history.getCooccurrence();
+            long[] cost = new long[1];
+            for (long key : keys) {
+                int lo = (int) (key >>> 32);
+                int hi = (int) key;
+                if (hi < playerCount) {
+                    avoided.addTo(key, 1);
+                    cost[0] += counts.get(lo, hi);
+                }
+            }
+            return new TermState() {
+                @Override
+                public long cost() {
+                    return cost[0];
+                }
+
+                @Override
+                public long delta(int[][] rounds, int round, int slot, int in) {
+                    int[] group = rounds[round];
+                    int out = group[slot];
+                    long delta = 0;
+                    for (int i = 0; i < group.length; i++) {
+                        if (i == slot) continue;
+                        if (avoided.containsKey(pairKey(out, group[i]))) delta--;
+                        if (avoided.containsKey(pairKey(in, group[i]))) delta++;
+                    }
+                    return delta;
+                }
+
+                @Override
+                public void apply(int[][] rounds, int round, int slot, int in) {
+                    cost[0] += delta(rounds, round, slot, in);
+                }
+            };
+        });
+    }
+
+    // the pair of two different players as one key, the lower index in the high half
+    private static long pairKey(int a, int b) {
+        return (long) Math.min(a, b) << 32 | Math.max(a, b);
+    }
+
+    // 0, 1 or 2: in how many of the rounds next to the given one the player plays; previous precedes rounds[0]
+    private static int neighbours(int[][] rounds, int[] previous, int round, int player) {
+        int count = 0;
+        if (contains(round > 0 ? rounds[round - 1] : previous, player)) count++;
+        if (round + 1 < rounds.length && contains(rounds[round + 1], player)) count++;
+        return count;
+    }
+
+    private static boolean contains(int[] group, int player) {
+        for (int member : group) {
+            if (member == player) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package at.bigb.planer.service;
+
+/**
+ * Receives progress of a running schedule generation. Callbacks may arrive from worker threads
+ * and may throw a {@link java.util.concurrent.CancellationException} to abort the generation.
+ */
+public interface ScheduleProgressListener {
+
+    ScheduleProgressListener NONE = new ScheduleProgressListener() {
+    };
+
+    /**
+     * A round of the final schedule is known (group as sorted player indices)
+     */
+    default void roundGenerated(int roundIndex, int[] group) {
+    }
+
+    /**
+     * Work done so far, counted in rounds or, for a multi-start search, in completed starts
+     */
+    default void progress(int done, int total) {
+    }
+
+    /**
+     * The repeat score of the best schedule found so far (0 is perfect)
+     */
+    default void bestScore(long score) {
+    }
+
+    /**
+     * Called regularly by phases that report nothing else for a long time (e.g. the improvement phase),
+     * so that the listener can abort them by throwing
+     */
+    default void heartbeat() {
+    }
+}
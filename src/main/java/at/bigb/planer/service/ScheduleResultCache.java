@@ -0,0 +1,181 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.ObjectiveWeights;
+import at.bigb.planer.domain.ScheduleConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes generated plans of a seeded (deterministic) generator, keyed by a canonical hash of the request.
+ * The key holds no time budgets: results of time-bounded searches (BACKTRACK_RANDOM, ANNEALING and objectives that
+ * are improved by annealing, see {@link PairingGenerator#isTimeBounded()}) depend on how far the search got and are
+ * not cached.
+ * Holds at most {@code maxEntries} results (least recently used first out). Concurrent identical requests
+ * are generated only once: the first request generates, the others wait for its result.
+ * Callers use a cached plan for its groups only and hand out a new plan (id, dates) per request, so an entry
+ * does not go stale and needs no expiry.
+ */
+public class ScheduleResultCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, CompletableFuture<PlanContext>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ScheduleResultCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        // access order: the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<PlanContext>> eldest) {
+                return size() > ScheduleResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Canonical key of a request: the player names are sorted, so the same set of players in a different
+     * order maps to the same (cached) plan; objective weights that build the same objective map to the same key
+     */
+    public static String key(ScheduleConfig config, PairingGenerator.Strategy strategy, Long seed,
+                             PairingGenerator.GroupScoring scoring) {
+        List<String> names = new ArrayList<>(config.getPlayerNames());
+        Collections.sort(names);
+        StringBuilder canonical = new StringBuilder();
+        for (String name : names) {
+            appendName(canonical, name);
+        }
+        canonical.append('|').append(config.getNumberOfRounds())
+                .append('|').append(config.getPlayersPerRound())
+                .append('|').append(strategy)
+                .append('|').append(seed)
+                .append('|').append(scoring)
+                .append('|');
+        appendObjective(canonical, config.getObjective());
+        return sha256(canonical.toString());
+    }
+
+    // like ScheduleGenerationService.createObjective: the default weights are no objective, avoided pairs only
+    // count with a weight, in any order and either direction
+    private static void appendObjective(StringBuilder canonical, ObjectiveWeights weights) {
+        TreeSet<String> pairKeys = new TreeSet<>();
+        if (weights != null && weights.getPairsToAvoid() != null) {
+            for (List<String> pair : weights.getPairsToAvoid()) {
+                String a = pair.get(0);
+                String b = pair.get(1);
+                if (a.equals(b)) continue;
+                StringBuilder key = new StringBuilder();
+                appendName(key, a.compareTo(b) < 0 ? a : b);
+                appendName(key, a.compareTo(b) < 0 ? b : a);
+                pairKeys.add(key.toString());
+            }
+        }
+        int avoidedPairs = pairKeys.isEmpty() ? 0 : weights.getAvoidedPairs();
+        if (weights == null || (weights.getRepeatedPartners() == 1 && weights.getEqualAppearances() == 1
+                && weights.getAppearanceSpacing() == 0 && avoidedPairs == 0)) {
+            canonical.append("default");
+            return;
+        }
+        canonical.append(weights.getRepeatedPartners()).append(',').append(weights.getEqualAppearances())
+                .append(',').append(weights.getAppearanceSpacing()).append(',').append(avoidedPairs);
+        if (avoidedPairs > 0) {
+            for (String key : pairKeys) canonical.append(',').append(key);
+        }
+    }
+
+    private static void appendName(StringBuilder canonical, String name) {
+        canonical.append(name.length()).append(':').append(name); // length prefix, so names may contain any character
+    }
+
+    /**
+     * Returns the cached plan for the key, or generates, caches and returns it. A failed generation is not cached;
+     * requests waiting for a generation that was cancelled generate the plan themselves.
+     */
+    public PlanContext get(String key, Supplier<PlanContext> generator) {
+        while (true) {
+            CompletableFuture<PlanContext> future;
+            boolean owner = false;
+            synchronized (entries) {
+                future = entries.get(key);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    entries.put(key, future);
+                    owner = true;
+                }
+            }
+            if (owner) {
+                return generate(key, future, generator); // outside the lock, other keys are not blocked
+            }
+            try {
+                PlanContext context = future.join();
+                hits.incrementAndGet();
+                return context;
+            } catch (CancellationException e) {
+                // the generating request was cancelled, try again
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof CancellationException)) {
+                    throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+        }
+    }
+
+    private PlanContext generate(String key, CompletableFuture<PlanContext> future, Supplier<PlanContext> generator) {
+        misses.incrementAndGet();
+        try {
+            PlanContext context = generator.get();
+            future.complete(context);
+            return context;
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                entries.remove(key, future);
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
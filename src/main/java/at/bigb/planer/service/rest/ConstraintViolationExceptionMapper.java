@@ -1,5 +1,6 @@
 package at.bigb.planer.service.rest;
 
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
@@ -24,7 +25,13 @@ public class ConstraintViolationExceptionMapper implements ExceptionMapper<Excep
         errorResponse.put("type", exception.getClass().getSimpleName());
         errorResponse.put("timestamp", System.currentTimeMillis());
 
-        return Response.status(Response.Status.BAD_REQUEST)
+        // keep the status of other client errors (404, 409, 429, ...)
+        int status = Response.Status.BAD_REQUEST.getStatusCode();
+        if (exception instanceof WebApplicationException webException
+                && webException.getResponse().getStatus() >= 400 && webException.getResponse().getStatus() < 500) {
+            status = webException.getResponse().getStatus();
+        }
+        return Response.status(status)
                 .entity(errorResponse)
                 .header("Content-Type", "application/json")
                 .build();
@@ -2,6 +2,7 @@ package at.bigb.planer.service.rest;
 
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.InternalServerErrorException;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
@@ -31,6 +32,13 @@ public class ExceptionHandler implements ExceptionMapper<Exception> {
                     .entity(errorResponse)
                     .header("Content-Type", "application/json")
                     .build();
+        } else if (exception instanceof WebApplicationException webException
+                && webException.getResponse().getStatus() >= 400 && webException.getResponse().getStatus() < 500) {
+            // keep the status of other client errors (404, 409, 429, ...)
+            return Response.status(webException.getResponse().getStatus())
+                    .entity(errorResponse)
+                    .header("Content-Type", "application/json")
+                    .build();
         } else if (exception instanceof InternalServerErrorException) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(errorResponse)
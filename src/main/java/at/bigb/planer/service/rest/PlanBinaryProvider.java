@@ -0,0 +1,53 @@
+package at.bigb.planer.service.rest;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.service.PlanBinaryCodec;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes plans in the compact binary form of {@link PlanBinaryCodec}
+ */
+@Provider
+@Produces(PlanBinaryCodec.MEDIA_TYPE)
+@Consumes(PlanBinaryCodec.MEDIA_TYPE)
+public class PlanBinaryProvider implements MessageBodyReader<Plan>, MessageBodyWriter<Plan> {
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return Plan.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeTo(Plan plan, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        PlanBinaryCodec.write(plan, entityStream);
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == Plan.class;
+    }
+
+    @Override
+    public Plan readFrom(Class<Plan> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                         MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        try {
+            return PlanBinaryCodec.read(entityStream);
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid binary plan: " + e.getMessage());
+        }
+    }
+}
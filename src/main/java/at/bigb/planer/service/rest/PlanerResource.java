@@ -1,28 +1,56 @@
 package at.bigb.planer.service.rest;
 
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.Round;
 import at.bigb.planer.domain.ScheduleConfig;
+import at.bigb.planer.domain.dto.BatchItemResultDto;
+import at.bigb.planer.domain.dto.CacheStatsDto;
+import at.bigb.planer.domain.dto.ExtendPlanDto;
+import at.bigb.planer.domain.dto.IndexedPlanDto;
 import at.bigb.planer.domain.dto.PairingDto;
 import at.bigb.planer.domain.dto.PlanDto;
+import at.bigb.planer.domain.dto.RepairPlanDto;
 import at.bigb.planer.domain.dto.ScheduleConfigDto;
 import at.bigb.planer.domain.dto.ScheduleStatsDto;
+import at.bigb.planer.domain.dto.StreamedRoundDto;
+import at.bigb.planer.service.PlanBinaryCodec;
+import at.bigb.planer.service.PlanContext;
+import at.bigb.planer.service.PlanCsvExporter;
+import at.bigb.planer.service.ScheduleBatchService;
 import at.bigb.planer.service.ScheduleGenerationService;
 import at.bigb.planer.service.ScheduleMapper;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.common.util.RestMediaType;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
 
 /**
@@ -33,10 +61,27 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PlanerResource {
 
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final long DEMAND_POLL_NANOS = 1_000_000L;
+
     private final ScheduleGenerationService scheduleService;
+    private final ScheduleBatchService batchService;
+    private final boolean writeServerCopy; // also save downloaded CSVs under build/tmp
+
+    @Inject
+    public PlanerResource(ScheduleGenerationService scheduleService) {
+        this.scheduleService = scheduleService;
+        this.batchService = new ScheduleBatchService(scheduleService);
+        this.writeServerCopy = ConfigProvider.getConfig()
+                .getOptionalValue("planer.download.writeServerCopy", Boolean.class).orElse(false);
+    }
 
-    public PlanerResource() {
-        this.scheduleService = new ScheduleGenerationService();
+    /**
+     * Stops the batch workers when the application shuts down
+     */
+    @PreDestroy
+    void shutdown() {
+        batchService.close();
     }
 
     /**
@@ -69,6 +114,45 @@ public class PlanerResource {
         @APIResponse(responseCode = "500", description = "Internal server error during schedule generation")
     })
     public PlanDto generateSchedule(ScheduleConfigDto configDto) {
+        return ScheduleMapper.mapPlanToDto(generatePlan(configDto));
+    }
+
+    /**
+     * Generates a schedule like {@link #generateSchedule(ScheduleConfigDto)}, returned in the compact binary form
+     */
+    @POST
+    @Path("/generate")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(PlanBinaryCodec.MEDIA_TYPE)
+    @Operation(summary = "Generate schedule (binary)", description = "Generates a schedule and returns it in the compact binary plan format")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Schedule generated successfully",
+            content = @Content(mediaType = PlanBinaryCodec.MEDIA_TYPE)),
+        @APIResponse(responseCode = "400", description = "Invalid configuration (e.g., less than 4 players, 0 rounds, duplicate names)")
+    })
+    public Plan generateScheduleBinary(ScheduleConfigDto configDto) {
+        return generatePlan(configDto);
+    }
+
+    /**
+     * Generates a schedule like {@link #generateSchedule(ScheduleConfigDto)}, returned in the normalized JSON form
+     * (players once, rounds with player indices)
+     */
+    @POST
+    @Path("/generate")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(IndexedPlanDto.MEDIA_TYPE)
+    @Operation(summary = "Generate schedule (indexed JSON)", description = "Generates a schedule; rounds refer to the players by index")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Schedule generated successfully",
+            content = @Content(mediaType = IndexedPlanDto.MEDIA_TYPE, schema = @Schema(implementation = IndexedPlanDto.class))),
+        @APIResponse(responseCode = "400", description = "Invalid configuration (e.g., less than 4 players, 0 rounds, duplicate names)")
+    })
+    public IndexedPlanDto generateScheduleIndexed(ScheduleConfigDto configDto) {
+        return ScheduleMapper.mapPlanToIndexedDto(generatePlan(configDto));
+    }
+
+    private Plan generatePlan(ScheduleConfigDto configDto) {
         try {
             log.info("Received schedule generation request with {} players and {} rounds",
                     configDto.getPlayerNames().size(), configDto.getNumberOfRounds());
@@ -77,10 +161,7 @@ public class PlanerResource {
             ScheduleConfig config = ScheduleMapper.mapDtoToScheduleConfig(configDto);
 
             // Generate schedule
-            var plan = scheduleService.generateSchedule(config);
-
-            // Convert back to DTO and return
-            return ScheduleMapper.mapPlanToDto(plan);
+            return scheduleService.generateSchedule(config);
         } catch (IllegalArgumentException e) {
             log.error("Invalid configuration: {}", e.getMessage());
             throw new BadRequestException("Invalid configuration: " + e.getMessage());
@@ -91,8 +172,125 @@ public class PlanerResource {
     }
 
     /**
-     * Gets statistics about the current pairings
+     * Generates a schedule and streams its rounds as newline-delimited JSON, one StreamedRoundDto per line,
+     * each as soon as it is final. Every round carries the id the plan can be fetched by once the stream is complete.
+     * Generation runs on a worker thread, waits while the client has not requested further rounds and stops
+     * if the client goes away.
      *
+     * @param configDto Configuration containing player names and rounds
+     * @return Stream of the generated rounds in round order
+     */
+    @POST
+    @Path("/generate/stream")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Generate schedule as stream", description = "Generates a schedule and streams each round (NDJSON) as soon as it is generated")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Rounds streamed successfully",
+            content = @Content(mediaType = RestMediaType.APPLICATION_NDJSON, schema = @Schema(implementation = StreamedRoundDto.class))),
+        @APIResponse(responseCode = "400", description = "Invalid configuration (e.g., less than 4 players, 0 rounds, duplicate names)")
+    })
+    public Multi<StreamedRoundDto> streamSchedule(ScheduleConfigDto configDto) {
+        ScheduleConfig config = ScheduleMapper.mapDtoToScheduleConfig(configDto);
+        try {
+            scheduleService.validateConfig(config);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid configuration: {}", e.getMessage());
+            throw new BadRequestException("Invalid configuration: " + e.getMessage());
+        }
+        // the generator waits for demand, so a round is never emitted without a request and nothing is buffered
+        return Multi.createFrom().<StreamedRoundDto>emitter(emitter -> {
+            try {
+                scheduleService.streamSchedule(config, (planId, round) -> {
+                    awaitDemand(emitter);
+                    emitter.emit(ScheduleMapper.mapStreamedRoundToDto(planId, round));
+                });
+                emitter.complete();
+            } catch (CancellationException e) {
+                log.info("Round stream cancelled by client");
+            } catch (Exception e) {
+                log.error("Error streaming schedule", e);
+                emitter.fail(e);
+            }
+        }, BackPressureStrategy.ERROR).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    // parks the generating worker thread until the subscriber requests the next item or cancels
+    private static void awaitDemand(MultiEmitter<?> emitter) {
+        while (emitter.requested() == 0) {
+            if (emitter.isCancelled()) {
+                throw new CancellationException("Client cancelled the round stream");
+            }
+            LockSupport.parkNanos(DEMAND_POLL_NANOS);
+        }
+        if (emitter.isCancelled()) {
+            throw new CancellationException("Client cancelled the round stream");
+        }
+    }
+
+    /**
+     * Generates the schedules of many independent configurations in parallel and streams one result per
+     * configuration as newline-delimited JSON, in the order the items complete. A failing item is reported
+     * with its error and does not abort the batch.
+     *
+     * @param configDtos Configurations of the batch
+     * @return Stream of the item results, each with the index of its configuration
+     */
+    @POST
+    @Path("/generate/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Generate schedules in a batch", description = "Generates many schedules in parallel and streams a result or error per item (NDJSON)")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Item results streamed",
+            content = @Content(mediaType = RestMediaType.APPLICATION_NDJSON, schema = @Schema(implementation = BatchItemResultDto.class))),
+        @APIResponse(responseCode = "400", description = "Empty batch or more items than allowed"),
+        @APIResponse(responseCode = "429", description = "Batch queue is full, retry later")
+    })
+    public Multi<BatchItemResultDto> generateBatch(List<ScheduleConfigDto> configDtos) {
+        List<ScheduleConfig> configs = configDtos == null ? List.of() : configDtos.stream()
+                .map(dto -> dto == null ? new ScheduleConfig() : ScheduleMapper.mapDtoToScheduleConfig(dto))
+                .collect(Collectors.toList());
+        List<CompletableFuture<Plan>> results;
+        try {
+            results = batchService.submit(configs);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid batch: {}", e.getMessage());
+            throw new BadRequestException("Invalid batch: " + e.getMessage());
+        } catch (RejectedExecutionException e) {
+            log.warn("Batch rejected, queue is full");
+            throw new WebApplicationException("Batch queue is full, retry later", TOO_MANY_REQUESTS);
+        }
+        return Multi.createFrom().emitter(emitter -> {
+            emitter.onTermination(() -> results.forEach(result -> result.cancel(false))); // skips items not yet started
+            CompletableFuture<?>[] emitted = new CompletableFuture<?>[results.size()];
+            for (int i = 0; i < results.size(); i++) {
+                int index = i;
+                emitted[i] = results.get(i).whenComplete((plan, error) -> emitter.emit(toBatchItem(index, plan, error)));
+            }
+            // complete only after every item was emitted, not merely generated
+            CompletableFuture.allOf(emitted).whenComplete((ignored, error) -> emitter.complete());
+        });
+    }
+
+    private static BatchItemResultDto toBatchItem(int index, Plan plan, Throwable error) {
+        if (error == null) {
+            return new BatchItemResultDto(index, ScheduleMapper.mapPlanToDto(plan), null);
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IllegalArgumentException) {
+            return new BatchItemResultDto(index, null, "Invalid configuration: " + cause.getMessage());
+        }
+        log.error("Error generating schedule {} of batch", index, cause);
+        return new BatchItemResultDto(index, null, "Error generating schedule: " + cause.getMessage());
+    }
+
+    /**
+     * Gets statistics about the pairings of a plan
+     *
+     * @param planId Id of the plan, the last generated plan if omitted
      * @return Statistics including unique pairings, frequencies, etc.
      */
     @GET
@@ -102,12 +300,14 @@ public class PlanerResource {
     @APIResponses({
         @APIResponse(responseCode = "200", description = "Statistics retrieved successfully",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduleStatsDto.class))),
+        @APIResponse(responseCode = "404", description = "Unknown plan id"),
         @APIResponse(responseCode = "500", description = "Internal server error retrieving statistics")
     })
-    public ScheduleStatsDto getStatistics() {
+    public ScheduleStatsDto getStatistics(@QueryParam("planId") String planId) {
+        PlanContext context = findPlan(planId);
         try {
             log.info("Retrieving pairing statistics");
-            var stats = scheduleService.getPairingStatistics();
+            var stats = scheduleService.getPairingStatistics(context);
             return ScheduleMapper.mapStatsToDto(stats);
         } catch (Exception e) {
             log.error("Error retrieving statistics", e);
@@ -116,20 +316,42 @@ public class PlanerResource {
     }
 
     /**
-     * Gets all pairings sorted by frequency
+     * Gets the pairings of a plan sorted by frequency, optionally a page of them
      *
+     * @param planId Id of the plan, the last generated plan if omitted
+     * @param order  "least" (default) for the least frequent pairings first, "most" for the most frequent first
+     * @param offset Number of pairings to skip
+     * @param limit  Maximum number of pairings to return, all if omitted
      * @return List of pairings with their frequencies
      */
     @GET
     @Path("/pairings")
     @Produces(MediaType.APPLICATION_JSON)
-    @Operation(summary = "Get all pairings", description = "Returns a list of all player pairings sorted by frequency (most frequent first)")
+    @Operation(summary = "Get pairings", description = "Returns the player pairings sorted by frequency; order=most|least, offset and limit select a page")
     @APIResponse(responseCode = "200", description = "Pairings retrieved successfully")
+    @APIResponse(responseCode = "400", description = "Invalid order, offset or limit")
+    @APIResponse(responseCode = "404", description = "Unknown plan id")
     @APIResponse(responseCode = "500", description = "Internal server error retrieving pairings")
-    public java.util.List<PairingDto> getAllPairings() {
+    public java.util.List<PairingDto> getAllPairings(@QueryParam("planId") String planId,
+                                                      @QueryParam("order") String order,
+                                                      @QueryParam("offset") @DefaultValue("0") int offset,
+                                                      @QueryParam("limit") Integer limit) {
+        PlanContext context = findPlan(planId);
+        boolean mostFrequentFirst;
+        if (order == null || order.isBlank() || order.equalsIgnoreCase("least")) {
+            mostFrequentFirst = false;
+        } else if (order.equalsIgnoreCase("most")) {
+            mostFrequentFirst = true;
+        } else {
+            throw new BadRequestException("Invalid order '" + order + "', expected 'most' or 'least'");
+        }
         try {
-            log.info("Retrieving all pairings");
-            return scheduleService.getAllPairingsSorted();
+            log.info("Retrieving pairings (order={}, offset={}, limit={})", order, offset, limit);
+            return scheduleService.getPairings(context, mostFrequentFirst, offset,
+                    limit != null ? limit : Integer.MAX_VALUE);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid pairings request: {}", e.getMessage());
+            throw new BadRequestException("Invalid pairings request: " + e.getMessage());
         } catch (Exception e) {
             log.error("Error retrieving pairings", e);
             throw new InternalServerErrorException("Error retrieving pairings: " + e.getMessage());
@@ -137,8 +359,9 @@ public class PlanerResource {
     }
 
     /**
-     * Gets player usage statistics
+     * Gets player usage statistics of a plan
      *
+     * @param planId Id of the plan, the last generated plan if omitted
      * @return Map of player names to the number of times they have been scheduled
      */
     @GET
@@ -146,11 +369,13 @@ public class PlanerResource {
     @Produces("application/json")
     @Operation(summary = "Get player usage statistics", description = "Returns statistics about how many times players have been scheduled")
     @APIResponse(responseCode = "200", description = "Player usage statistics retrieved successfully")
+    @APIResponse(responseCode = "404", description = "Unknown plan id")
     @APIResponse(responseCode = "500", description = "Internal server error retrieving player usage statistics")
-    public Map<String, Integer> getPlayerUsage() {
+    public Map<String, Integer> getPlayerUsage(@QueryParam("planId") String planId) {
+        PlanContext context = findPlan(planId);
         try {
             log.info("Retrieving player usage statistics");
-            return scheduleService.getPlayerUsageStatistics();
+            return scheduleService.getPlayerUsageStatistics(context);
         } catch (Exception e) {
             log.error("Error retrieving player usage statistics", e);
             throw new InternalServerErrorException("Error retrieving player usage statistics: " + e.getMessage());
@@ -158,8 +383,8 @@ public class PlanerResource {
     }
 
     /**
-     * Downloads the last generated plan as an XLS-compatible CSV file.
-     * Saves the CSV under a local tmp/ directory and returns it as an attachment.
+     * Downloads the last generated plan as an XLS-compatible CSV file, streamed to the response.
+     * With planer.download.writeServerCopy=true a copy is also saved under build/tmp of the project.
      * Returns 404 if no plan was generated yet.
      */
     @GET
@@ -173,18 +398,21 @@ public class PlanerResource {
         if (plan == null) {
             throw new NotFoundException("No generated plan available for download");
         }
+        String filename = String.format("plan-%d.csv", System.currentTimeMillis());
+        Response.ResponseBuilder response = csvResponse(plan, filename);
+        if (writeServerCopy) {
+            response.header("X-Server-File", writeServerCopy(plan, filename).toAbsolutePath().toString());
+        }
+        return response.build();
+    }
 
-        // Build CSV content: header + rounds. Simple layout: RoundNo,Date,Player1,Player2,Player3,Player4
-        String csv = plan.getRounds().stream().map(r -> {
-            String players = r.getSelectedPlayers().stream()
-                    .map(p -> escapeCsv(p.getName()))
-                    .collect(Collectors.joining(","));
-            return String.format("%d,%s,%s", r.getRoundNo(), r.getRoundDate(), players);
-        }).collect(Collectors.joining("\n"));
-
-        String header = "RoundNo,Date,Player1,Player2,Player3,Player4\n";
-        String content = header + csv;
+    private static Response.ResponseBuilder csvResponse(Plan plan, String filename) {
+        StreamingOutput csv = out -> PlanCsvExporter.write(plan, out);
+        return Response.ok(csv, "application/vnd.ms-excel")
+                .header("Content-Disposition", "attachment; filename=" + filename);
+    }
 
+    private java.nio.file.Path writeServerCopy(Plan plan, String filename) {
         try {
             // allow explicit override of project root via environment variable
             String explicitRoot = System.getenv("BIGB_PLANER_PROJECT_ROOT");
@@ -195,30 +423,214 @@ public class PlanerResource {
                 // determine project root (walk up until we find gradlew.bat, build.gradle or settings.gradle)
                 projectRoot = findProjectRoot();
             }
-             java.nio.file.Path tmpDir = projectRoot.resolve("build").resolve("tmp");
-             if (!Files.exists(tmpDir)) {
-                 Files.createDirectories(tmpDir);
-             }
-             String filename = String.format("plan-%d.csv", System.currentTimeMillis());
-             java.nio.file.Path file = tmpDir.resolve(filename);
-             Files.writeString(file, content, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-
-             return Response.ok(content, "application/vnd.ms-excel")
-                     .header("Content-Disposition", "attachment; filename=" + filename)
-                     .header("X-Server-File", file.toAbsolutePath().toString())
-                     .build();
-         } catch (IOException e) {
-             log.error("Error writing CSV to tmp directory", e);
-             throw new InternalServerErrorException("Could not write CSV file: " + e.getMessage());
-         }
-    }
-
-    private static String escapeCsv(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\n") || value.contains("\"")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+            java.nio.file.Path tmpDir = projectRoot.resolve("build").resolve("tmp");
+            Files.createDirectories(tmpDir);
+            java.nio.file.Path file = tmpDir.resolve(filename);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                PlanCsvExporter.write(plan, out);
+            }
+            return file;
+        } catch (IOException e) {
+            log.error("Error writing CSV to tmp directory", e);
+            throw new InternalServerErrorException("Could not write CSV file: " + e.getMessage());
+        }
+    }
+
+    // the given plan (404 if unknown) or, without id, the last generated plan (null if none yet)
+    private PlanContext findPlan(String planId) {
+        if (planId == null || planId.isBlank()) {
+            return scheduleService.getLastPlanContext();
+        }
+        return requirePlan(planId);
+    }
+
+    private PlanContext requirePlan(String planId) {
+        PlanContext context = scheduleService.getPlanContext(planId);
+        if (context == null) {
+            throw new NotFoundException("Unknown plan " + planId);
+        }
+        return context;
+    }
+
+    /**
+     * Gets a stored plan by id
+     */
+    @GET
+    @Path("/plans/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get plan", description = "Returns a previously generated plan from the in-memory plan store")
+    @APIResponse(responseCode = "200", description = "Plan returned",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlanDto.class)))
+    @APIResponse(responseCode = "404", description = "Unknown or expired plan")
+    public PlanDto getPlan(@PathParam("id") String id) {
+        return ScheduleMapper.mapPlanToDto(requirePlan(id).getPlan());
+    }
+
+    /**
+     * Gets a stored plan by id in the compact binary form
+     */
+    @GET
+    @Path("/plans/{id}")
+    @Produces(PlanBinaryCodec.MEDIA_TYPE)
+    @Operation(summary = "Get plan (binary)", description = "Returns a previously generated plan in the compact binary plan format")
+    @APIResponse(responseCode = "200", description = "Plan returned", content = @Content(mediaType = PlanBinaryCodec.MEDIA_TYPE))
+    @APIResponse(responseCode = "404", description = "Unknown or expired plan")
+    public Plan getPlanBinary(@PathParam("id") String id) {
+        return requirePlan(id).getPlan();
+    }
+
+    /**
+     * Gets a stored plan by id in the normalized JSON form (players once, rounds with player indices)
+     */
+    @GET
+    @Path("/plans/{id}")
+    @Produces(IndexedPlanDto.MEDIA_TYPE)
+    @Operation(summary = "Get plan (indexed JSON)", description = "Returns a previously generated plan; rounds refer to the players by index")
+    @APIResponse(responseCode = "200", description = "Plan returned",
+        content = @Content(mediaType = IndexedPlanDto.MEDIA_TYPE, schema = @Schema(implementation = IndexedPlanDto.class)))
+    @APIResponse(responseCode = "404", description = "Unknown or expired plan")
+    public IndexedPlanDto getPlanIndexed(@PathParam("id") String id) {
+        return ScheduleMapper.mapPlanToIndexedDto(requirePlan(id).getPlan());
+    }
+
+    /**
+     * Stores a plan uploaded in the compact binary form (e.g. exported earlier) under its id
+     */
+    @POST
+    @Path("/plans/import")
+    @Consumes(PlanBinaryCodec.MEDIA_TYPE)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Import plan", description = "Stores a plan in the compact binary plan format, so that it can be read, extended and repaired")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Plan imported",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlanDto.class))),
+        @APIResponse(responseCode = "400", description = "Invalid binary data or plan (e.g., different group sizes)")
+    })
+    public PlanDto importPlan(Plan plan) {
+        try {
+            return ScheduleMapper.mapPlanToDto(scheduleService.importPlan(plan).getPlan());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid plan: {}", e.getMessage());
+            throw new BadRequestException("Invalid plan: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the pairing statistics of a stored plan
+     */
+    @GET
+    @Path("/plans/{id}/statistics")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get plan statistics", description = "Returns the pairing statistics of a previously generated plan")
+    @APIResponse(responseCode = "200", description = "Statistics returned",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduleStatsDto.class)))
+    @APIResponse(responseCode = "404", description = "Unknown or expired plan")
+    public ScheduleStatsDto getPlanStatistics(@PathParam("id") String id) {
+        return ScheduleMapper.mapStatsToDto(scheduleService.getPairingStatistics(requirePlan(id)));
+    }
+
+    /**
+     * Gets a stored plan as XLS-compatible CSV (without writing a file on the server)
+     */
+    @GET
+    @Path("/plans/{id}/csv")
+    @Produces("application/vnd.ms-excel")
+    @Operation(summary = "Download plan as XLS-compatible CSV", description = "Returns a previously generated plan as a CSV file that can be opened in Excel")
+    @APIResponse(responseCode = "200", description = "CSV file returned successfully")
+    @APIResponse(responseCode = "404", description = "Unknown or expired plan")
+    public Response getPlanCsv(@PathParam("id") String id) {
+        var plan = requirePlan(id).getPlan();
+        return csvResponse(plan, "plan-" + plan.getId() + ".csv").build();
+    }
+
+    /**
+     * Continues a stored plan with additional rounds; the result is stored as a new plan
+     */
+    @POST
+    @Path("/plans/{id}/extend")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Extend plan", description = "Appends rounds to a stored plan, continuing its pairing history and objective weights; earlier rounds stay unchanged")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Extended plan returned (with a new id)",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlanDto.class))),
+        @APIResponse(responseCode = "400", description = "Number of additional rounds is not positive"),
+        @APIResponse(responseCode = "404", description = "Unknown or expired plan")
+    })
+    public PlanDto extendPlan(@PathParam("id") String id, @QueryParam("rounds") int additionalRounds) {
+        PlanContext context = requirePlan(id);
+        try {
+            return ScheduleMapper.mapPlanToDto(scheduleService.extendPlan(context, additionalRounds));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid extension: {}", e.getMessage());
+            throw new BadRequestException("Invalid extension: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-selects the rounds of a date range of a stored plan for changed player availability; the result is stored as a new plan
+     */
+    @POST
+    @Path("/plans/{id}/repair")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Repair plan", description = "Re-optimizes only the rounds of a date range when players are unavailable or join")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Repaired plan returned (with a new id)",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlanDto.class))),
+        @APIResponse(responseCode = "400", description = "Invalid repair (e.g., missing body, no rounds in the date range, unknown player, too few available players)"),
+        @APIResponse(responseCode = "404", description = "Unknown or expired plan")
+    })
+    public PlanDto repairPlan(@PathParam("id") String id, RepairPlanDto repairDto) {
+        PlanContext context = requirePlan(id);
+        if (repairDto == null) {
+            throw new BadRequestException("Invalid repair: a request body with fromDate and toDate is required");
+        }
+        try {
+            return ScheduleMapper.mapPlanToDto(scheduleService.repairPlan(context, repairDto.getFromDate(),
+                    repairDto.getToDate(), repairDto.getUnavailablePlayers(), repairDto.getAddedPlayers()));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid repair: {}", e.getMessage());
+            throw new BadRequestException("Invalid repair: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Continues uploaded rounds with additional rounds; the result is stored as a new plan
+     */
+    @POST
+    @Path("/plans/extend")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Extend uploaded rounds", description = "Appends rounds to the uploaded rounds, continuing their pairing history")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Extended plan returned",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlanDto.class))),
+        @APIResponse(responseCode = "400", description = "Invalid rounds (e.g., different group sizes, players without id) or number of additional rounds")
+    })
+    public PlanDto extendRounds(ExtendPlanDto extendDto) {
+        try {
+            List<Round> rounds = extendDto.getRounds() == null ? List.of() : extendDto.getRounds().stream()
+                    .map(ScheduleMapper::mapDtoToRound)
+                    .collect(Collectors.toList());
+            return ScheduleMapper.mapPlanToDto(scheduleService.extendRounds(
+                    rounds, extendDto.getPlayerNames(), extendDto.getAdditionalRounds()));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid extension: {}", e.getMessage());
+            throw new BadRequestException("Invalid extension: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the hit/miss metrics of the result cache for identical requests
+     */
+    @GET
+    @Path("/cache/stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get result cache metrics", description = "Returns hits, misses and size of the cache for identical seeded requests")
+    @APIResponse(responseCode = "200", description = "Cache metrics returned",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = CacheStatsDto.class)))
+    public CacheStatsDto getCacheStats() {
+        return ScheduleMapper.mapCacheStatsToDto(scheduleService.getResultCache());
     }
 
     // Walk up the directory tree to find the project root by repository folder name or common Gradle files
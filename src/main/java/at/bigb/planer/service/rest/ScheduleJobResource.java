@@ -0,0 +1,142 @@
+package at.bigb.planer.service.rest;
+
+import at.bigb.planer.domain.ScheduleConfig;
+import at.bigb.planer.domain.dto.PlanDto;
+import at.bigb.planer.domain.dto.ScheduleConfigDto;
+import at.bigb.planer.domain.dto.ScheduleJobDto;
+import at.bigb.planer.service.ScheduleGenerationService;
+import at.bigb.planer.service.ScheduleJob;
+import at.bigb.planer.service.ScheduleJobService;
+import at.bigb.planer.service.ScheduleMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST API for generating schedules as background jobs: submit, poll, fetch the result, cancel
+ */
+@Path("/planer/jobs")
+@Tag(name = "Schedule Jobs", description = "API endpoints for long-running schedule generation")
+@Slf4j
+public class ScheduleJobResource {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final ScheduleJobService jobService;
+
+    @Inject
+    public ScheduleJobResource(ScheduleGenerationService scheduleService) {
+        this(new ScheduleJobService(scheduleService));
+    }
+
+    public ScheduleJobResource(ScheduleJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * Stops the job workers when the application shuts down
+     */
+    @PreDestroy
+    void shutdown() {
+        jobService.close();
+    }
+
+    /**
+     * Queues a schedule generation and returns the job (status QUEUED) right away
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Submit schedule job", description = "Queues a schedule generation and returns its job id")
+    @APIResponses({
+        @APIResponse(responseCode = "202", description = "Job accepted",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduleJobDto.class))),
+        @APIResponse(responseCode = "400", description = "Invalid configuration (e.g., less than 4 players, 0 rounds, duplicate names)"),
+        @APIResponse(responseCode = "429", description = "Job queue is full, retry later")
+    })
+    public Response submitJob(ScheduleConfigDto configDto) {
+        try {
+            ScheduleConfig config = ScheduleMapper.mapDtoToScheduleConfig(configDto);
+            ScheduleJob job = jobService.submit(config);
+            return Response.accepted(ScheduleMapper.mapJobToDto(job)).build();
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid configuration: {}", e.getMessage());
+            throw new BadRequestException("Invalid configuration: " + e.getMessage());
+        } catch (RejectedExecutionException e) {
+            log.warn("Schedule job rejected, queue is full");
+            throw new WebApplicationException("Job queue is full, retry later", TOO_MANY_REQUESTS);
+        }
+    }
+
+    /**
+     * Gets status, progress and best score so far of a job
+     */
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get job status", description = "Returns status, progress (0..1) and the best score found so far")
+    @APIResponse(responseCode = "200", description = "Job status returned",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduleJobDto.class)))
+    @APIResponse(responseCode = "404", description = "Unknown or expired job")
+    public ScheduleJobDto getJob(@PathParam("id") String id) {
+        return ScheduleMapper.mapJobToDto(findJob(id));
+    }
+
+    /**
+     * Gets the generated plan of a completed job
+     */
+    @GET
+    @Path("/{id}/result")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get job result", description = "Returns the generated plan once the job has completed")
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Plan returned",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlanDto.class))),
+        @APIResponse(responseCode = "404", description = "Unknown or expired job"),
+        @APIResponse(responseCode = "409", description = "Job has not completed (yet)")
+    })
+    public PlanDto getJobResult(@PathParam("id") String id) {
+        ScheduleJob job = findJob(id);
+        if (job.getStatus() != ScheduleJob.Status.COMPLETED) {
+            throw new ClientErrorException("Job " + id + " is " + job.getStatus(), Response.Status.CONFLICT);
+        }
+        return ScheduleMapper.mapPlanToDto(job.getResult());
+    }
+
+    /**
+     * Cancels a queued or running job
+     */
+    @DELETE
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Cancel job", description = "Cancels a queued or running job; finished jobs are left unchanged")
+    @APIResponse(responseCode = "200", description = "Cancel requested, current job status returned",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduleJobDto.class)))
+    @APIResponse(responseCode = "404", description = "Unknown or expired job")
+    public ScheduleJobDto cancelJob(@PathParam("id") String id) {
+        ScheduleJob job = jobService.cancel(id);
+        if (job == null) {
+            throw new NotFoundException("Unknown job " + id);
+        }
+        return ScheduleMapper.mapJobToDto(job);
+    }
+
+    private ScheduleJob findJob(String id) {
+        ScheduleJob job = jobService.getJob(id);
+        if (job == null) {
+            throw new NotFoundException("Unknown job " + id);
+        }
+        return job;
+    }
+}
@@ -6,6 +6,9 @@ function App() {
   const [rounds, setRounds] = useState(30);
   const [output, setOutput] = useState('');
   const [status, setStatus] = useState('');
+  // id of the plan generated in this page, so that statistics refer to it and not to another user's plan
+  const [planId, setPlanId] = useState(null);
+  const planQuery = planId ? `?planId=${encodeURIComponent(planId)}` : '';
 
   useEffect(() => {
     // Load initial player names from a local JSON file served at /planer/players.json
@@ -72,6 +75,7 @@ function App() {
       try {
         json = JSON.parse(text);
         setOutput(JSON.stringify(json, null, 2));
+        if (res.ok && json.id) setPlanId(json.id);
       } catch (parseErr) {
         setOutput(`Response was not JSON: ${text}`);
       }
@@ -82,10 +86,58 @@ function App() {
     }
   }
 
+  // Streams the rounds (NDJSON, one round per line) and shows each one as soon as it arrives
+  async function streamPlan() {
+    setStatus('streaming...');
+    setOutput('');
+    const body = { playerNames: players, numberOfRounds: Number(rounds) };
+    try {
+      const res = await fetch('/api/planer/generate/stream', {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json', 'Accept': 'application/x-ndjson' },
+        body: JSON.stringify(body),
+      });
+      if (!res.ok) {
+        setOutput(await res.text());
+        setStatus(`HTTP ${res.status}`);
+        return;
+      }
+      const reader = res.body.getReader();
+      const decoder = new TextDecoder();
+      let buffer = '';
+      let count = 0;
+      let streamedPlanId = null;
+      const appendLine = (line) => {
+        if (!line.trim()) return;
+        const round = JSON.parse(line);
+        streamedPlanId = round.planId;
+        const names = round.selectedPlayers.map(p => p.name).join(', ');
+        setOutput(prev => prev + `Round ${round.roundNo} (${round.roundDate}): ${names}\n`);
+        count++;
+        setStatus(`streaming... ${count} rounds`);
+      };
+      while (true) {
+        const { done, value } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
+        const lines = buffer.split('\n');
+        buffer = lines.pop();
+        lines.forEach(appendLine);
+      }
+      appendLine(buffer);
+      // the plan is stored once the last round has been streamed
+      if (streamedPlanId) setPlanId(streamedPlanId);
+      setStatus(`HTTP ${res.status} - ${count} rounds`);
+    } catch (e) {
+      setOutput(e.toString());
+      setStatus('error');
+    }
+  }
+
   async function getPairings() {
     setStatus('loading pairings...');
     try {
-      const res = await fetch('/api/planer/pairings');
+      const res = await fetch('/api/planer/pairings' + planQuery);
       const text = await res.text();
       let json;
       try {
@@ -104,7 +156,7 @@ function App() {
   async function getPlayerUsage() {
     setStatus('loading player usage...');
     try {
-      const res = await fetch('/api/planer/player-usage');
+      const res = await fetch('/api/planer/player-usage' + planQuery);
       const text = await res.text();
       let json;
       try {
@@ -123,7 +175,7 @@ function App() {
   async function getStatistics() {
     setStatus('loading statistics...');
     try {
-      const res = await fetch('/api/planer/statistics');
+      const res = await fetch('/api/planer/statistics' + planQuery);
       const text = await res.text();
       let json;
       try {
@@ -187,6 +239,7 @@ function App() {
           <label>Rounds: <input type="number" value={rounds} min={1} onChange={(e) => setRounds(e.target.value)} /></label>
           <div className="buttons">
             <button onClick={generatePlan}>Generate Plan</button>
+            <button onClick={streamPlan}>Generate Plan (stream)</button>
             <button onClick={getPairings}>Pairings</button>
             <button onClick={getPlayerUsage}>Player Usage</button>
             <button onClick={getStatistics}>Statistics</button>
@@ -1,22 +1,37 @@
 package at.bigb.planer;
 
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.dto.IndexedPlanDto;
 import at.bigb.planer.domain.dto.PlanDto;
 import at.bigb.planer.domain.dto.ScheduleConfigDto;
 import at.bigb.planer.domain.dto.ScheduleStatsDto;
 import at.bigb.planer.domain.dto.PairingDto;
+import at.bigb.planer.service.PlanBinaryCodec;
+import at.bigb.planer.service.ScheduleGenerationService;
 import at.bigb.planer.service.rest.PlanerResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.*;
 
+import static io.restassured.RestAssured.given;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit Tests for PlanerResource REST endpoints
- * Tests the REST endpoint behavior without server startup
+ * Tests the REST endpoint behavior without server startup; the media type tests go through HTTP,
+ * as the representation is chosen by content negotiation
  */
+@QuarkusTest
 @DisplayName("PlanerResource Unit Tests")
 class PlanerResourceTest {
 
@@ -24,7 +39,7 @@ class PlanerResourceTest {
 
     @BeforeEach
     void setUp() {
-        resource = new PlanerResource();
+        resource = new PlanerResource(new ScheduleGenerationService(ConfigProvider.getConfig()));
     }
 
     @Test
@@ -111,7 +126,7 @@ class PlanerResourceTest {
     @Test
     @DisplayName("Statistics endpoint should return pairing statistics")
     void testGetStatistics() {
-        ScheduleStatsDto stats = resource.getStatistics();
+        ScheduleStatsDto stats = resource.getStatistics(null);
 
         assertNotNull(stats, "Should return statistics");
         assertTrue(stats.getTotalUniquePairings() >= 0, "Total unique pairings should be non-negative");
@@ -121,7 +136,7 @@ class PlanerResourceTest {
     @Test
     @DisplayName("Pairings endpoint should return list of pairings sorted by frequency")
     void testGetAllPairings() {
-        List<PairingDto> pairings = resource.getAllPairings();
+        List<PairingDto> pairings = resource.getAllPairings(null, null, 0, null);
 
         assertNotNull(pairings, "Should return pairings list");
         assertInstanceOf(List.class, pairings, "Should return a List");
@@ -159,4 +174,80 @@ class PlanerResourceTest {
 
         assertNotNull(result.getCreatedAt(), "Plan should have a creation timestamp");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Generate endpoint should answer in the requested media type")
+    void testGenerateMediaTypes() throws IOException {
+        ScheduleConfigDto configDto = new ScheduleConfigDto(
+                Arrays.asList("Alice", "Bob", "Charlie", "David", "Eve", "Frank"), 3, 4);
+
+        JsonPath json = JsonPath.from(generate(configDto, MediaType.APPLICATION_JSON).asString());
+        JsonPath indexed = JsonPath.from(generate(configDto, IndexedPlanDto.MEDIA_TYPE).asString());
+        Plan binary = PlanBinaryCodec.read(new ByteArrayInputStream(
+                generate(configDto, PlanBinaryCodec.MEDIA_TYPE).asByteArray()));
+
+        assertPlanJson(json);
+        assertIndexedPlanJson(indexed);
+        assertNotNull(binary.getId());
+        assertEquals(6, binary.getPlayers().size());
+        assertEquals(3, binary.getRounds().size());
+        assertEquals(4, binary.getRounds().get(0).getSelectedPlayers().size());
+    }
+
+    @Test
+    @DisplayName("Plans endpoint should return a stored plan in the requested media type")
+    void testGetPlanMediaTypes() throws IOException {
+        ScheduleConfigDto configDto = new ScheduleConfigDto(
+                Arrays.asList("Alice", "Bob", "Charlie", "David", "Eve", "Frank"), 3, 4);
+        String id = JsonPath.from(generate(configDto, MediaType.APPLICATION_JSON).asString()).getString("id");
+
+        JsonPath json = JsonPath.from(getPlan(id, MediaType.APPLICATION_JSON).asString());
+        JsonPath indexed = JsonPath.from(getPlan(id, IndexedPlanDto.MEDIA_TYPE).asString());
+        Plan binary = PlanBinaryCodec.read(new ByteArrayInputStream(
+                getPlan(id, PlanBinaryCodec.MEDIA_TYPE).asByteArray()));
+
+        assertPlanJson(json);
+        assertEquals(id, json.getString("id"));
+        assertIndexedPlanJson(indexed);
+        assertEquals(id, indexed.getString("id"));
+        assertEquals(id, binary.getId());
+        assertEquals(3, binary.getRounds().size());
+        assertEquals(json.getString("rounds[0].selectedPlayers[0].id"),
+                binary.getRounds().get(0).getSelectedPlayers().get(0).getId());
+    }
+
+    private static Response generate(ScheduleConfigDto configDto, String mediaType) {
+        Response response = given().contentType(ContentType.JSON).accept(mediaType).body(configDto)
+                .post("/api/planer/generate");
+        assertEquals(200, response.getStatusCode(), response.asString());
+        assertTrue(response.getContentType().startsWith(mediaType), response.getContentType());
+        return response;
+    }
+
+    private static Response getPlan(String id, String mediaType) {
+        Response response = given().accept(mediaType).get("/api/planer/plans/{id}", id);
+        assertEquals(200, response.getStatusCode(), response.asString());
+        assertTrue(response.getContentType().startsWith(mediaType), response.getContentType());
+        return response;
+    }
+
+    // PlanDto: players and rounds with the selected players as objects
+    private static void assertPlanJson(JsonPath plan) {
+        assertNotNull(plan.getString("id"));
+        assertEquals(6, plan.getList("players").size());
+        assertEquals(3, plan.getList("rounds").size());
+        assertEquals(4, plan.getList("rounds[0].selectedPlayers").size());
+        assertNotNull(plan.getString("rounds[0].selectedPlayers[0].name"));
+    }
+
+    // IndexedPlanDto: players once, rounds with player indices only
+    private static void assertIndexedPlanJson(JsonPath plan) {
+        assertNotNull(plan.getString("id"));
+        assertEquals(6, plan.getList("players").size());
+        assertEquals(3, plan.getList("rounds").size());
+        List<Integer> indices = plan.getList("rounds[0].playerIndices", Integer.class);
+        assertEquals(4, indices.size());
+        assertTrue(indices.stream().allMatch(i -> i >= 0 && i < 6));
+        assertNull(plan.get("rounds[0].selectedPlayers"));
+    }
+}
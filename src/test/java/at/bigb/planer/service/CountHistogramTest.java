@@ -0,0 +1,56 @@
+package at.bigb.planer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CountHistogram
+ */
+@DisplayName("CountHistogram Tests")
+class CountHistogramTest {
+
+    @Test
+    @DisplayName("Should keep min, max and totals while counts go up and down")
+    void testIncreaseAndDecrease() {
+        CountHistogram histogram = new CountHistogram();
+        // element a: 1, 2, 3; element b: 1
+        histogram.increased(1);
+        histogram.increased(2);
+        histogram.increased(3);
+        histogram.increased(1);
+
+        assertEquals(2, histogram.getElements());
+        assertEquals(4, histogram.getTotal());
+        assertEquals(1, histogram.getMin());
+        assertEquals(3, histogram.getMax());
+        assertArrayEquals(new int[]{5, 1, 0, 1}, histogram.toArray(5));
+
+        histogram.decreased(0); // b removed
+        assertEquals(3, histogram.getMin());
+        histogram.decreased(2); // a back to 2
+        assertEquals(2, histogram.getMax());
+        assertEquals(2, histogram.getMin());
+        histogram.decreased(1);
+        histogram.decreased(0);
+        assertEquals(0, histogram.getElements());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("Should grow beyond the initial capacity and copy independently")
+    void testGrowthAndCopy() {
+        CountHistogram histogram = new CountHistogram();
+        for (int count = 1; count <= 20; count++) histogram.increased(count);
+
+        CountHistogram copy = histogram.copy();
+        copy.decreased(19);
+
+        assertEquals(20, histogram.getMax());
+        assertEquals(1, histogram.get(20));
+        assertEquals(19, copy.getMax());
+        assertEquals(0, copy.get(20));
+    }
+}
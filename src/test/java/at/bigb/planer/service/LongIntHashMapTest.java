@@ -0,0 +1,86 @@
+package at.bigb.planer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LongIntHashMap
+ */
+@DisplayName("LongIntHashMap Tests")
+class LongIntHashMapTest {
+
+    @Test
+    @DisplayName("Should add and read values including key 0")
+    void testAddToAndGet() {
+        LongIntHashMap map = new LongIntHashMap();
+
+        assertEquals(1, map.addTo(0L, 1));
+        assertEquals(3, map.addTo(42L, 3));
+        assertEquals(5, map.addTo(42L, 2));
+
+        assertEquals(1, map.get(0L, -1));
+        assertEquals(5, map.get(42L, -1));
+        assertEquals(-1, map.get(7L, -1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    @DisplayName("Should keep all entries when growing")
+    void testGrowth() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 1; i <= 10_000; i++) {
+            long key = (long) i << 20 | (i % 7);
+            map.addTo(key, i);
+            expected.put(key, i);
+        }
+
+        assertEquals(expected.size(), map.size());
+        Map<Long, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Should be empty after clear")
+    void testClear() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.addTo(0L, 1);
+        map.addTo(5L, 1);
+
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0L));
+        assertFalse(map.containsKey(5L));
+    }
+
+    @Test
+    @DisplayName("Should find remaining keys after removals")
+    void testRemove() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            long key = (long) i * 31;
+            map.addTo(key, i + 1);
+            expected.put(key, i + 1);
+        }
+        for (int i = 0; i < 2_000; i += 3) {
+            long key = (long) i * 31;
+            assertEquals(i + 1, map.remove(key, -1));
+            expected.remove(key);
+        }
+
+        assertEquals(-1, map.remove(1L, -1));
+        assertFalse(map.containsKey(0L));
+        assertEquals(expected.size(), map.size());
+        Map<Long, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+    }
+}
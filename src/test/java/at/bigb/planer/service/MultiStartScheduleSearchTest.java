@@ -0,0 +1,95 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Player;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MultiStartScheduleSearch
+ */
+@QuarkusTest
+@DisplayName("MultiStartScheduleSearch Tests")
+class MultiStartScheduleSearchTest {
+
+    private List<Player> testPlayers;
+
+    @BeforeEach
+    void setUp() {
+        testPlayers = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            testPlayers.add(new Player(UUID.randomUUID().toString(), "Player " + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should return a complete schedule with its analyzer")
+    void testSearch_ReturnsCompleteSchedule() {
+        PairingGenerator prototype = new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 7L, 50, 200);
+        MultiStartScheduleSearch search = new MultiStartScheduleSearch(prototype, 4, 5_000, 2);
+
+        MultiStartScheduleSearch.Result result = search.search(testPlayers, 15, 4, PairingGenerator.GroupScoring.PAIR_OVERLAP);
+
+        assertEquals(15, result.getSchedule().length);
+        for (int[] group : result.getSchedule()) {
+            assertEquals(4, Arrays.stream(group).distinct().count());
+        }
+        assertEquals(result.getScore(), result.getAnalyzer().getRepeatScore());
+        assertEquals(15, result.getAnalyzer().getStatistics().get("totalPairingRecords"));
+        assertTrue(result.getStartsCompleted() >= 1);
+    }
+
+    @Test
+    @DisplayName("Should never be worse than the single search with the same seed")
+    void testSearch_AtLeastAsGoodAsSingleStart() {
+        PairingGenerator prototype = new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 11L, 20, 200);
+        PairingAnalyzer single = new PairingAnalyzer(new PlayerRegistry(testPlayers), 4);
+        prototype.withSeed(11L).generateGroupSchedule(testPlayers.size(), 20, 4, single, PairingGenerator.GroupScoring.PAIR_OVERLAP);
+
+        MultiStartScheduleSearch search = new MultiStartScheduleSearch(prototype, 8, 10_000, 4);
+        MultiStartScheduleSearch.Result result = search.search(testPlayers, 20, 4, PairingGenerator.GroupScoring.PAIR_OVERLAP);
+
+        assertTrue(result.getScore() <= single.getRepeatScore(),
+                "Best of 8 starts (" + result.getScore() + ") should not exceed start 0 (" + single.getRepeatScore() + ")");
+    }
+
+    @Test
+    @DisplayName("Should stop starting new searches once a perfect schedule is found")
+    void testSearch_EarlyExitOnPerfectScore() {
+        // with 4 players and groups of 4 every schedule is perfect
+        PairingGenerator prototype = new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 1L, 10, 200);
+        MultiStartScheduleSearch search = new MultiStartScheduleSearch(prototype, 10_000, 60_000, 2);
+
+        MultiStartScheduleSearch.Result result = search.search(testPlayers.subList(0, 4), 5, 4, PairingGenerator.GroupScoring.PAIR_OVERLAP);
+
+        assertEquals(0, result.getScore());
+        assertTrue(result.getStartsCompleted() < 10_000, "Remaining starts should be skipped");
+    }
+
+    @Test
+    @DisplayName("Should not run past its budget and reject searches once closed")
+    void testSearch_BudgetAndClose() {
+        // every start would anneal for two seconds
+        PairingGenerator prototype = new PairingGenerator(PairingGenerator.Strategy.ANNEALING, 1L, 10, 10, 2_000);
+        MultiStartScheduleSearch search = new MultiStartScheduleSearch(prototype, 4, 200, 2);
+
+        long start = System.nanoTime();
+        MultiStartScheduleSearch.Result result = search.search(testPlayers, 15, 4, PairingGenerator.GroupScoring.PAIR_OVERLAP);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(15, result.getSchedule().length);
+        assertTrue(elapsedMillis < 1_500, "Search took " + elapsedMillis + " ms with a budget of 200 ms");
+        search.close();
+        assertThrows(RejectedExecutionException.class,
+                () -> search.search(testPlayers, 15, 4, PairingGenerator.GroupScoring.PAIR_OVERLAP));
+    }
+}
@@ -0,0 +1,69 @@
+package at.bigb.planer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PairCooccurrence
+ */
+@DisplayName("PairCooccurrence Tests")
+class PairCooccurrenceTest {
+
+    @Test
+    @DisplayName("Should count every pair of a recorded group symmetrically")
+    void testRecordGroup() {
+        PairCooccurrence matrix = new PairCooccurrence(6);
+
+        matrix.recordGroup(new int[]{0, 2, 4, 5}, 4);
+        matrix.recordGroup(new int[]{5, 2, 1, 3}, 4);
+
+        assertEquals(1, matrix.get(0, 2));
+        assertEquals(1, matrix.get(2, 0));
+        assertEquals(2, matrix.get(2, 5));
+        assertEquals(0, matrix.get(0, 1));
+        assertEquals(0, matrix.get(3, 3));
+    }
+
+    @Test
+    @DisplayName("Should sum pair overlaps of a group")
+    void testGroupOverlap() {
+        PairCooccurrence matrix = new PairCooccurrence(6);
+        matrix.recordGroup(new int[]{0, 1, 2, 3}, 4);
+        matrix.recordGroup(new int[]{0, 1, 4, 5}, 4);
+
+        assertEquals(2 + 1 + 1, matrix.groupOverlap(new int[]{0, 1, 2}, 3));
+        assertEquals(0, matrix.groupOverlap(new int[]{2, 4}, 2));
+        assertEquals(2, matrix.groupOverlap(new int[]{0, 1, 99}, 2), "Only the first size entries count");
+    }
+
+    @Test
+    @DisplayName("Should grow without losing counts")
+    void testGrowth() {
+        PairCooccurrence matrix = new PairCooccurrence(2);
+        matrix.recordGroup(new int[]{0, 1}, 2);
+
+        matrix.recordGroup(new int[]{1, 7}, 2);
+
+        assertEquals(8, matrix.getPlayerCount());
+        assertEquals(1, matrix.get(0, 1));
+        assertEquals(1, matrix.get(7, 1));
+        assertEquals(0, matrix.get(20, 1), "Unknown players have no history");
+    }
+
+    @Test
+    @DisplayName("Should report pair coverage and the pair count histogram")
+    void testCoverage() {
+        PairCooccurrence matrix = new PairCooccurrence(4);
+        matrix.recordGroup(new int[]{0, 1, 2}, 3);
+        matrix.recordGroup(new int[]{0, 1}, 2);
+
+        assertEquals(0.5, matrix.getCoverage(), 1e-9);
+        assertArrayEquals(new int[]{3, 2, 1}, matrix.getPairCountHistogram());
+
+        matrix.removeGroup(new int[]{0, 1, 2}, 3);
+        assertEquals(1.0 / 6, matrix.getCoverage(), 1e-9);
+        assertArrayEquals(new int[]{5, 1}, matrix.getPairCountHistogram());
+    }
+}
@@ -180,6 +180,123 @@ class PairingAnalyzerTest {
         assertEquals(1.0, stats.get("avgFrequency"));
     }
 
+    @Test
+    @DisplayName("Should look up frequency by registry indices")
+    void testGetFrequency_ByIndices() {
+        List<Player> pairing = testPlayers.subList(0, 4);
+        analyzer.recordPairing(pairing);
+
+        PlayerRegistry registry = analyzer.getRegistry();
+        int[] indices = new int[]{
+                registry.indexOf(pairing.get(3).getId()),
+                registry.indexOf(pairing.get(1).getId()),
+                registry.indexOf(pairing.get(0).getId()),
+                registry.indexOf(pairing.get(2).getId())
+        };
+
+        assertEquals(1, analyzer.getFrequency(indices, 4), "Index lookup should be order independent");
+        assertEquals(0, analyzer.getFrequency(indices, 3), "A subset is a different pairing");
+    }
+
+    @Test
+    @DisplayName("Should track pairings of rosters with more than 64 players")
+    void testRecordPairing_LargeRoster() {
+        List<Player> roster = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            roster.add(new Player(UUID.randomUUID().toString(), "Player " + i));
+        }
+        List<Player> lowPairing = roster.subList(0, 4);
+        List<Player> widePairing = Arrays.asList(roster.get(1), roster.get(63), roster.get(64), roster.get(99));
+
+        analyzer.recordPairing(roster.subList(96, 100)); // registers the high indices early
+        analyzer.recordPairing(lowPairing);
+        analyzer.recordPairing(widePairing);
+        analyzer.recordPairing(widePairing);
+
+        assertEquals(1, analyzer.getFrequency(lowPairing));
+        assertEquals(2, analyzer.getFrequency(widePairing));
+        assertEquals(3, analyzer.getStatistics().get("totalUniquePairings"));
+        Pairing mostFrequent = analyzer.getAllPairingsSortedByFrequency().get(2);
+        assertEquals(widePairing.stream().map(Player::getId).collect(java.util.stream.Collectors.toSet()),
+                mostFrequent.getPlayerIds());
+    }
+
+    @Test
+    @DisplayName("Should score groups by pair overlap")
+    void testGetPairOverlap() {
+        analyzer.recordPairing(testPlayers.subList(0, 4));
+        analyzer.recordPairing(Arrays.asList(
+                testPlayers.get(0), testPlayers.get(1),
+                testPlayers.get(8), testPlayers.get(9)
+        ));
+
+        List<Player> candidate = Arrays.asList(
+                testPlayers.get(0), testPlayers.get(1),
+                testPlayers.get(2), testPlayers.get(9)
+        );
+
+        // 0-1 met twice, 0-2 / 1-2 / 0-9 / 1-9 once, 2-9 never
+        assertEquals(6, analyzer.getPairOverlap(candidate));
+        assertEquals(0, analyzer.getFrequency(candidate), "The exact group was never played");
+        assertEquals(0, analyzer.getPairOverlap(testPlayers.subList(4, 8)));
+    }
+
+    @Test
+    @DisplayName("Should reject pairings that contain a player twice")
+    void testRecordPairing_DuplicatePlayer() {
+        List<Player> duplicate = Arrays.asList(
+                testPlayers.get(0), testPlayers.get(1),
+                testPlayers.get(2), testPlayers.get(0)
+        );
+        analyzer.recordPairing(testPlayers.subList(0, 4));
+
+        assertThrows(IllegalArgumentException.class, () -> analyzer.recordPairing(duplicate));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.recordPairing(new int[]{1, 2, 3, 1}));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.removePairing(new int[]{0, 1, 2, 0}));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.getFrequency(duplicate));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.getPairOverlap(duplicate));
+        assertEquals(1, analyzer.getStatistics().get("totalPairingRecords"), "Rejected pairings are not recorded");
+    }
+
+    @Test
+    @DisplayName("Should score evenly spread pairings as perfect")
+    void testGetRepeatScore() {
+        PairingAnalyzer fourPlayers = new PairingAnalyzer(new PlayerRegistry(testPlayers.subList(0, 4)), 2);
+        // a round-robin of 4 players: every pair exactly once, every player three times
+        int[][] roundRobin = {{0, 1}, {2, 3}, {0, 2}, {1, 3}, {0, 3}, {1, 2}};
+        for (int[] pair : roundRobin) fourPlayers.recordPairing(pair);
+        assertEquals(0, fourPlayers.getRepeatScore());
+
+        fourPlayers.recordPairing(new int[]{0, 1});
+        fourPlayers.recordPairing(new int[]{0, 1});
+        // pair 0-1 now met 3 times while others met once, and players 0/1 appear 5 times instead of 4
+        assertTrue(fourPlayers.getRepeatScore() > 0);
+        assertEquals(5, fourPlayers.getAppearances(1));
+        assertEquals(3, fourPlayers.getAppearances(2));
+    }
+
+    @Test
+    @DisplayName("Should undo a recorded pairing")
+    void testRemovePairing() {
+        PairingAnalyzer fourPlayers = new PairingAnalyzer(new PlayerRegistry(testPlayers.subList(0, 4)), 2);
+        fourPlayers.recordPairing(new int[]{0, 1});
+        fourPlayers.recordPairing(new int[]{0, 1});
+        fourPlayers.recordPairing(new int[]{2, 3});
+
+        fourPlayers.removePairing(new int[]{1, 0});
+
+        assertEquals(1, fourPlayers.getFrequency(new int[]{0, 1}, 2));
+        assertEquals(1, fourPlayers.getAppearances(0));
+        assertEquals(0, fourPlayers.getRepeatScore());
+        fourPlayers.removePairing(new int[]{0, 1});
+        assertEquals(1, fourPlayers.getStatistics().get("totalUniquePairings"));
+        assertThrows(IllegalArgumentException.class, () -> fourPlayers.removePairing(new int[]{0, 1}));
+        assertThrows(IllegalArgumentException.class, () -> fourPlayers.removePairing(new int[]{2, 3, 0}));
+        assertThrows(IllegalArgumentException.class, () -> fourPlayers.removePairing(new int[]{2}));
+        assertEquals(1, fourPlayers.getFrequency(new int[]{2, 3}, 2), "Rejected removals change nothing");
+        assertEquals(1, fourPlayers.getAppearances(2));
+    }
+
     // Helper method to create test players
     private List<Player> createTenTestPlayers() {
         List<Player> players = new ArrayList<>();
@@ -188,5 +305,110 @@ class PairingAnalyzerTest {
         }
         return players;
     }
-}
 
+    @Test
+    @DisplayName("Copy should be independent of the original history")
+    void testCopy() {
+        PairingAnalyzer original = new PairingAnalyzer(new PlayerRegistry(testPlayers), 4);
+        original.recordPairing(new int[]{0, 1, 2, 3});
+        original.recordPairing(new int[]{0, 1, 2, 70}); // wide group beyond the bitmask range
+
+        PairingAnalyzer copy = original.copy();
+        copy.recordPairing(new int[]{0, 1, 2, 3});
+        copy.removePairing(new int[]{0, 1, 2, 70});
+
+        assertEquals(1, original.getFrequency(new int[]{0, 1, 2, 3}, 4));
+        assertEquals(1, original.getFrequency(new int[]{0, 1, 2, 70}, 4));
+        assertEquals(2, original.getAppearances(0));
+        assertEquals(2, copy.getFrequency(new int[]{0, 1, 2, 3}, 4));
+        assertEquals(0, copy.getFrequency(new int[]{0, 1, 2, 70}, 4));
+        assertEquals(2, copy.getPairOverlap(new int[]{0, 3}, 2));
+        assertEquals(2, original.getPairOverlap(new int[]{1, 2}, 2));
+        assertEquals(testPlayers.size(), copy.getRegistry().size());
+    }
+
+    @Test
+    @DisplayName("Statistics should follow recorded and removed pairings")
+    void testStatisticsAfterRemoval() {
+        PairingAnalyzer analyzer = new PairingAnalyzer(new PlayerRegistry(testPlayers), 2);
+        analyzer.recordPairing(new int[]{0, 1});
+        analyzer.recordPairing(new int[]{0, 1});
+        analyzer.recordPairing(new int[]{0, 1});
+        analyzer.recordPairing(new int[]{2, 3});
+        analyzer.recordPairing(new int[]{4, 5});
+        analyzer.recordPairing(new int[]{4, 5});
+
+        Map<String, Object> stats = analyzer.getStatistics();
+        assertEquals(3, stats.get("maxFrequency"));
+        assertEquals(1, stats.get("minFrequency"));
+        assertEquals(6, stats.get("totalPairingRecords"));
+
+        analyzer.removePairing(new int[]{2, 3});
+        analyzer.removePairing(new int[]{0, 1});
+        analyzer.removePairing(new int[]{0, 1});
+        stats = analyzer.getStatistics();
+        assertEquals(2, stats.get("maxFrequency"));
+        assertEquals(1, stats.get("minFrequency"));
+        assertEquals(2, stats.get("totalUniquePairings"));
+        assertEquals(1.5, (Double) stats.get("avgFrequency"), 0.001);
+
+        analyzer.removePairing(new int[]{0, 1});
+        stats = analyzer.getStatistics();
+        assertEquals(2, stats.get("maxFrequency"));
+        assertEquals(2, stats.get("minFrequency"));
+
+        analyzer.removePairing(new int[]{4, 5});
+        analyzer.removePairing(new int[]{4, 5});
+        stats = analyzer.getStatistics();
+        assertEquals(0, stats.get("totalUniquePairings"));
+        assertFalse(stats.containsKey("maxFrequency"));
+    }
+
+    @Test
+    @DisplayName("Pair coverage and histogram should count players registered after the last pairing")
+    void testStatistics_PlayerAddedLater() {
+        PlayerRegistry registry = new PlayerRegistry(testPlayers.subList(0, 4));
+        PairingAnalyzer analyzer = new PairingAnalyzer(registry, 4);
+        analyzer.recordPairing(new int[]{0, 1, 2, 3});
+        assertEquals(100.0, (Double) analyzer.getStatistics().get("pairCoverage"), 1e-9);
+
+        registry.register(testPlayers.get(4));
+
+        Map<String, Object> stats = analyzer.getStatistics();
+        // 6 of the 10 pairs of five players have met, the 4 pairs of the new player have not
+        assertEquals(60.0, (Double) stats.get("pairCoverage"), 1e-9);
+        assertEquals(List.of(4, 6), stats.get("pairRepeatHistogram"));
+        assertEquals(0, stats.get("minAppearances"));
+    }
+
+    @Test
+    @DisplayName("Should page pairings by frequency in both orders")
+    void testPairingsByFrequency() {
+        PairingAnalyzer analyzer = new PairingAnalyzer(new PlayerRegistry(testPlayers), 2);
+        for (int f = 1; f <= 4; f++) {
+            for (int i = 0; i < f; i++) {
+                analyzer.recordPairing(new int[]{2 * f - 2, 2 * f - 1});
+            }
+        }
+        analyzer.recordPairing(new int[]{8, 9});
+
+        List<Pairing> all = analyzer.getAllPairingsSortedByFrequency();
+        assertEquals(5, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getFrequency() <= all.get(i).getFrequency());
+        }
+
+        List<Pairing> mostFrequent = analyzer.getPairingsByFrequency(true, 0, 2);
+        assertEquals(List.of(4, 3), mostFrequent.stream().map(Pairing::getFrequency).toList());
+
+        List<Pairing> page = analyzer.getPairingsByFrequency(true, 2, 10);
+        assertEquals(List.of(2, 1, 1), page.stream().map(Pairing::getFrequency).toList());
+
+        List<Pairing> leastFrequent = analyzer.getPairingsByFrequency(false, 1, 2);
+        assertEquals(List.of(1, 2), leastFrequent.stream().map(Pairing::getFrequency).toList());
+        assertEquals(all.subList(1, 3), leastFrequent);
+
+        assertTrue(analyzer.getPairingsByFrequency(false, 5, 10).isEmpty());
+        assertTrue(analyzer.getPairingsByFrequency(false, 0, 0).isEmpty());
+    }
+}
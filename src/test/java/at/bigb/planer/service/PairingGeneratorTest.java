@@ -1,5 +1,6 @@
 package at.bigb.planer.service;
 
+import at.bigb.planer.domain.Player;
 import io.quarkus.test.junit.QuarkusTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -46,4 +48,188 @@ class PairingGeneratorTest {
         // For 10 players and 30 rounds the average occurrences per pair is around 3.3; ensure no pair exceeds a safe threshold
         assertTrue(max < 10, "No single pair should dominate excessively, max=" + max);
     }
+
+    @Test
+    @DisplayName("Should select distinct player indices avoiding high-scored candidates")
+    void testSelectGroupByIndex() {
+        PairingGenerator gen = new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 42L, 200, 200);
+        // every group containing player 0 is penalized
+        int[] group = gen.selectGroup(10, 4, (candidate, size) -> {
+            for (int i = 0; i < size; i++) if (candidate[i] == 0) return 1;
+            return 0;
+        });
+
+        assertEquals(4, group.length);
+        assertEquals(4, Arrays.stream(group).distinct().count(), "Indices should be distinct");
+        assertTrue(Arrays.stream(group).allMatch(i -> i > 0 && i < 10), "Player 0 should be avoided");
+    }
+
+    @Test
+    @DisplayName("Should emit a perfect schedule for sizes with a known design")
+    void testConstructiveSchedule() {
+        PairingGenerator gen = new PairingGenerator(PairingGenerator.Strategy.CONSTRUCTIVE, 42L, 200, 200);
+        List<String> sixteen = new ArrayList<>();
+        for (int i = 0; i < 16; i++) sixteen.add("P" + i);
+        PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(), 4);
+        sixteen.forEach(name -> history.getRegistry().register(new Player(name, name)));
+
+        // 16 players in groups of 4: 20 groups in which every pair meets exactly once
+        gen.generateGroupSchedule(16, 40, 4, history, PairingGenerator.GroupScoring.PAIR_OVERLAP);
+
+        assertEquals(0, history.getRepeatScore());
+        assertTrue((int) history.getStatistics().get("totalUniquePairings") > 20, "Passes should be relabeled");
+
+        List<List<PairingGenerator.Pair>> rounds = gen.generate(testPlayers, 9);
+        Set<PairingGenerator.Pair> distinct = rounds.stream().flatMap(List::stream).collect(Collectors.toSet());
+        assertEquals(45, distinct.size(), "A round-robin of 10 players covers all 45 pairs in 9 rounds");
+    }
+
+    @Test
+    @DisplayName("Should find repeat-free rounds with the backtracking search")
+    void testBacktrackAvoidsRepeats() {
+        PairingGenerator gen = new PairingGenerator(PairingGenerator.Strategy.BACKTRACK_RANDOM, 7L, 200, 200);
+
+        // after 4 rounds every player still has 5 unused partners, so a fifth repeat-free round exists
+        List<List<PairingGenerator.Pair>> schedule = gen.generate(testPlayers, 5);
+
+        Set<PairingGenerator.Pair> distinct = schedule.stream().flatMap(List::stream).collect(Collectors.toSet());
+        assertEquals(25, distinct.size(), "No pair should repeat");
+        for (List<PairingGenerator.Pair> round : schedule) {
+            Set<String> seen = round.stream().flatMap(p -> Stream.of(p.a, p.b)).collect(Collectors.toSet());
+            assertEquals(10, seen.size(), "Every player plays once per round");
+        }
+    }
+
+    @Test
+    @DisplayName("Should select the group with the least pair overlap with the backtracking search")
+    void testBacktrackSelectsOptimalGroup() {
+        List<Player> roster = new ArrayList<>();
+        for (int i = 0; i < 9; i++) roster.add(new Player("id-" + i, "P" + i));
+        PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(roster), 4);
+        Random random = new Random(3);
+        for (int r = 0; r < 12; r++) {
+            List<Integer> shuffled = new ArrayList<>(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8));
+            Collections.shuffle(shuffled, random);
+            history.recordPairing(shuffled.subList(0, 4).stream().mapToInt(Integer::intValue).toArray());
+        }
+        int optimum = Integer.MAX_VALUE;
+        for (int a = 0; a < 9; a++)
+            for (int b = a + 1; b < 9; b++)
+                for (int c = b + 1; c < 9; c++)
+                    for (int d = c + 1; d < 9; d++)
+                        optimum = Math.min(optimum, history.getPairOverlap(new int[]{a, b, c, d}, 4));
+        PairingGenerator gen = new PairingGenerator(PairingGenerator.Strategy.BACKTRACK_RANDOM, 11L, 1, 1000);
+
+        int[] group = gen.selectGroup(9, 4, PairingGenerator.GroupScorer.pairOverlap(history));
+
+        assertEquals(4, Arrays.stream(group).distinct().count());
+        assertEquals(optimum, history.getPairOverlap(group, 4));
+    }
+
+    @Test
+    @DisplayName("Should end a backtracking group search by its expansion budget, not its timeout")
+    void testBacktrackStopsWithoutPerfectGroup() {
+        // 60 players have met every partner after about 300 rounds, later searches find no repeat-free group
+        PairingGenerator gen = new PairingGenerator(PairingGenerator.Strategy.BACKTRACK_RANDOM, 5L, 200, 10_000);
+        for (PairingGenerator.GroupScoring scoring : PairingGenerator.GroupScoring.values()) {
+            PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(), 4);
+            long start = System.nanoTime();
+
+            int[][] schedule = gen.generateGroupSchedule(60, 400, 4, history, scoring);
+
+            assertEquals(400, schedule.length);
+            assertTrue(System.nanoTime() - start < 10_000_000_000L, scoring + " should not wait for the timeout");
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop the pair search early once every partner has been met")
+    void testBacktrackPairsStopWithoutPerfectMatching() {
+        // 40 players have met every partner after 39 rounds, later rounds have no repeat-free matching
+        PairingGenerator gen = new PairingGenerator(PairingGenerator.Strategy.BACKTRACK_RANDOM, 5L, 200, 10_000);
+        List<String> players = new ArrayList<>();
+        for (int i = 0; i < 40; i++) players.add("P" + i);
+        long start = System.nanoTime();
+
+        List<List<PairingGenerator.Pair>> schedule = gen.generate(players, 120);
+
+        assertEquals(120, schedule.size());
+        assertTrue(System.nanoTime() - start < 10_000_000_000L, "should not wait for the timeout");
+    }
+
+    @Test
+    @DisplayName("Should not anneal for an objective without weighted terms")
+    void testEmptyObjectiveSkipsAnnealing() {
+        ScheduleObjective empty = ScheduleObjective.builder()
+                .add(ScheduleObjective.partnerRepeats(), 0)
+                .build();
+        PairingGenerator gen = new PairingGenerator(PairingGenerator.Strategy.ANNEALING, 5L, 20, 20, 10_000)
+                .withObjective(empty);
+        PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(), 4);
+        long start = System.nanoTime();
+
+        int[][] schedule = gen.generateGroupSchedule(12, 10, 4, history, PairingGenerator.GroupScoring.PAIR_OVERLAP);
+
+        assertEquals(10, schedule.length);
+        assertTrue(System.nanoTime() - start < 5_000_000_000L, "should not anneal for the annealing time");
+    }
+
+    @Test
+    @DisplayName("Should space appearances out against the last round of a continued schedule")
+    void testSpacingContinuesAfterPreviousRound() {
+        ScheduleObjective spacing = ScheduleObjective.builder()
+                .add(ScheduleObjective.appearanceSpacing(), 1)
+                .build();
+        PairingGenerator gen = new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 5L, 20, 20, 200)
+                .withObjective(spacing);
+        PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(), 4);
+        int[] previous = {0, 1, 2, 3};
+        history.recordPairing(new int[]{4, 5, 6, 7});
+        history.recordPairing(previous);
+
+        // the pair overlap prefers mixed groups, only the spacing against the previous round keeps 0-3 out
+        int[][] schedule = gen.generateGroupSchedule(8, 1, 4, history, PairingGenerator.GroupScoring.PAIR_OVERLAP,
+                previous);
+
+        assertArrayEquals(new int[]{4, 5, 6, 7}, schedule[0]);
+    }
+
+    @Test
+    @DisplayName("Should keep appearances within one of each other over a long schedule")
+    void testBalancedAppearances() {
+        List<Player> roster = new ArrayList<>();
+        for (int i = 0; i < 10; i++) roster.add(new Player("id-" + i, "P" + i));
+        for (PairingGenerator.Strategy strategy : List.of(PairingGenerator.Strategy.GREEDY_SHUFFLE,
+                PairingGenerator.Strategy.BACKTRACK_RANDOM)) {
+            PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(roster), 4);
+            PairingGenerator gen = new PairingGenerator(strategy, 5L, 50, 20);
+
+            int[] counts = new int[10];
+            int[][] schedule = gen.generateGroupSchedule(10, 30, 4, history, PairingGenerator.GroupScoring.PAIR_OVERLAP);
+            for (int r = 0; r < schedule.length; r++) {
+                for (int index : schedule[r]) counts[index]++;
+                int min = Arrays.stream(counts).min().orElse(0);
+                int max = Arrays.stream(counts).max().orElse(0);
+                assertTrue(max - min <= 1, strategy + ": appearances drift apart after round " + (r + 1));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should take the least-played players and choose the rest of the tier by score")
+    void testSelectBalancedGroup() {
+        PairingGenerator gen = new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 1L, 200, 200);
+        int[] playCounts = {2, 1, 2, 2, 1, 2, 3};
+        // players 1 and 4 are below the tier and must play; the tier (count 2) prefers player 5
+        PairingGenerator.GroupScorer scorer = (group, size) -> {
+            int score = 0;
+            for (int i = 0; i < size; i++) score += group[i] == 5 ? 0 : 1;
+            return score;
+        };
+
+        int[] group = gen.selectBalancedGroup(playCounts, 3, scorer);
+
+        Arrays.sort(group);
+        assertArrayEquals(new int[]{1, 4, 5}, group);
+    }
 }
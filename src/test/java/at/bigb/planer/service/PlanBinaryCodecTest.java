@@ -0,0 +1,147 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.Player;
+import at.bigb.planer.domain.Round;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PlanBinaryCodec
+ */
+@DisplayName("PlanBinaryCodec Tests")
+class PlanBinaryCodecTest {
+
+    @Test
+    @DisplayName("Should restore an encoded plan")
+    void testRoundTrip() throws IOException {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            players.add(new Player(UUID.randomUUID().toString(), "Player " + i + (i == 7 ? " äöü €" : "")));
+        }
+        Plan plan = Plan.create(players, 3);
+        plan.setRounds(Arrays.asList(
+                new Round(1, LocalDate.of(2024, 1, 15), List.of(players.get(0), players.get(7), players.get(150), players.get(199))),
+                new Round(2, null, List.of(players.get(1), players.get(2), players.get(3), players.get(4))),
+                new Round(3, LocalDate.of(2023, 12, 31), List.of(players.get(5), players.get(6), players.get(7), players.get(8)))));
+
+        Plan decoded = decode(encode(plan));
+
+        assertEquals(plan, decoded);
+    }
+
+    @Test
+    @DisplayName("Should keep missing values and players that are only part of a round")
+    void testMissingValues() throws IOException {
+        Player outsider = new Player("x", null);
+        Plan plan = new Plan(null, List.of(new Player("a", "Anna")), List.of(
+                new Round(1, LocalDate.of(2024, 1, 15), List.of(outsider))), 1, null);
+
+        Plan decoded = decode(encode(plan));
+
+        assertNull(decoded.getId());
+        assertNull(decoded.getCreatedAt());
+        assertEquals(List.of(new Player("a", "Anna"), outsider), decoded.getPlayers());
+        assertEquals(outsider, decoded.getRounds().get(0).getSelectedPlayers().get(0));
+    }
+
+    @Test
+    @DisplayName("Should be much smaller than the players repeated in every round")
+    void testCompactness() throws IOException {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 20; i++) players.add(new Player(UUID.randomUUID().toString(), "Player " + i));
+        Plan plan = Plan.create(players, 1000);
+        List<Round> rounds = new ArrayList<>();
+        for (int r = 0; r < 1000; r++) {
+            rounds.add(new Round(r + 1, LocalDate.of(2024, 1, 1).plusWeeks(r),
+                    List.of(players.get(r % 20), players.get((r + 3) % 20), players.get((r + 7) % 20), players.get((r + 11) % 20))));
+        }
+        plan.setRounds(rounds);
+        plan.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        byte[] encoded = encode(plan);
+
+        // a round takes roundNo (1-2 bytes), date delta (1), group size (1) and four indices (1 each)
+        assertTrue(encoded.length < 20 * 60 + 1000 * 9, "encoded size " + encoded.length);
+        assertEquals(plan, decode(encoded));
+    }
+
+    @Test
+    @DisplayName("Should reject data that is not a binary plan or is truncated")
+    void testInvalidData() throws IOException {
+        assertThrows(IOException.class, () -> decode(new byte[]{'{', '"'}));
+        byte[] encoded = encode(Plan.create(List.of(new Player("a", "Anna")), 0));
+        assertThrows(IOException.class, () -> decode(Arrays.copyOf(encoded, encoded.length - 2)));
+        byte[] wrongVersion = encoded.clone();
+        wrongVersion[2] = 99;
+        assertThrows(IOException.class, () -> decode(wrongVersion));
+    }
+
+    @Test
+    @DisplayName("Should reject dates and times out of range")
+    void testCorruptDateTime() {
+        byte[] huge = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x3F};
+        // magic, version, no id, then the creation day
+        byte[] header = {'B', 'P', 1, 0};
+
+        IOException badDay = assertThrows(IOException.class, () -> decode(concat(header, huge)));
+        IOException badTime = assertThrows(IOException.class, () -> decode(concat(header, new byte[]{1}, huge)));
+        // day 0, no rounds planned, no players, one round no. 1 with a date far out of range
+        IOException badRoundDate = assertThrows(IOException.class,
+                () -> decode(concat(header, new byte[]{1, 0, 0, 0, 1, 1}, huge)));
+
+        assertTrue(badDay.getMessage().contains("Date"));
+        assertTrue(badTime.getMessage().contains("Time"));
+        assertTrue(badRoundDate.getMessage().contains("Date"));
+    }
+
+    @Test
+    @DisplayName("Should reject counts and strings above the limits before reading them")
+    void testLimits() {
+        // magic, version, no id, no creation date, no rounds planned
+        byte[] header = {'B', 'P', 1, 0, 0, 0};
+
+        IOException players = assertThrows(IOException.class,
+                () -> decode(concat(header, new byte[]{(byte) 0x88, 0x27}))); // 5000 players
+        IOException rounds = assertThrows(IOException.class,
+                () -> decode(concat(header, new byte[]{0, (byte) 0xC0, (byte) 0x9A, 0x0C}))); // 200000 rounds
+        // no players, one round no. 1 without a date and with one player
+        IOException groupSize = assertThrows(IOException.class,
+                () -> decode(concat(header, new byte[]{0, 1, 1, 0, 1})));
+        IOException string = assertThrows(IOException.class,
+                () -> decode(new byte[]{'B', 'P', 1, (byte) 0xD0, 0x0F})); // an id of 1999 bytes
+
+        assertTrue(players.getMessage().contains("players"), players.getMessage());
+        assertTrue(rounds.getMessage().contains("rounds"), rounds.getMessage());
+        assertTrue(groupSize.getMessage().contains("players in round 1"), groupSize.getMessage());
+        assertTrue(string.getMessage().contains("1999 bytes"), string.getMessage());
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) out.writeBytes(part);
+        return out.toByteArray();
+    }
+
+    private static byte[] encode(Plan plan) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PlanBinaryCodec.write(plan, out);
+        return out.toByteArray();
+    }
+
+    private static Plan decode(byte[] bytes) throws IOException {
+        return PlanBinaryCodec.read(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,50 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.Player;
+import at.bigb.planer.domain.Round;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PlanCsvExporter
+ */
+@DisplayName("PlanCsvExporter Tests")
+class PlanCsvExporterTest {
+
+    @Test
+    @DisplayName("Should write one player column per player of a round and escape names")
+    void testWrite() throws IOException {
+        List<Player> players = List.of(new Player("1", "Anna"), new Player("2", "Ben, jr."),
+                new Player("3", "Chris \"CJ\""), new Player("4", "Dora"));
+        Plan plan = Plan.create(players, 2);
+        plan.setRounds(List.of(
+                new Round(1, LocalDate.of(2024, 1, 15), List.of(players.get(0), players.get(1), players.get(2))),
+                new Round(2, LocalDate.of(2024, 1, 22), List.of(players.get(0), players.get(2), players.get(3)))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PlanCsvExporter.write(plan, out);
+
+        assertEquals("RoundNo,Date,Player1,Player2,Player3\n"
+                        + "1,2024-01-15,Anna,\"Ben, jr.\",\"Chris \"\"CJ\"\"\"\n"
+                        + "2,2024-01-22,Anna,\"Chris \"\"CJ\"\"\",Dora",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should write only the header for a plan without rounds")
+    void testWriteEmptyPlan() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PlanCsvExporter.write(Plan.create(List.of(), 0), out);
+
+        assertEquals("RoundNo,Date", out.toString(StandardCharsets.UTF_8));
+    }
+}
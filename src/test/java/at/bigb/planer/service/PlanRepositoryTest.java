@@ -0,0 +1,88 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.Player;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PlanRepository
+ */
+@DisplayName("PlanRepository Tests")
+class PlanRepositoryTest {
+
+    @Test
+    @DisplayName("Should evict the least recently used plan when full")
+    void testLruEviction() {
+        PlanRepository repository = new PlanRepository(2, Duration.ofHours(1));
+        PlanContext first = context();
+        PlanContext second = context();
+        PlanContext third = context();
+        repository.save(first);
+        repository.save(second);
+
+        assertSame(first, repository.find(first.getPlanId())); // first is now more recently used than second
+        repository.save(third);
+
+        assertSame(first, repository.find(first.getPlanId()));
+        assertNull(repository.find(second.getPlanId()));
+        assertSame(third, repository.find(third.getPlanId()));
+        assertEquals(2, repository.size());
+    }
+
+    @Test
+    @DisplayName("Should drop plans after their time-to-live")
+    void testTtlEviction() {
+        MutableClock clock = new MutableClock();
+        PlanRepository repository = new PlanRepository(10, Duration.ofMinutes(5), clock);
+        PlanContext old = context();
+        repository.save(old);
+        clock.advance(Duration.ofMinutes(3));
+        PlanContext fresh = context();
+        repository.save(fresh);
+
+        clock.advance(Duration.ofMinutes(3));
+
+        assertNull(repository.find(old.getPlanId()));
+        assertSame(fresh, repository.find(fresh.getPlanId()));
+        assertEquals(1, repository.size());
+        assertNull(repository.find(null));
+    }
+
+    private static PlanContext context() {
+        List<Player> players = List.of(new Player("1", "A"), new Player("2", "B"));
+        return new PlanContext(Plan.create(players, 0), players, new int[0][], new PairingAnalyzer(new PlayerRegistry(players), 2));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
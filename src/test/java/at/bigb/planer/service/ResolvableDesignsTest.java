@@ -0,0 +1,67 @@
+package at.bigb.planer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResolvableDesigns
+ */
+@DisplayName("ResolvableDesigns Tests")
+class ResolvableDesignsTest {
+
+    @Test
+    @DisplayName("Should build round-robins in which every pair meets exactly once")
+    void testRoundRobin() {
+        for (int n : new int[]{2, 4, 7, 10, 31}) {
+            int[][][] days = ResolvableDesigns.find(n, 2);
+            assertEquals(n % 2 == 0 ? n - 1 : n, days.length);
+            assertPairsOnce(days, n, 2);
+        }
+    }
+
+    @Test
+    @DisplayName("Should build affine planes for prime and prime power group sizes")
+    void testAffinePlane() {
+        for (int q : new int[]{3, 4, 5, 7, 8, 9}) {
+            int[][][] days = ResolvableDesigns.find(q * q, q);
+            assertNotNull(days, "No design for q=" + q);
+            assertEquals(q + 1, days.length);
+            assertPairsOnce(days, q * q, q);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return null for sizes without a known construction")
+    void testUnknownSizes() {
+        assertNull(ResolvableDesigns.find(10, 4));
+        assertNull(ResolvableDesigns.find(36, 6));
+        assertNull(ResolvableDesigns.find(12, 3));
+    }
+
+    private void assertPairsOnce(int[][][] days, int n, int k) {
+        int[][] met = new int[n][n];
+        for (int[][] day : days) {
+            boolean[] seen = new boolean[n];
+            for (int[] group : day) {
+                assertEquals(k, group.length);
+                for (int a : group) {
+                    assertFalse(seen[a], "Player " + a + " twice on one day");
+                    seen[a] = true;
+                }
+                for (int i = 0; i < k; i++) {
+                    for (int j = i + 1; j < k; j++) {
+                        met[group[i]][group[j]]++;
+                        met[group[j]][group[i]]++;
+                    }
+                }
+            }
+        }
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                assertEquals(1, met[a][b], "Pair " + a + "-" + b + " for n=" + n + ", k=" + k);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Player;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScheduleAnnealer and the ANNEALING strategy
+ */
+@DisplayName("ScheduleAnnealer Tests")
+class ScheduleAnnealerTest {
+
+    @Test
+    @DisplayName("Should return valid groups that are not worse than the constructed schedule")
+    void testImprove() {
+        int playerCount = 9;
+        int k = 3;
+        PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(createPlayers(playerCount)), k);
+        // a poor start: the same three groups over and over
+        int[][] schedule = new int[12][];
+        for (int r = 0; r < schedule.length; r++) {
+            int base = (r % 3) * 3;
+            schedule[r] = new int[]{base, base + 1, base + 2};
+            history.recordPairing(schedule[r]);
+        }
+        long before = history.getRepeatScore();
+
+        int[][] improved = new ScheduleAnnealer(new Random(7))
+                .improve(schedule, playerCount, history, System.nanoTime() + 100_000_000L);
+
+        assertEquals(before, history.getRepeatScore(), "The history must not be modified");
+        PairingAnalyzer rescored = new PairingAnalyzer(new PlayerRegistry(createPlayers(playerCount)), k);
+        for (int[] group : improved) {
+            assertEquals(k, group.length);
+            assertEquals(k, Arrays.stream(group).distinct().count(), "No player twice in a group");
+            assertTrue(Arrays.stream(group).allMatch(p -> p >= 0 && p < playerCount));
+            rescored.recordPairing(group);
+        }
+        assertTrue(rescored.getRepeatScore() < before,
+                "Expected an improvement over " + before + " but got " + rescored.getRepeatScore());
+    }
+
+    @Test
+    @DisplayName("Should report new best scores while annealing and stop when a heartbeat throws")
+    void testImprove_Listener() {
+        int playerCount = 9;
+        PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(createPlayers(playerCount)), 3);
+        int[][] schedule = new int[12][];
+        for (int r = 0; r < schedule.length; r++) {
+            int base = (r % 3) * 3;
+            schedule[r] = new int[]{base, base + 1, base + 2};
+            history.recordPairing(schedule[r]);
+        }
+        List<Long> scores = new ArrayList<>();
+        ScheduleProgressListener listener = new ScheduleProgressListener() {
+            @Override
+            public void bestScore(long score) {
+                scores.add(score);
+            }
+        };
+
+        new ScheduleAnnealer(new Random(7)).improve(schedule, playerCount, history, System.nanoTime() + 600_000_000L,
+                listener);
+
+        assertFalse(scores.isEmpty(), "Expected best scores before the deadline");
+        assertTrue(scores.get(0) < history.getRepeatScore());
+
+        ScheduleProgressListener cancelling = new ScheduleProgressListener() {
+            @Override
+            public void heartbeat() {
+                throw new IllegalStateException("cancelled");
+            }
+        };
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> new ScheduleAnnealer(new Random(7))
+                .improve(schedule, playerCount, history, start + 60_000_000_000L, cancelling));
+        assertTrue(System.nanoTime() - start < 10_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should keep the analyzer in line with the annealed schedule")
+    void testAnnealingStrategy() {
+        int playerCount = 10;
+        PairingGenerator generator = new PairingGenerator(PairingGenerator.Strategy.ANNEALING, 3L, 50, 100, 50);
+        PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(createPlayers(playerCount)), 4);
+
+        int[][] schedule = generator.generateGroupSchedule(playerCount, 20, 4, history,
+                PairingGenerator.GroupScoring.PAIR_OVERLAP);
+
+        PairingAnalyzer rescored = new PairingAnalyzer(new PlayerRegistry(createPlayers(playerCount)), 4);
+        for (int[] group : schedule) rescored.recordPairing(group);
+        assertEquals(20, schedule.length);
+        assertEquals(rescored.getRepeatScore(), history.getRepeatScore());
+        assertEquals(rescored.getStatistics(), history.getStatistics());
+    }
+
+    private List<Player> createPlayers(int count) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            players.add(new Player(UUID.randomUUID().toString(), "Player " + i));
+        }
+        return players;
+    }
+}
@@ -0,0 +1,70 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.ScheduleConfig;
+import io.quarkus.test.junit.QuarkusTest;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScheduleBatchService
+ */
+@QuarkusTest
+@DisplayName("ScheduleBatchService Tests")
+class ScheduleBatchServiceTest {
+
+    @Test
+    @DisplayName("Should reject a batch that does not fit into the queue")
+    void testSubmit_QueueFull() {
+        // annealing for half a second keeps the single worker busy
+        ScheduleGenerationService slowService = new ScheduleGenerationService(
+                new PairingGenerator(PairingGenerator.Strategy.ANNEALING, 1L, 10, 10, 500),
+                PairingGenerator.GroupScoring.PAIR_OVERLAP);
+        ScheduleBatchService batchService = new ScheduleBatchService(slowService, 1, 2, 1);
+
+        List<CompletableFuture<Plan>> accepted = batchService.submit(List.of(config(3), config(4)));
+
+        assertThrows(RejectedExecutionException.class, () -> batchService.submit(List.of(config(5), config(6))));
+        assertThrows(IllegalArgumentException.class, () -> batchService.submit(List.of(config(3), config(3), config(3))));
+        assertEquals(3, accepted.get(0).join().getRounds().size());
+        assertEquals(4, accepted.get(1).join().getRounds().size());
+    }
+
+    @Test
+    @DisplayName("Should store batch items without replacing the last generated plan")
+    void testSubmit_KeepsLastPlan() {
+        ScheduleGenerationService scheduleService = new ScheduleGenerationService(ConfigProvider.getConfig());
+        ScheduleBatchService batchService = new ScheduleBatchService(scheduleService, 1, 2, 1);
+        Plan single = scheduleService.generateSchedule(config(3));
+
+        Plan item = batchService.submit(List.of(config(4))).get(0).join();
+
+        assertSame(single, scheduleService.getLastGeneratedPlan());
+        assertSame(item, scheduleService.getPlanContext(item.getId()).getPlan());
+        batchService.close();
+    }
+
+    @Test
+    @DisplayName("Should reject batches once closed")
+    void testClose() {
+        ScheduleBatchService batchService = new ScheduleBatchService(new ScheduleGenerationService(ConfigProvider.getConfig()), 1, 2, 1);
+
+        batchService.close();
+
+        assertThrows(RejectedExecutionException.class, () -> batchService.submit(List.of(config(3))));
+    }
+
+    private static ScheduleConfig config(int rounds) {
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) names.add("Player " + i);
+        return new ScheduleConfig(names, rounds, 4);
+    }
+}
@@ -1,17 +1,28 @@
 package at.bigb.planer.service;
 
+import at.bigb.planer.domain.ObjectiveWeights;
 import at.bigb.planer.domain.Plan;
 import at.bigb.planer.domain.Player;
 import at.bigb.planer.domain.Round;
 import at.bigb.planer.domain.ScheduleConfig;
 import io.quarkus.test.junit.QuarkusTest;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,7 +40,7 @@ class ScheduleGenerationServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new ScheduleGenerationService();
+        service = new ScheduleGenerationService(ConfigProvider.getConfig());
         testPlayerNames = Arrays.asList(
                 "Alice", "Bob", "Charlie", "David",
                 "Eve", "Frank", "Grace", "Henry",
@@ -225,5 +236,346 @@ class ScheduleGenerationServiceTest {
         assertEquals(3, plan1.getRounds().size());
         assertEquals(3, plan2.getRounds().size());
     }
-}
 
+    @Test
+    @DisplayName("Should support group sizes other than 4")
+    void testGenerateSchedule_OtherGroupSizes() {
+        for (int groupSize : new int[]{2, 6}) {
+            ScheduleConfig config = new ScheduleConfig(testPlayerNames, 6, groupSize);
+
+            Plan plan = service.generateSchedule(config);
+
+            assertTrue(plan.getRounds().stream().allMatch(r -> r.getSelectedPlayers().size() == groupSize));
+            assertEquals(6, service.getPairingStatistics().get("totalPairingRecords"),
+                    "Every round should be recorded for group size " + groupSize);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand every round to the consumer in order while generating")
+    void testStreamSchedule() {
+        ScheduleConfig config = new ScheduleConfig(testPlayerNames, 12, 4);
+        List<Round> streamed = new ArrayList<>();
+        Set<String> planIds = new HashSet<>();
+
+        Plan plan = service.streamSchedule(config, (planId, round) -> {
+            planIds.add(planId);
+            streamed.add(round);
+        });
+
+        assertEquals(Set.of(plan.getId()), planIds, "Every round should carry the id of its plan");
+        assertNotNull(service.getPlanContext(plan.getId()), "The streamed plan should be stored");
+        assertEquals(12, streamed.size());
+        for (int i = 0; i < streamed.size(); i++) {
+            Round expected = plan.getRounds().get(i);
+            assertEquals(i + 1, streamed.get(i).getRoundNo());
+            assertEquals(expected.getRoundDate(), streamed.get(i).getRoundDate());
+            assertEquals(expected.getSelectedPlayers(), streamed.get(i).getSelectedPlayers());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep concurrently generated plans apart")
+    void testGenerateSchedule_Concurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Plan>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int rounds = 5 + i;
+                futures.add(executor.submit(() -> service.generateSchedule(new ScheduleConfig(testPlayerNames, rounds, 4))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Plan plan = futures.get(i).get();
+                PlanContext context = service.getPlanContext(plan.getId());
+                assertSame(plan, context.getPlan());
+                assertEquals(5 + i, service.getPairingStatistics(context).get("totalPairingRecords"));
+                assertEquals(4 * (5 + i), service.getPlayerUsageStatistics(context).values().stream()
+                        .mapToInt(Integer::intValue).sum());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Seeded service with result cache should answer identical requests from the cache")
+    void testResultCache() {
+        PairingGenerator generator = new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 42L, 50, 200);
+        ScheduleGenerationService cachingService = new ScheduleGenerationService(generator,
+                PairingGenerator.GroupScoring.PAIR_OVERLAP, null, new PlanRepository(10, Duration.ofHours(1)),
+                new ScheduleResultCache(10));
+        ScheduleConfig config = new ScheduleConfig(testPlayerNames, 8, 4);
+        List<String> reversed = new ArrayList<>(testPlayerNames);
+        Collections.reverse(reversed);
+
+        Plan first = cachingService.generateSchedule(config);
+        Plan second = cachingService.generateSchedule(new ScheduleConfig(reversed, 8, 4));
+        Plan other = cachingService.generateSchedule(new ScheduleConfig(testPlayerNames, 9, 4));
+
+        assertEquals(1, cachingService.getResultCache().getHits());
+        assertEquals(2, cachingService.getResultCache().getMisses());
+        assertEquals(first.getRounds().size(), second.getRounds().size());
+        for (int i = 0; i < first.getRounds().size(); i++) {
+            assertEquals(first.getRounds().get(i).getSelectedPlayers(), second.getRounds().get(i).getSelectedPlayers());
+        }
+        assertNotEquals(first.getId(), second.getId(), "A cache hit should be a plan of its own");
+        assertNotEquals(first.getId(), other.getId());
+        assertSame(first, cachingService.getPlanContext(first.getId()).getPlan());
+        assertSame(second, cachingService.getPlanContext(second.getId()).getPlan());
+        assertEquals(LocalDate.now(), second.getRounds().get(0).getRoundDate(),
+                "A cache hit should be dated from the day of the request");
+        assertThrows(IllegalArgumentException.class,
+                () -> cachingService.generateSchedule(new ScheduleConfig(testPlayerNames, 0, 4)));
+    }
+
+    @Test
+    @DisplayName("A cache hit should report the final progress and score to the listener")
+    void testResultCache_HitReportsProgress() {
+        ScheduleGenerationService cachingService = new ScheduleGenerationService(
+                new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 42L, 50, 200),
+                PairingGenerator.GroupScoring.PAIR_OVERLAP, null, new PlanRepository(10, Duration.ofHours(1)),
+                new ScheduleResultCache(10));
+        ScheduleConfig config = new ScheduleConfig(testPlayerNames, 8, 4);
+        List<Long> scores = new ArrayList<>();
+        cachingService.generateSchedule(config, new ScheduleProgressListener() {
+            @Override
+            public void bestScore(long score) {
+                scores.add(score);
+            }
+        });
+        int[] progress = new int[2];
+
+        cachingService.generateSchedule(config, new ScheduleProgressListener() {
+            @Override
+            public void progress(int done, int total) {
+                progress[0] = done;
+                progress[1] = total;
+            }
+
+            @Override
+            public void bestScore(long score) {
+                scores.add(score);
+            }
+        });
+
+        assertEquals(1, cachingService.getResultCache().getHits());
+        assertArrayEquals(new int[]{8, 8}, progress);
+        assertEquals(2, scores.size());
+        assertEquals(scores.get(0), scores.get(1));
+    }
+
+    @Test
+    @DisplayName("A multi-start search should bypass the result cache")
+    void testResultCache_BypassedByMultiStart() {
+        PairingGenerator generator = new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 42L, 50, 200);
+        ScheduleGenerationService multiStartService = new ScheduleGenerationService(generator,
+                PairingGenerator.GroupScoring.PAIR_OVERLAP, new MultiStartScheduleSearch(generator, 2, 500, 1),
+                new PlanRepository(10, Duration.ofHours(1)), new ScheduleResultCache(10));
+        ScheduleConfig config = new ScheduleConfig(testPlayerNames, 8, 4);
+
+        Plan first = multiStartService.generateSchedule(config);
+        Plan second = multiStartService.generateSchedule(config);
+
+        assertNotSame(first, second);
+        assertEquals(0, multiStartService.getResultCache().getHits() + multiStartService.getResultCache().getMisses());
+    }
+
+    @Test
+    @DisplayName("Time-bounded searches should bypass the result cache")
+    void testResultCache_BypassedByTimeBoundedSearch() {
+        ScheduleGenerationService annealingService = new ScheduleGenerationService(
+                new PairingGenerator(PairingGenerator.Strategy.ANNEALING, 42L, 50, 200, 20),
+                PairingGenerator.GroupScoring.PAIR_OVERLAP, null, new PlanRepository(10, Duration.ofHours(1)),
+                new ScheduleResultCache(10));
+        ScheduleGenerationService greedyService = new ScheduleGenerationService(
+                new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 42L, 50, 200, 20),
+                PairingGenerator.GroupScoring.PAIR_OVERLAP, null, new PlanRepository(10, Duration.ofHours(1)),
+                new ScheduleResultCache(10));
+        ScheduleConfig config = new ScheduleConfig(testPlayerNames, 8, 4);
+        ScheduleConfig spaced = new ScheduleConfig(testPlayerNames, 8, 4, new ObjectiveWeights(1, 1, 1, 0, null));
+
+        annealingService.generateSchedule(config);
+        annealingService.generateSchedule(config);
+        greedyService.generateSchedule(spaced);
+        greedyService.generateSchedule(spaced);
+        greedyService.generateSchedule(config);
+
+        assertEquals(0, annealingService.getResultCache().getHits() + annealingService.getResultCache().getMisses());
+        assertEquals(0, greedyService.getResultCache().getHits());
+        assertEquals(1, greedyService.getResultCache().getMisses(), "only the request without an objective is cached");
+    }
+
+    @Test
+    @DisplayName("Unseeded default service should not cache results")
+    void testNoCacheWithoutSeed() {
+        assertNull(service.getResultCache());
+    }
+
+    @Test
+    @DisplayName("Extending a plan should keep its rounds and continue its pairing history")
+    void testExtendPlan() {
+        Plan plan = service.generateSchedule(new ScheduleConfig(testPlayerNames, 6, 4));
+        PlanContext base = service.getPlanContext(plan.getId());
+
+        Plan extended = service.extendPlan(base, 4);
+
+        assertNotEquals(plan.getId(), extended.getId());
+        assertEquals(10, extended.getRounds().size());
+        assertEquals(plan.getRounds(), extended.getRounds().subList(0, 6));
+        assertEquals(7, extended.getRounds().get(6).getRoundNo());
+        assertEquals(plan.getRounds().get(5).getRoundDate().plusDays(7), extended.getRounds().get(6).getRoundDate());
+        assertEquals(6, base.getStatistics().get("totalPairingRecords"), "the original plan stays unchanged");
+        PlanContext extendedContext = service.getPlanContext(extended.getId());
+        assertEquals(10, extendedContext.getStatistics().get("totalPairingRecords"));
+        assertEquals(40, extendedContext.getPlayerUsage().values().stream().mapToInt(Integer::intValue).sum());
+        assertThrows(IllegalArgumentException.class, () -> service.extendPlan(base, 0));
+    }
+
+    @Test
+    @DisplayName("Extending uploaded rounds should build the history from the rounds")
+    void testExtendRounds() {
+        Plan plan = service.generateSchedule(new ScheduleConfig(testPlayerNames, 3, 4));
+        List<String> names = new ArrayList<>(testPlayerNames);
+        names.add("Newcomer");
+
+        Plan extended = service.extendRounds(plan.getRounds(), names, 20);
+
+        assertEquals(23, extended.getRounds().size());
+        assertEquals(11, extended.getPlayers().size());
+        assertTrue(extended.getRounds().stream().skip(3)
+                .anyMatch(round -> round.getSelectedPlayers().stream().anyMatch(p -> p.getName().equals("Newcomer"))));
+        Round invalid = new Round(1, null, plan.getPlayers().subList(0, 3));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.extendRounds(List.of(plan.getRounds().get(0), invalid), null, 2));
+        assertThrows(IllegalArgumentException.class, () -> service.extendRounds(List.of(), null, 2));
+    }
+
+    @Test
+    @DisplayName("Repairing a plan should only change the rounds of the date range")
+    void testRepairPlan() {
+        Plan plan = service.generateSchedule(new ScheduleConfig(testPlayerNames, 20, 4));
+        PlanContext base = service.getPlanContext(plan.getId());
+        List<Round> original = plan.getRounds();
+        LocalDate from = original.get(11).getRoundDate();
+        LocalDate to = original.get(14).getRoundDate();
+
+        Plan repaired = service.repairPlan(base, from, to, List.of("Alice", "Bob"), List.of("Newcomer"));
+
+        assertEquals(20, repaired.getRounds().size());
+        assertEquals(original.subList(0, 11), repaired.getRounds().subList(0, 11));
+        assertEquals(original.subList(15, 20), repaired.getRounds().subList(15, 20));
+        for (Round round : repaired.getRounds().subList(11, 15)) {
+            assertTrue(round.getSelectedPlayers().stream()
+                    .noneMatch(p -> p.getName().equals("Alice") || p.getName().equals("Bob")));
+        }
+        assertEquals(11, repaired.getPlayers().size());
+        assertEquals(20, service.getPlanContext(repaired.getId()).getStatistics().get("totalPairingRecords"));
+        assertEquals(plan.getRounds(), original, "the original plan stays unchanged");
+        assertThrows(IllegalArgumentException.class, () -> service.repairPlan(base, from, to, List.of("Nobody"), null));
+        assertThrows(IllegalArgumentException.class, () -> service.repairPlan(base, to, from, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.repairPlan(base, from, to, testPlayerNames.subList(0, 8), null));
+    }
+
+    @Test
+    @DisplayName("Repaired rounds should even out the appearances of the whole plan")
+    void testRepairPlan_BalancesAppearances() {
+        Plan plan = service.generateSchedule(new ScheduleConfig(testPlayerNames, 20, 4));
+        List<Round> original = plan.getRounds();
+        LocalDate firstHalfEnd = original.get(9).getRoundDate();
+        // Alice and Bob miss the first half, so they have far fewer appearances than the others
+        Plan absent = service.repairPlan(service.getPlanContext(plan.getId()), original.get(0).getRoundDate(),
+                firstHalfEnd, List.of("Alice", "Bob"), null);
+
+        Plan repaired = service.repairPlan(service.getPlanContext(absent.getId()), original.get(10).getRoundDate(),
+                original.get(19).getRoundDate(), null, null);
+
+        Map<String, Object> stats = service.getPairingStatistics(service.getPlanContext(repaired.getId()));
+        int minAppearances = (Integer) stats.get("minAppearances");
+        int maxAppearances = (Integer) stats.get("maxAppearances");
+        assertTrue(maxAppearances - minAppearances <= 1,
+                "80 appearances of 10 players should spread evenly, was " + minAppearances + ".." + maxAppearances);
+    }
+
+    @Test
+    @DisplayName("Added players should be balanced like the least-played player, not fill every repaired round")
+    void testRepairPlan_AddedPlayerBalanced() {
+        Plan plan = service.generateSchedule(new ScheduleConfig(testPlayerNames, 20, 4));
+        List<Round> original = plan.getRounds();
+
+        Plan repaired = service.repairPlan(service.getPlanContext(plan.getId()), original.get(16).getRoundDate(),
+                original.get(19).getRoundDate(), null, List.of("Newcomer"));
+
+        long newcomerRounds = repaired.getRounds().subList(16, 20).stream()
+                .filter(round -> round.getSelectedPlayers().stream().anyMatch(p -> p.getName().equals("Newcomer")))
+                .count();
+        assertTrue(newcomerRounds < 4, "The newcomer should not be forced into all 4 repaired rounds");
+    }
+
+    @Test
+    @DisplayName("Extending a plan should keep minimizing the plan's objective")
+    void testExtendPlan_KeepsObjective() {
+        ObjectiveWeights weights = new ObjectiveWeights(1, 1, 0, 100, List.of(List.of("Alice", "Bob"), List.of("Eve", "Frank")));
+        Plan plan = service.generateSchedule(new ScheduleConfig(testPlayerNames.subList(0, 8), 4, 4, weights));
+        PlanContext base = service.getPlanContext(plan.getId());
+
+        Plan extended = service.extendPlan(base, 8);
+
+        assertSame(base.getObjective(), service.getPlanContext(extended.getId()).getObjective());
+        for (Round round : extended.getRounds().subList(4, 12)) {
+            List<String> names = round.getSelectedPlayers().stream().map(Player::getName).toList();
+            assertFalse(names.containsAll(List.of("Alice", "Bob")), "Alice and Bob share round " + round.getRoundNo());
+            assertFalse(names.containsAll(List.of("Eve", "Frank")), "Eve and Frank share round " + round.getRoundNo());
+        }
+    }
+
+    @Test
+    @DisplayName("Extending a plan should space appearances out against its last round")
+    void testExtendPlan_SpacesAfterLastRound() {
+        ObjectiveWeights weights = new ObjectiveWeights(0, 1, 100, 0, null);
+        Plan plan = service.generateSchedule(new ScheduleConfig(testPlayerNames.subList(0, 8), 4, 4, weights));
+
+        Plan extended = service.extendPlan(service.getPlanContext(plan.getId()), 1);
+
+        List<Player> lastRound = extended.getRounds().get(3).getSelectedPlayers();
+        List<Player> nextRound = extended.getRounds().get(4).getSelectedPlayers();
+        assertTrue(Collections.disjoint(lastRound, nextRound), "players of round 4 play again in round 5");
+    }
+
+    @Test
+    @DisplayName("Statistics should include fairness metrics of the plan")
+    @SuppressWarnings("unchecked")
+    void testFairnessStatistics() {
+        Plan plan = service.generateSchedule(new ScheduleConfig(Arrays.asList("A", "B", "C", "D", "E"), 5, 4));
+        PlanContext context = service.getPlanContext(plan.getId());
+
+        Map<String, Object> stats = service.getPairingStatistics(context);
+        List<Integer> histogram = (List<Integer>) stats.get("pairRepeatHistogram");
+        int minAppearances = (Integer) stats.get("minAppearances");
+        int maxAppearances = (Integer) stats.get("maxAppearances");
+        assertTrue(minAppearances <= 4 && maxAppearances >= 4, "20 appearances of 5 players average to 4");
+        assertEquals(minAppearances == maxAppearances, (Double) stats.get("appearanceStdDev") == 0.0);
+        assertEquals(10, histogram.stream().mapToInt(Integer::intValue).sum(), "every one of the 10 pairs is counted");
+        assertEquals((10 - histogram.get(0)) * 10.0, (Double) stats.get("pairCoverage"), 1e-9);
+        assertTrue((Integer) stats.get("maxAppearanceGap") >= 1, "somebody sits out in every round");
+    }
+
+    @Test
+    @DisplayName("Requested objective weights should keep pairs to avoid apart")
+    void testObjectiveWeights() {
+        ObjectiveWeights weights = new ObjectiveWeights(1, 1, 0, 100, List.of(List.of("Alice", "Bob"), List.of("Eve", "Frank")));
+        ScheduleConfig config = new ScheduleConfig(testPlayerNames.subList(0, 8), 8, 4, weights);
+
+        Plan plan = service.generateSchedule(config);
+
+        for (Round round : plan.getRounds()) {
+            List<String> names = round.getSelectedPlayers().stream().map(Player::getName).toList();
+            assertFalse(names.containsAll(List.of("Alice", "Bob")), "Alice and Bob share round " + round.getRoundNo());
+            assertFalse(names.containsAll(List.of("Eve", "Frank")), "Eve and Frank share round " + round.getRoundNo());
+        }
+        assertThrows(IllegalArgumentException.class, () -> service.generateSchedule(new ScheduleConfig(testPlayerNames, 4, 4,
+                new ObjectiveWeights(-1, 1, 0, 0, null))));
+        assertThrows(IllegalArgumentException.class, () -> service.generateSchedule(new ScheduleConfig(testPlayerNames, 4, 4,
+                new ObjectiveWeights(1, 1, 0, 1, List.of(List.of("Alice", "Nobody"))))));
+    }
+}
@@ -0,0 +1,133 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.ScheduleConfig;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScheduleJobService
+ */
+@QuarkusTest
+@DisplayName("ScheduleJobService Tests")
+class ScheduleJobServiceTest {
+
+    @Test
+    @DisplayName("Should run a job to completion and report progress and score")
+    void testSubmit_Completes() throws InterruptedException {
+        ScheduleJobService jobService = new ScheduleJobService(fastService(), 1, 4, 60);
+
+        ScheduleJob job = jobService.submit(config(10, 20));
+        awaitFinished(job);
+
+        assertEquals(ScheduleJob.Status.COMPLETED, job.getStatus());
+        assertEquals(20, job.getResult().getRounds().size());
+        assertEquals(1.0, job.getProgress());
+        assertNotNull(job.getBestScore());
+        assertSame(job, jobService.getJob(job.getId()));
+    }
+
+    @Test
+    @DisplayName("Should reject jobs when the queue is full and cancel queued jobs")
+    void testSubmit_QueueFull() throws InterruptedException {
+        // annealing for a second keeps the single worker busy
+        ScheduleGenerationService slowService = new ScheduleGenerationService(
+                new PairingGenerator(PairingGenerator.Strategy.ANNEALING, 1L, 10, 10, 1_000),
+                PairingGenerator.GroupScoring.PAIR_OVERLAP);
+        ScheduleJobService jobService = new ScheduleJobService(slowService, 1, 1, 60);
+
+        ScheduleJob running = jobService.submit(config(10, 5));
+        while (running.getStatus() == ScheduleJob.Status.QUEUED) Thread.sleep(5);
+        ScheduleJob queued = jobService.submit(config(10, 5));
+
+        assertThrows(RejectedExecutionException.class, () -> jobService.submit(config(10, 5)));
+        jobService.cancel(queued.getId());
+        assertEquals(ScheduleJob.Status.CANCELLED, queued.getStatus());
+        assertDoesNotThrow(() -> jobService.submit(config(10, 5)), "Cancelling should free the queue slot");
+        awaitFinished(running);
+        assertEquals(ScheduleJob.Status.COMPLETED, running.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should stop a running job at its next progress report")
+    void testCancel_RunningJob() throws InterruptedException {
+        ScheduleJobService jobService = new ScheduleJobService(fastService(), 1, 4, 60);
+        ScheduleJob job = jobService.submit(config(40, 1_000_000));
+        while (job.getStatus() == ScheduleJob.Status.QUEUED) Thread.sleep(5);
+
+        jobService.cancel(job.getId());
+        awaitFinished(job);
+
+        assertEquals(ScheduleJob.Status.CANCELLED, job.getStatus());
+        assertNull(job.getResult());
+    }
+
+    @Test
+    @DisplayName("Should stay cancelled when the cancel arrives after the last progress report")
+    void testCancel_WhileGenerating() throws InterruptedException {
+        CountDownLatch generating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // reports no progress while blocked, so only the check after the generation sees the cancel
+        ScheduleGenerationService blockingService = new ScheduleGenerationService(
+                new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 5L, 20, 10),
+                PairingGenerator.GroupScoring.PAIR_OVERLAP) {
+            @Override
+            public Plan generateSchedule(ScheduleConfig config, ScheduleProgressListener listener) {
+                generating.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.generateSchedule(config, ScheduleProgressListener.NONE);
+            }
+        };
+        ScheduleJobService jobService = new ScheduleJobService(blockingService, 1, 4, 60);
+        ScheduleJob job = jobService.submit(config(10, 5));
+        generating.await();
+
+        jobService.cancel(job.getId());
+        release.countDown();
+        awaitFinished(job);
+
+        assertEquals(ScheduleJob.Status.CANCELLED, job.getStatus());
+        assertNull(job.getResult());
+        assertFalse(job.started(), "A cancelled job must not start again");
+        assertFalse(job.completed(null), "A cancelled job must not complete");
+        assertEquals(ScheduleJob.Status.CANCELLED, job.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid configurations before queueing")
+    void testSubmit_InvalidConfig() {
+        ScheduleJobService jobService = new ScheduleJobService(fastService(), 1, 4, 60);
+
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(config(3, 5)));
+        assertNull(jobService.cancel("unknown"));
+    }
+
+    private static ScheduleGenerationService fastService() {
+        return new ScheduleGenerationService(new PairingGenerator(PairingGenerator.Strategy.GREEDY_SHUFFLE, 5L, 20, 10),
+                PairingGenerator.GroupScoring.PAIR_OVERLAP);
+    }
+
+    private static ScheduleConfig config(int players, int rounds) {
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i <= players; i++) names.add("Player " + i);
+        return new ScheduleConfig(names, rounds, 4);
+    }
+
+    private static void awaitFinished(ScheduleJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertTrue(job.isFinished(), "Job did not finish in time");
+    }
+}
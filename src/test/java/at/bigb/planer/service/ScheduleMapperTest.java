@@ -1,5 +1,6 @@
 package at.bigb.planer.service;
 
+import at.bigb.planer.domain.Pairing;
 import at.bigb.planer.domain.Plan;
 import at.bigb.planer.domain.Player;
 import at.bigb.planer.domain.Round;
@@ -15,6 +16,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -207,5 +209,45 @@ class ScheduleMapperTest {
 
         assertTrue(dto.getRounds().isEmpty(), "Empty rounds should be preserved");
     }
-}
 
+    @Test
+    @DisplayName("Should map Plan to IndexedPlanDto with player indices")
+    void testMapPlanToIndexedDto() {
+        Plan plan = Plan.create(testPlayers, 2);
+        plan.setRounds(Arrays.asList(
+                new Round(1, LocalDate.of(2024, 1, 15), List.of(testPlayers.get(3), testPlayers.get(0), testPlayers.get(1))),
+                new Round(2, LocalDate.of(2024, 1, 22), List.of(testPlayers.get(2), testPlayers.get(1), testPlayers.get(0)))));
+
+        IndexedPlanDto dto = ScheduleMapper.mapPlanToIndexedDto(plan);
+
+        assertEquals(plan.getId(), dto.getId());
+        assertEquals(testPlayerDtos, dto.getPlayers());
+        assertEquals(2, dto.getRounds().size());
+        assertArrayEquals(new int[]{3, 0, 1}, dto.getRounds().get(0).getPlayerIndices());
+        assertArrayEquals(new int[]{2, 1, 0}, dto.getRounds().get(1).getPlayerIndices());
+        assertEquals(LocalDate.of(2024, 1, 22), dto.getRounds().get(1).getRoundDate());
+        assertEquals(2, dto.getNumberOfRounds());
+    }
+
+    @Test
+    @DisplayName("Should reject rounds with players that are not part of the plan")
+    void testMapRoundToIndexedDtoUnknownPlayer() {
+        Round round = new Round(1, LocalDate.of(2024, 1, 15), List.of(testPlayers.get(0), new Player("unknown", "Eve")));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ScheduleMapper.mapRoundToIndexedDto(round, Map.of(testPlayers.get(0).getId(), 0)));
+    }
+
+    @Test
+    @DisplayName("Should map a pairing to player names, showing the id of an unknown player")
+    void testMapPairingToDto() {
+        Player alice = testPlayers.get(0);
+        Pairing pairing = new Pairing(Set.of(alice.getId(), "unknown"));
+        pairing.setFrequency(3);
+
+        PairingDto dto = ScheduleMapper.mapPairingToDto(pairing, Map.of(alice.getId(), alice));
+
+        assertEquals(Set.of("Alice", "unknown"), Set.copyOf(dto.getPlayerNames()));
+        assertEquals(3, dto.getFrequency());
+    }
+}
@@ -0,0 +1,122 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.Player;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScheduleObjective and its built-in terms
+ */
+@DisplayName("ScheduleObjective Tests")
+class ScheduleObjectiveTest {
+
+    @Test
+    @DisplayName("Incremental deltas should match the change of the full cost")
+    void testDeltaMatchesCost() {
+        int playerCount = 9;
+        ScheduleObjective objective = ScheduleObjective.builder()
+                .add(ScheduleObjective.partnerRepeats(), 1)
+                .add(ScheduleObjective.appearanceBalance(), 2)
+                .add(ScheduleObjective.appearanceSpacing(), 3)
+                .add(ScheduleObjective.avoidedPairs(new int[][]{{0, 1}, {2, 5}}), 5)
+                .build();
+        Random random = new Random(13);
+        int[][] rounds = new int[8][];
+        PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(createPlayers(playerCount)), 3);
+        for (int r = 0; r < rounds.length; r++) {
+            rounds[r] = new int[]{r % playerCount, (r + 1) % playerCount, (r + 2) % playerCount};
+            history.recordPairing(rounds[r]);
+        }
+        ScheduleObjective.Search search = objective.start(rounds, playerCount, history);
+
+        for (int move = 0; move < 500; move++) {
+            int round = random.nextInt(rounds.length);
+            int slot = random.nextInt(3);
+            int in = random.nextInt(playerCount);
+            if (in == rounds[round][0] || in == rounds[round][1] || in == rounds[round][2]) continue;
+            long before = search.cost();
+            long delta = search.delta(round, slot, in);
+            search.apply(round, slot, in);
+            assertEquals(before + delta, search.cost(), "move " + move);
+        }
+
+        // a fresh evaluation of the changed rounds agrees with the incremental state
+        PairingAnalyzer rescored = new PairingAnalyzer(new PlayerRegistry(createPlayers(playerCount)), 3);
+        for (int[] group : rounds) rescored.recordPairing(group);
+        assertEquals(objective.cost(rounds, playerCount, rescored), search.cost());
+    }
+
+    @Test
+    @DisplayName("Objectives with the same terms and weights should be equal")
+    void testEquality() {
+        ScheduleObjective rebuilt = ScheduleObjective.builder()
+                .add(ScheduleObjective.partnerRepeats(), 1)
+                .add(ScheduleObjective.appearanceBalance(), 1)
+                .add(ScheduleObjective.appearanceSpacing(), 0)
+                .build();
+        ScheduleObjective avoid = ScheduleObjective.builder()
+                .add(ScheduleObjective.avoidedPairs(new int[][]{{0, 1}, {5, 2}}), 3)
+                .build();
+        ScheduleObjective avoidReordered = ScheduleObjective.builder()
+                .add(ScheduleObjective.avoidedPairs(new int[][]{{2, 5}, {1, 0}, {0, 1}}), 3)
+                .build();
+
+        assertEquals(ScheduleObjective.DEFAULT, rebuilt);
+        assertEquals(ScheduleObjective.DEFAULT.hashCode(), rebuilt.hashCode());
+        assertEquals(avoid, avoidReordered);
+        assertNotEquals(avoid, ScheduleObjective.builder()
+                .add(ScheduleObjective.avoidedPairs(new int[][]{{0, 1}}), 3)
+                .build());
+        assertNotEquals(ScheduleObjective.DEFAULT, ScheduleObjective.builder()
+                .add(ScheduleObjective.partnerRepeats(), 2)
+                .add(ScheduleObjective.appearanceBalance(), 1)
+                .build());
+        assertEquals("ScheduleObjective[3*avoidedPairs[0-1,2-5]]", avoid.toString());
+    }
+
+    @Test
+    @DisplayName("Should leave out terms with weight 0 and reject negative weights")
+    void testWeights() {
+        ScheduleObjective spacingOff = ScheduleObjective.builder()
+                .add(ScheduleObjective.appearanceSpacing(), 0)
+                .build();
+        int[][] rounds = {{0, 1}, {0, 1}};
+        PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(createPlayers(3)), 2);
+
+        assertEquals(0, spacingOff.cost(rounds, 3, history));
+        assertTrue(spacingOff.isEmpty());
+        assertFalse(ScheduleObjective.DEFAULT.isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> ScheduleObjective.builder().add(ScheduleObjective.partnerRepeats(), -1));
+    }
+
+    @Test
+    @DisplayName("Spacing should count players of the round before continued rounds")
+    void testSpacingAfterPreviousRound() {
+        ScheduleObjective spacing = ScheduleObjective.builder()
+                .add(ScheduleObjective.appearanceSpacing(), 1)
+                .build();
+        int[][] rounds = {{0, 4}, {1, 2}};
+        PairingAnalyzer history = new PairingAnalyzer(new PlayerRegistry(createPlayers(5)), 2);
+        for (int[] group : rounds) history.recordPairing(group);
+
+        ScheduleObjective.Search search = spacing.start(rounds, new int[]{0, 1}, 5, history);
+
+        assertEquals(0, spacing.cost(rounds, 5, history));
+        assertEquals(1, search.cost());
+        assertEquals(-1, search.delta(0, 0, 3));
+        assertEquals(2, search.delta(0, 1, 1)); // next to the previous round and to round 1
+    }
+
+    private List<Player> createPlayers(int count) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < count; i++) players.add(new Player("id-" + i, "P" + i));
+        return players;
+    }
+}
@@ -0,0 +1,130 @@
+package at.bigb.planer.service;
+
+import at.bigb.planer.domain.ObjectiveWeights;
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.Player;
+import at.bigb.planer.domain.ScheduleConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScheduleResultCache
+ */
+@DisplayName("ScheduleResultCache Tests")
+class ScheduleResultCacheTest {
+
+    private static final PairingGenerator.Strategy STRATEGY = PairingGenerator.Strategy.GREEDY_SHUFFLE;
+    private static final PairingGenerator.GroupScoring SCORING = PairingGenerator.GroupScoring.PAIR_OVERLAP;
+
+    @Test
+    @DisplayName("Key should ignore player order but not seed, rounds or group size")
+    void testCanonicalKey() {
+        ScheduleConfig config = new ScheduleConfig(Arrays.asList("Anna", "Ben", "Chris", "Dora"), 5, 4);
+        ScheduleConfig reordered = new ScheduleConfig(Arrays.asList("Dora", "Chris", "Anna", "Ben"), 5, 4);
+        String key = ScheduleResultCache.key(config, STRATEGY, 42L, SCORING);
+
+        assertEquals(key, ScheduleResultCache.key(reordered, STRATEGY, 42L, SCORING));
+        assertNotEquals(key, ScheduleResultCache.key(config, STRATEGY, 43L, SCORING));
+        assertNotEquals(key, ScheduleResultCache.key(new ScheduleConfig(config.getPlayerNames(), 6, 4), STRATEGY, 42L, SCORING));
+        assertNotEquals(key, ScheduleResultCache.key(new ScheduleConfig(config.getPlayerNames(), 5, 3), STRATEGY, 42L, SCORING));
+        assertNotEquals(key, ScheduleResultCache.key(config, PairingGenerator.Strategy.ANNEALING, 42L, SCORING));
+    }
+
+    @Test
+    @DisplayName("Key should map weights that build the same objective to the same plan")
+    void testCanonicalKey_Objective() {
+        List<String> names = Arrays.asList("Anna", "Ben", "Chris", "Dora");
+        String key = ScheduleResultCache.key(new ScheduleConfig(names, 5, 4), STRATEGY, 42L, SCORING);
+        String avoid = ScheduleResultCache.key(new ScheduleConfig(names, 5, 4,
+                new ObjectiveWeights(1, 1, 0, 5, List.of(List.of("Anna", "Ben"), List.of("Chris", "Dora")))), STRATEGY, 42L, SCORING);
+
+        assertEquals(key, ScheduleResultCache.key(new ScheduleConfig(names, 5, 4, new ObjectiveWeights()), STRATEGY, 42L, SCORING));
+        assertEquals(key, ScheduleResultCache.key(new ScheduleConfig(names, 5, 4,
+                new ObjectiveWeights(1, 1, 0, 5, null)), STRATEGY, 42L, SCORING));
+        assertEquals(avoid, ScheduleResultCache.key(new ScheduleConfig(names, 5, 4,
+                new ObjectiveWeights(1, 1, 0, 5, List.of(List.of("Dora", "Chris"), List.of("Ben", "Anna")))), STRATEGY, 42L, SCORING));
+        assertNotEquals(key, avoid);
+        assertNotEquals(key, ScheduleResultCache.key(new ScheduleConfig(names, 5, 4,
+                new ObjectiveWeights(1, 1, 2, 0, null)), STRATEGY, 42L, SCORING));
+    }
+
+    @Test
+    @DisplayName("Concurrent identical requests should be generated only once")
+    void testSingleFlight() throws Exception {
+        ScheduleResultCache cache = new ScheduleResultCache(10);
+        AtomicInteger generations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        PlanContext context = context();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<PlanContext>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> cache.get("key", () -> {
+                    generations.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return context;
+                })));
+            }
+            Thread.sleep(100); // let all requests reach the cache
+            release.countDown();
+            for (Future<PlanContext> result : results) {
+                assertSame(context, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, generations.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(3, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Failed generations should not be cached")
+    void testFailureNotCached() {
+        ScheduleResultCache cache = new ScheduleResultCache(10);
+        assertThrows(IllegalStateException.class, () -> cache.get("key", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        PlanContext context = context();
+        assertSame(context, cache.get("key", () -> context));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used result when full")
+    void testEviction() {
+        ScheduleResultCache cache = new ScheduleResultCache(2);
+        cache.get("a", ScheduleResultCacheTest::context);
+        cache.get("b", ScheduleResultCacheTest::context);
+        cache.get("a", ScheduleResultCacheTest::context); // hit, "b" is now the least recently used
+        cache.get("c", ScheduleResultCacheTest::context);
+
+        AtomicInteger generations = new AtomicInteger();
+        cache.get("a", () -> { generations.incrementAndGet(); return context(); });
+        cache.get("b", () -> { generations.incrementAndGet(); return context(); });
+
+        assertEquals(1, generations.get(), "only the evicted result is generated again");
+        assertEquals(2, cache.size());
+    }
+
+    private static PlanContext context() {
+        List<Player> players = List.of(new Player("1", "A"), new Player("2", "B"));
+        return new PlanContext(Plan.create(players, 0), players, new int[0][], new PairingAnalyzer(new PlayerRegistry(players), 2));
+    }
+}
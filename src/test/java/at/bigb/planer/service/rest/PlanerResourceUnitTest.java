@@ -1,15 +1,35 @@
 package at.bigb.planer.service.rest;
 
+import at.bigb.planer.domain.Plan;
+import at.bigb.planer.domain.dto.BatchItemResultDto;
+import at.bigb.planer.domain.dto.ExtendPlanDto;
+import at.bigb.planer.domain.dto.IndexedPlanDto;
 import at.bigb.planer.domain.dto.PlanDto;
 import at.bigb.planer.domain.dto.PlayerDto;
+import at.bigb.planer.domain.dto.RepairPlanDto;
 import at.bigb.planer.domain.dto.ScheduleConfigDto;
 import at.bigb.planer.domain.dto.ScheduleStatsDto;
 import at.bigb.planer.domain.dto.PairingDto;
+import at.bigb.planer.domain.dto.RoundDto;
+import at.bigb.planer.domain.dto.StreamedRoundDto;
+import at.bigb.planer.service.PlanBinaryCodec;
+import at.bigb.planer.service.ScheduleGenerationService;
+import at.bigb.planer.service.ScheduleMapper;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
 import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,7 +45,7 @@ class PlanerResourceUnitTest {
 
     @BeforeEach
     void setUp() {
-        resource = new PlanerResource();
+        resource = new PlanerResource(new ScheduleGenerationService(ConfigProvider.getConfig()));
     }
 
     @Test
@@ -112,7 +132,7 @@ class PlanerResourceUnitTest {
     @Test
     @DisplayName("Get statistics should return valid stats")
     void testGetStatistics() {
-        ScheduleStatsDto stats = resource.getStatistics();
+        ScheduleStatsDto stats = resource.getStatistics(null);
 
         assertNotNull(stats);
         assertTrue(stats.getTotalUniquePairings() >= 0);
@@ -122,7 +142,7 @@ class PlanerResourceUnitTest {
     @Test
     @DisplayName("Get all pairings should return list")
     void testGetAllPairings() {
-        List<PairingDto> pairings = resource.getAllPairings();
+        List<PairingDto> pairings = resource.getAllPairings(null, null, 0, null);
 
         assertNotNull(pairings);
         assertInstanceOf(List.class, pairings);
@@ -196,7 +216,7 @@ class PlanerResourceUnitTest {
         configDto.setPlayersPerRound(4);
         resource.generateSchedule(configDto);
 
-        List<PairingDto> pairings = resource.getAllPairings();
+        List<PairingDto> pairings = resource.getAllPairings(null, null, 0, null);
         assertNotNull(pairings);
         assertFalse(pairings.isEmpty());
         for (PairingDto dto : pairings) {
@@ -206,6 +226,23 @@ class PlanerResourceUnitTest {
         }
     }
 
+    @Test
+    @DisplayName("Pairings endpoint should page pairings in both orders")
+    void testPairingsPaging() {
+        ScheduleConfigDto configDto = new ScheduleConfigDto(Arrays.asList("Anna", "Ben", "Chris", "Dora", "Emil"), 12, 4);
+        PlanDto plan = resource.generateSchedule(configDto);
+
+        List<PairingDto> all = resource.getAllPairings(plan.getId(), null, 0, null);
+        List<PairingDto> mostFrequent = resource.getAllPairings(plan.getId(), "most", 0, 2);
+        assertEquals(2, mostFrequent.size());
+        assertEquals(all.get(all.size() - 1).getFrequency(), mostFrequent.get(0).getFrequency());
+        assertTrue(mostFrequent.get(0).getFrequency() >= mostFrequent.get(1).getFrequency());
+        assertEquals(all.subList(1, 3), resource.getAllPairings(plan.getId(), "least", 1, 2));
+        assertTrue(resource.getAllPairings(plan.getId(), "most", all.size(), 5).isEmpty());
+        assertThrows(BadRequestException.class, () -> resource.getAllPairings(plan.getId(), "random", 0, null));
+        assertThrows(BadRequestException.class, () -> resource.getAllPairings(plan.getId(), null, -1, null));
+    }
+
     @Test
     @DisplayName("Player usage endpoint should return correct usage statistics")
     void testPlayerUsageEndpoint() {
@@ -215,7 +252,7 @@ class PlanerResourceUnitTest {
         configDto.setPlayersPerRound(4);
         resource.generateSchedule(configDto);
 
-        Map<String, Integer> usage = resource.getPlayerUsage();
+        Map<String, Integer> usage = resource.getPlayerUsage(null);
         assertNotNull(usage);
         assertEquals(4, usage.size());
         int min = usage.values().stream().min(Integer::compareTo).orElse(0);
@@ -226,4 +263,199 @@ class PlanerResourceUnitTest {
             assertTrue(usage.containsKey(name), "Usage should contain player " + name);
         }
     }
+
+    @Test
+    @DisplayName("Stream endpoint should emit every round in order")
+    void testStreamScheduleEndpoint() {
+        ScheduleConfigDto configDto = new ScheduleConfigDto();
+        configDto.setPlayerNames(Arrays.asList("Anna", "Ben", "Chris", "Dora", "Emil", "Fritz"));
+        configDto.setNumberOfRounds(8);
+        configDto.setPlayersPerRound(4);
+
+        List<StreamedRoundDto> rounds = resource.streamSchedule(configDto)
+                .collect().asList()
+                .await().atMost(Duration.ofSeconds(30));
+
+        assertEquals(8, rounds.size());
+        String planId = rounds.get(0).getPlanId();
+        for (int i = 0; i < rounds.size(); i++) {
+            assertEquals(i + 1, rounds.get(i).getRoundNo());
+            assertEquals(4, rounds.get(i).getSelectedPlayers().size());
+            assertEquals(planId, rounds.get(i).getPlanId());
+        }
+        assertEquals(8, resource.getPlan(planId).getRounds().size(), "The streamed plan should be stored");
+    }
+
+    @Test
+    @DisplayName("Stream endpoint should only generate rounds the client requested")
+    void testStreamScheduleEndpoint_Backpressure() throws InterruptedException {
+        ScheduleConfigDto configDto = new ScheduleConfigDto();
+        configDto.setPlayerNames(Arrays.asList("Anna", "Ben", "Chris", "Dora", "Emil", "Fritz"));
+        configDto.setNumberOfRounds(8);
+        configDto.setPlayersPerRound(4);
+
+        AssertSubscriber<StreamedRoundDto> subscriber = resource.streamSchedule(configDto)
+                .subscribe().withSubscriber(AssertSubscriber.create(2));
+        subscriber.awaitItems(2);
+        Thread.sleep(200);
+
+        // the generator waits instead of overflowing, which would fail the stream
+        assertEquals(2, subscriber.getItems().size());
+        subscriber.assertNotTerminated();
+
+        subscriber.request(6);
+        subscriber.awaitCompletion();
+        assertEquals(8, subscriber.getItems().size());
+    }
+
+    @Test
+    @DisplayName("Stream endpoint should reject invalid configuration before streaming")
+    void testStreamScheduleEndpointInvalidConfig() {
+        ScheduleConfigDto configDto = new ScheduleConfigDto();
+        configDto.setPlayerNames(Arrays.asList("Anna", "Ben"));
+        configDto.setNumberOfRounds(3);
+
+        assertThrows(BadRequestException.class, () -> resource.streamSchedule(configDto));
+    }
+
+    @Test
+    @DisplayName("Statistics endpoints should address plans by id")
+    void testEndpointsByPlanId() {
+        ScheduleConfigDto first = new ScheduleConfigDto(Arrays.asList("Anna", "Ben", "Chris", "Dora"), 3, 4);
+        ScheduleConfigDto second = new ScheduleConfigDto(Arrays.asList("Emil", "Fritz", "Gerda", "Hans", "Ida"), 5, 4);
+        PlanDto firstPlan = resource.generateSchedule(first);
+        resource.generateSchedule(second);
+
+        assertEquals(3, resource.getStatistics(firstPlan.getId()).getTotalPairingRecords());
+        assertEquals(5, resource.getStatistics(null).getTotalPairingRecords(), "Without id the last plan is used");
+        assertEquals(Set.of("Anna", "Ben", "Chris", "Dora"), resource.getPlayerUsage(firstPlan.getId()).keySet());
+        assertEquals(List.of("Anna", "Ben", "Chris", "Dora"),
+                resource.getAllPairings(firstPlan.getId(), null, 0, null).get(0).getPlayerNames().stream().sorted().toList());
+        assertThrows(NotFoundException.class, () -> resource.getStatistics("unknown"));
+    }
+
+    @Test
+    @DisplayName("Plan endpoints should return stored plans by id")
+    void testPlanEndpoints() throws IOException {
+        ScheduleConfigDto configDto = new ScheduleConfigDto(Arrays.asList("Anna", "Ben", "Chris", "Dora", "Emil"), 4, 4);
+        PlanDto generated = resource.generateSchedule(configDto);
+        resource.generateSchedule(configDto);
+
+        PlanDto fetched = resource.getPlan(generated.getId());
+        assertEquals(generated.getRounds(), fetched.getRounds());
+        assertEquals(4, resource.getPlanStatistics(generated.getId()).getTotalPairingRecords());
+        Response csv = resource.getPlanCsv(generated.getId());
+        assertEquals(200, csv.getStatus());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) csv.getEntity()).write(out);
+        assertEquals(5, out.toString(StandardCharsets.UTF_8).lines().count(), "Header plus one line per round");
+        assertThrows(NotFoundException.class, () -> resource.getPlan("unknown"));
+        assertThrows(NotFoundException.class, () -> resource.getPlanCsv("unknown"));
+    }
+
+    @Test
+    @DisplayName("Extend endpoints should append rounds to stored and uploaded plans")
+    void testExtendEndpoints() {
+        ScheduleConfigDto configDto = new ScheduleConfigDto(Arrays.asList("Anna", "Ben", "Chris", "Dora", "Emil"), 4, 4);
+        PlanDto generated = resource.generateSchedule(configDto);
+
+        PlanDto extended = resource.extendPlan(generated.getId(), 3);
+        assertEquals(7, extended.getRounds().size());
+        assertEquals(generated.getRounds(), extended.getRounds().subList(0, 4));
+        assertNotNull(resource.getPlan(extended.getId()));
+
+        PlanDto uploaded = resource.extendRounds(new ExtendPlanDto(generated.getRounds(), null, 2));
+        assertEquals(6, uploaded.getRounds().size());
+
+        assertThrows(BadRequestException.class, () -> resource.extendPlan(generated.getId(), 0));
+        assertThrows(BadRequestException.class, () -> resource.extendRounds(new ExtendPlanDto(null, null, 2)));
+        assertThrows(NotFoundException.class, () -> resource.extendPlan("unknown", 2));
+    }
+
+    @Test
+    @DisplayName("Repair endpoint should replace unavailable players in the date range")
+    void testRepairEndpoint() {
+        ScheduleConfigDto configDto = new ScheduleConfigDto(Arrays.asList("Anna", "Ben", "Chris", "Dora", "Emil", "Fritz"), 6, 4);
+        PlanDto generated = resource.generateSchedule(configDto);
+        RoundDto third = generated.getRounds().get(2);
+
+        PlanDto repaired = resource.repairPlan(generated.getId(),
+                new RepairPlanDto(third.getRoundDate(), third.getRoundDate(), List.of("Anna", "Ben"), null));
+
+        assertTrue(repaired.getRounds().get(2).getSelectedPlayers().stream()
+                .noneMatch(p -> p.getName().equals("Anna") || p.getName().equals("Ben")));
+        assertEquals(generated.getRounds().get(3), repaired.getRounds().get(3));
+        assertThrows(BadRequestException.class, () -> resource.repairPlan(generated.getId(),
+                new RepairPlanDto(third.getRoundDate(), third.getRoundDate(), List.of("Anna", "Ben", "Chris"), null)));
+        assertThrows(NotFoundException.class, () -> resource.repairPlan("unknown",
+                new RepairPlanDto(third.getRoundDate(), third.getRoundDate(), null, null)));
+        assertThrows(BadRequestException.class, () -> resource.repairPlan(generated.getId(), null));
+    }
+
+    @Test
+    @DisplayName("Batch endpoint should return a result or an error for every item")
+    void testBatchEndpoint() {
+        List<ScheduleConfigDto> batch = Arrays.asList(
+                new ScheduleConfigDto(Arrays.asList("Anna", "Ben", "Chris", "Dora", "Emil"), 4, 4),
+                new ScheduleConfigDto(Arrays.asList("Anna", "Ben"), 4, 4),
+                new ScheduleConfigDto(Arrays.asList("Fritz", "Gabi", "Hans", "Ida", "Jan", "Kai"), 6, 3),
+                null);
+
+        List<BatchItemResultDto> results = resource.generateBatch(batch)
+                .collect().asList()
+                .await().atMost(Duration.ofSeconds(30));
+
+        assertEquals(4, results.size());
+        results.sort(Comparator.comparingInt(BatchItemResultDto::getIndex));
+        assertEquals(4, results.get(0).getPlan().getRounds().size());
+        assertNull(results.get(0).getError());
+        assertNull(results.get(1).getPlan());
+        assertTrue(results.get(1).getError().startsWith("Invalid configuration"));
+        assertEquals(3, results.get(2).getPlan().getRounds().get(0).getSelectedPlayers().size());
+        assertNotNull(results.get(3).getError());
+        assertNotNull(resource.getPlan(results.get(2).getPlan().getId()), "batch plans are stored");
+        assertThrows(BadRequestException.class, () -> resource.generateBatch(List.of()));
+    }
+
+    @Test
+    @DisplayName("Binary endpoints should export and re-import a plan")
+    void testBinaryEndpoints() throws IOException {
+        ScheduleConfigDto configDto = new ScheduleConfigDto(Arrays.asList("Anna", "Ben", "Chris", "Dora", "Emil"), 4, 4);
+        Plan plan = resource.generateScheduleBinary(configDto);
+        assertSame(plan, resource.getPlanBinary(plan.getId()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PlanBinaryCodec.write(plan, out);
+        Plan decoded = PlanBinaryCodec.read(new ByteArrayInputStream(out.toByteArray()));
+        decoded.setId("imported-plan");
+        PlanDto imported = resource.importPlan(decoded);
+
+        assertEquals("imported-plan", imported.getId());
+        assertEquals(ScheduleMapper.mapPlanToDto(plan).getRounds(), resource.getPlan("imported-plan").getRounds());
+        assertEquals(4, resource.getPlanStatistics("imported-plan").getTotalPairingRecords());
+        decoded.getRounds().get(0).setSelectedPlayers(decoded.getPlayers().subList(0, 3));
+        assertThrows(BadRequestException.class, () -> resource.importPlan(decoded));
+        assertThrows(BadRequestException.class, () -> resource.generateScheduleBinary(
+                new ScheduleConfigDto(Arrays.asList("Anna", "Ben"), 4, 4)));
+    }
+
+    @Test
+    @DisplayName("Indexed endpoints should return rounds with player indices")
+    void testIndexedEndpoints() {
+        ScheduleConfigDto configDto = new ScheduleConfigDto(Arrays.asList("Anna", "Ben", "Chris", "Dora", "Emil"), 4, 4);
+        IndexedPlanDto generated = resource.generateScheduleIndexed(configDto);
+        IndexedPlanDto fetched = resource.getPlanIndexed(generated.getId());
+        PlanDto legacy = resource.getPlan(generated.getId());
+
+        assertEquals(generated, fetched);
+        for (int r = 0; r < legacy.getRounds().size(); r++) {
+            int[] indices = fetched.getRounds().get(r).getPlayerIndices();
+            List<PlayerDto> selected = legacy.getRounds().get(r).getSelectedPlayers();
+            assertEquals(selected.size(), indices.length);
+            for (int i = 0; i < indices.length; i++) {
+                assertEquals(selected.get(i), fetched.getPlayers().get(indices[i]));
+            }
+        }
+        assertThrows(NotFoundException.class, () -> resource.getPlanIndexed("unknown"));
+    }
 }
@@ -0,0 +1,85 @@
+package at.bigb.planer.service.rest;
+
+import at.bigb.planer.domain.dto.PlanDto;
+import at.bigb.planer.domain.dto.ScheduleConfigDto;
+import at.bigb.planer.domain.dto.ScheduleJobDto;
+import at.bigb.planer.service.ScheduleGenerationService;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScheduleJobResource
+ */
+@DisplayName("ScheduleJobResource Unit Tests")
+class ScheduleJobResourceTest {
+
+    private ScheduleJobResource resource;
+    private PlanerResource planerResource;
+
+    @BeforeEach
+    void setUp() {
+        ScheduleGenerationService scheduleService = new ScheduleGenerationService(ConfigProvider.getConfig());
+        resource = new ScheduleJobResource(scheduleService);
+        planerResource = new PlanerResource(scheduleService);
+    }
+
+    @Test
+    @DisplayName("Submitted job should complete and return its plan")
+    void testSubmitAndFetchResult() throws InterruptedException {
+        ScheduleConfigDto configDto = new ScheduleConfigDto(
+                Arrays.asList("Alice", "Bob", "Charlie", "David", "Eve", "Frank"), 6, 4);
+
+        Response response = resource.submitJob(configDto);
+        assertEquals(202, response.getStatus());
+        String id = ((ScheduleJobDto) response.getEntity()).getId();
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        ScheduleJobDto status = resource.getJob(id);
+        while (!"COMPLETED".equals(status.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = resource.getJob(id);
+        }
+        PlanDto plan = resource.getJobResult(id);
+        assertEquals(6, plan.getRounds().size());
+        assertEquals(1.0, status.getProgress());
+    }
+
+    @Test
+    @DisplayName("A job's plan should be available through the plans endpoint")
+    void testJobPlanFetchedByPlanId() throws InterruptedException {
+        ScheduleConfigDto configDto = new ScheduleConfigDto(
+                Arrays.asList("Alice", "Bob", "Charlie", "David", "Eve", "Frank"), 4, 4);
+
+        String id = ((ScheduleJobDto) resource.submitJob(configDto).getEntity()).getId();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!"COMPLETED".equals(resource.getJob(id).getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        PlanDto plan = resource.getJobResult(id);
+
+        assertNotNull(plan.getId());
+        PlanDto stored = planerResource.getPlan(plan.getId());
+        assertEquals(plan.getRounds(), stored.getRounds());
+        assertTrue(planerResource.getPlanStatistics(plan.getId()).getTotalPairingRecords() > 0);
+    }
+
+    @Test
+    @DisplayName("Invalid configuration and unknown jobs should be rejected")
+    void testErrors() {
+        ScheduleConfigDto tooFew = new ScheduleConfigDto(List.of("Alice", "Bob"), 3, 4);
+
+        assertThrows(BadRequestException.class, () -> resource.submitJob(tooFew));
+        assertThrows(NotFoundException.class, () -> resource.getJob("unknown"));
+        assertThrows(NotFoundException.class, () -> resource.cancelJob("unknown"));
+    }
+}